@@ -3,11 +3,18 @@ package com.bank.account_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.bank.common.config.VirtualThreadMonitor;
+import com.bank.common.id.IdGeneratorConfig;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableKafka
+@EnableScheduling
+@Import({IdGeneratorConfig.class, VirtualThreadMonitor.class})
 public class AccountServiceApplication {
 
 	public static void main(String[] args) {
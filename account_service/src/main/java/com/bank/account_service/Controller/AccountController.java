@@ -2,18 +2,22 @@ package com.bank.account_service.Controller;
 
 import com.bank.account_service.dto.*;
 import com.bank.account_service.service.AccountService;
+import com.bank.account_service.service.BalanceExportService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 import com.bank.account_service.entity.AccountResponse;
 import com.bank.account_service.entity.BalanceUpdateRequest;
+import com.bank.common.config.BalanceWireFormat;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -21,6 +25,7 @@ import com.bank.account_service.entity.BalanceUpdateRequest;
 public class AccountController {
     
     private final AccountService accountService;
+    private final BalanceExportService balanceExportService;
     
     @PostMapping
     public ResponseEntity<AccountResponse> createAccount(@Valid @RequestBody CreateAccountRequest request) {
@@ -37,11 +42,51 @@ public class AccountController {
         return ResponseEntity.ok(accountService.getCustomerAccounts(customerId));
     }
     
-    @PutMapping("/{accountNumber}/balance")
-    public ResponseEntity<Void> updateBalance(
+    // Declared here because the binary converter answers only to the exact media type,
+    // so it never offers itself as producible
+    @PutMapping(value = "/{accountNumber}/balance",
+                produces = {MediaType.APPLICATION_JSON_VALUE, BalanceWireFormat.MEDIA_TYPE_VALUE})
+    public ResponseEntity<AccountResponse> updateBalance(
             @PathVariable String accountNumber,
             @RequestBody BalanceUpdateRequest request) {
-        accountService.updateBalance(accountNumber, request.getAmount(), request.getOperation());
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(accountService.updateBalance(accountNumber, request.getAmount(), request.getOperation()));
+    }
+    
+    @PutMapping("/{accountNumber}/shards")
+    public ResponseEntity<AccountResponse> reshardAccount(
+            @PathVariable String accountNumber,
+            @RequestParam int count) {
+        return ResponseEntity.ok(accountService.reshardAccount(accountNumber, count));
+    }
+    
+    @PostMapping("/transfers")
+    public ResponseEntity<TransferResponse> transfer(@Valid @RequestBody TransferRequest request) {
+        return ResponseEntity.ok(accountService.transfer(request));
+    }
+    
+    @PostMapping("/transfers/cancel")
+    public ResponseEntity<TransferResponse> cancelTransfer(@Valid @RequestBody TransferRequest request) {
+        return ResponseEntity.ok(accountService.cancelTransfer(request));
+    }
+    
+    @PostMapping("/balances/batch")
+    public ResponseEntity<List<BalanceMovementResult>> applyBalanceMovements(
+            @Valid @RequestBody BatchBalanceUpdateRequest request) {
+        return ResponseEntity.ok(accountService.applyMovements(request.getMovements()));
+    }
+    
+    @GetMapping("/balances/partitions")
+    public ResponseEntity<List<String>> getBalancePartitions(@RequestParam(defaultValue = "16") int count) {
+        return ResponseEntity.ok(balanceExportService.partitionBoundaries(count));
+    }
+    
+    @GetMapping("/balances/export")
+    public ResponseEntity<StreamingResponseBody> exportBalances(
+            @RequestParam(defaultValue = "") String from,
+            @RequestParam(required = false) String to) {
+        StreamingResponseBody body = out -> balanceExportService.exportBalances(from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 }
@@ -0,0 +1,68 @@
+package com.bank.account_service.config;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.bank.account_service.entity.AccountResponse;
+import com.bank.account_service.entity.BalanceUpdateRequest;
+import com.bank.common.config.BalanceWireFormat;
+
+/**
+ * Server half of {@link BalanceWireFormat}: reads balance update requests and writes
+ * the updated balance. Only used when the caller asks for the binary media type by name.
+ * A malformed request is rejected as unreadable (400), like malformed JSON.
+ */
+public class BinaryBalanceMessageConverter extends AbstractHttpMessageConverter<Object> {
+    
+    public BinaryBalanceMessageConverter() {
+        super(BalanceWireFormat.MEDIA_TYPE);
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == BalanceUpdateRequest.class || clazz == AccountResponse.class;
+    }
+    
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == BalanceUpdateRequest.class && canRead(mediaType) && mediaType != null;
+    }
+    
+    // Only on an exact match: a null or wildcard Accept must keep getting JSON
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return clazz == AccountResponse.class && BalanceWireFormat.MEDIA_TYPE.equalsTypeAndSubtype(mediaType);
+    }
+    
+    @Override
+    protected Long getContentLength(Object response, MediaType contentType) {
+        return (long) BalanceWireFormat.RESPONSE_LENGTH;
+    }
+    
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        try {
+            return BalanceWireFormat.readRequest(new DataInputStream(inputMessage.getBody()),
+                    (operation, amount) -> BalanceUpdateRequest.builder()
+                            .operation(operation)
+                            .amount(amount)
+                            .build());
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Malformed binary balance update: " + e.getMessage(), e, inputMessage);
+        }
+    }
+    
+    @Override
+    protected void writeInternal(Object response, HttpOutputMessage outputMessage) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputMessage.getBody());
+        BalanceWireFormat.writeBalance(((AccountResponse) response).getBalance(), out);
+        out.flush();
+    }
+}
@@ -0,0 +1,20 @@
+package com.bank.account_service.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Appends the binary balance converter after the JSON one, so JSON stays the default
+ * and the binary format is only chosen when a caller explicitly asks for it.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new BinaryBalanceMessageConverter());
+    }
+}
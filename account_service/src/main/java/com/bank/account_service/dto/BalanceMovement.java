@@ -0,0 +1,33 @@
+package com.bank.account_service.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single money movement inside a batch. Either side may be null
+ * (deposit = credit only, withdrawal = debit only, transfer = both).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceMovement {
+
+    @NotBlank(message = "Reference is required")
+    private String reference;
+
+    private String debitAccountNumber;
+
+    private String creditAccountNumber;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+}
@@ -0,0 +1,20 @@
+package com.bank.account_service.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBalanceUpdateRequest {
+
+    @NotEmpty(message = "At least one movement is required")
+    private List<@Valid BalanceMovement> movements;
+}
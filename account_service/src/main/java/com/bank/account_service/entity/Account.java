@@ -1,6 +1,7 @@
 package com.bank.account_service.entity;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
@@ -12,6 +13,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
@@ -27,7 +29,8 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Account {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -47,6 +50,26 @@ public class Account {
     
     private String currency;
     
+    // Initial deposit and interest reach the balance without a ledger transaction;
+    // reconciliation adds them to the ledger net
+    @Column(name = "opening_balance")
+    private BigDecimal openingBalance;
+    
+    @Column(name = "interest_credited")
+    private BigDecimal interestCredited;
+    
+    // Interest accrued but not yet posted: the sub-cent part carried to the next day
+    @Column(name = "accrued_interest", precision = 38, scale = 16)
+    private BigDecimal accruedInterest;
+    
+    // Above 1, the balance is this row's plus that of the account's AccountShard rows
+    @Column(name = "shard_count")
+    private Integer shardCount;
+    
+    // Day of the last interest accrual, so a rerun of the same night credits nothing twice
+    @Column(name = "interest_accrued_on")
+    private LocalDate interestAccruedOn;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
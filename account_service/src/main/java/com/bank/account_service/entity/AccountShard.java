@@ -0,0 +1,45 @@
+package com.bank.account_service.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One sub-balance of a sharded account. The account's balance is its own row's
+ * balance plus the balances of its shards; credits land on a random shard, so they
+ * lock that shard's row instead of the account's.
+ */
+@Entity
+@Table(name = "account_shards", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_account_shard", columnNames = {"account_number", "shard_index"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountShard {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_shards_seq")
+    @SequenceGenerator(name = "account_shards_seq", sequenceName = "account_shards_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+    
+    @Column(name = "shard_index", nullable = false)
+    private int shardIndex;
+    
+    @Column(nullable = false)
+    private BigDecimal balance;
+}
@@ -0,0 +1,68 @@
+package com.bank.account_service.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of one chunk of an interest accrual run: the accounts with ids in
+ * [chunkStart, chunkEnd) for one accrual date. A completed chunk is skipped when the
+ * run is repeated; a failed one keeps its last error and is retried. Written only with
+ * the upserts in InterestAccrualChunkRepository.
+ */
+@Entity
+@Table(name = "interest_accrual_chunks")
+@IdClass(InterestAccrualChunk.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InterestAccrualChunk {
+    @Id
+    @Column(name = "accrual_date")
+    private LocalDate accrualDate;
+    
+    @Id
+    @Column(name = "chunk_start")
+    private long chunkStart;
+    
+    @Column(name = "chunk_end", nullable = false)
+    private long chunkEnd;
+    
+    @Column(nullable = false)
+    private boolean completed;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(nullable = false)
+    private long accounts;
+    
+    @Column(nullable = false)
+    private BigDecimal interest;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate accrualDate;
+        private long chunkStart;
+    }
+}
@@ -0,0 +1,67 @@
+package com.bank.account_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One side of a balance movement in ledger mode. Every movement appends a debit and a
+ * credit entry sharing a pairId; the amounts of a pair sum to zero. Entries are never
+ * updated, except that the snapshot job flags them applied once their amount is folded
+ * into the account's balance.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries", indexes = {
+    @Index(name = "idx_ledger_account", columnList = "accountNumber, id"),
+    @Index(name = "idx_ledger_pair", columnList = "pairId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entries_seq")
+    @SequenceGenerator(name = "ledger_entries_seq", sequenceName = "ledger_entries_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long pairId;
+    
+    // Caller's reference of the movement, when it has one
+    private String reference;
+    
+    @Column(nullable = false)
+    private String accountNumber;
+    
+    // Positive for a credit, negative for a debit
+    @Column(nullable = false)
+    private BigDecimal amount;
+    
+    @Column(nullable = false)
+    private boolean applied;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
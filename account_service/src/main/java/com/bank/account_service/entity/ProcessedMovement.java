@@ -0,0 +1,63 @@
+package com.bank.account_service.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a batch balance movement, keyed by its reference. A caller that re-sends
+ * a batch after a timeout gets the stored outcome back instead of a second movement.
+ * Rows are only ever inserted, so they report themselves new and save skips the
+ * SELECT a merge would otherwise issue per row.
+ */
+@Entity
+@Table(name = "processed_movements")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedMovement implements Persistable<String> {
+    @Id
+    private String reference;
+    
+    @Column(nullable = false)
+    private boolean applied;
+    
+    private String failureReason;
+    
+    @Column(name = "debit_balance_after")
+    private BigDecimal debitBalanceAfter;
+    
+    @Column(name = "credit_balance_after")
+    private BigDecimal creditBalanceAfter;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    @Override
+    public String getId() {
+        return reference;
+    }
+    
+    // Set on insert, and loaded rows always have it
+    @Override
+    public boolean isNew() {
+        return createdAt == null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.bank.account_service.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What happened to a referenced transfer, so a caller retrying after a timeout
+ * never moves the money twice, and a cancel that wins the race against a slow
+ * original blocks it for good.
+ */
+@Entity
+@Table(name = "processed_transfers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedTransfer {
+    @Id
+    private String reference;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransferOutcome outcome;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
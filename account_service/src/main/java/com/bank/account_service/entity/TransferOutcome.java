@@ -0,0 +1,5 @@
+package com.bank.account_service.entity;
+
+public enum TransferOutcome {
+    APPLIED, CANCELLED
+}
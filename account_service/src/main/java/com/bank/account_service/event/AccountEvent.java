@@ -17,4 +17,8 @@ public class AccountEvent {
     private Long customerId;
     private BigDecimal balance;
     private Long timestamp;
+    
+    // Summary events (INTEREST_ACCRUED) cover a range of accounts rather than one
+    private Integer accountCount;
+    private BigDecimal amount;
 }
\ No newline at end of file
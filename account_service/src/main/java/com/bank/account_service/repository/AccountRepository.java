@@ -1,16 +1,23 @@
 package com.bank.account_service.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.bank.account_service.entity.Account;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
@@ -20,7 +27,142 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
     Optional<Account> findByAccountNumberForUpdate(String accountNumber);
     
+    // Ordered so that concurrent batches always acquire row locks in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumber IN :accountNumbers ORDER BY a.accountNumber")
+    List<Account> findAllByAccountNumberInForUpdate(Collection<String> accountNumbers);
+    
     List<Account> findByCustomerId(Long customerId);
     
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+    
+    @Query("SELECT a.accountNumber AS accountNumber, a.shardCount AS shardCount FROM Account a WHERE a.shardCount > 1")
+    List<ShardedAccount> findShardedAccounts();
+    
+    interface ShardedAccount {
+        String getAccountNumber();
+        
+        int getShardCount();
+    }
+    
+    // The account's own row plus its shards, if it has any
+    @Query(value = """
+            SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM account_shards s WHERE s.account_number = a.account_number), 0)
+            FROM accounts a
+            WHERE a.account_number = :accountNumber
+            """, nativeQuery = true)
+    Optional<BigDecimal> findTotalBalance(String accountNumber);
+    
+    // Native, unlike findByAccountNumberForUpdate, for accounts whose balance is only
+    // changed with native statements (sharded accounts)
+    @Query(value = "SELECT balance FROM accounts WHERE account_number = :accountNumber FOR UPDATE", nativeQuery = true)
+    Optional<BigDecimal> lockBalance(String accountNumber);
+    
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance + :amount, version = COALESCE(version, 0) + 1, " +
+                   "updated_at = now() WHERE account_number = :accountNumber", nativeQuery = true)
+    int addToBalance(String accountNumber, BigDecimal amount);
+    
+    @Modifying
+    @Query(value = "UPDATE accounts SET shard_count = :shardCount, version = COALESCE(version, 0) + 1, " +
+                   "updated_at = now() WHERE account_number = :accountNumber", nativeQuery = true)
+    int updateShardCount(String accountNumber, int shardCount);
+    
     boolean existsByAccountNumber(String accountNumber);
+    
+    @Query("SELECT MIN(a.id) FROM Account a")
+    Long findMinId();
+    
+    @Query("SELECT MAX(a.id) FROM Account a")
+    Long findMaxId();
+    
+    /**
+     * Credits one day of interest to the active accounts with a positive balance in
+     * [fromId, toId) not yet accrued for the date, in a single statement. Rates are
+     * daily, per account type. The day's interest is added unrounded to the account's
+     * accrued_interest, and the whole cents of that are moved to the balance; the
+     * sub-cent remainder stays accrued for the next day, so small balances earn
+     * interest too, only posted less often. Rows are locked like any balance update,
+     * in account number order like transfers take them, so a concurrent run or
+     * transfer waits instead of overwriting or deadlocking. The counts cover only
+     * accounts that had a cent or more posted.
+     */
+    @Query(value = """
+            WITH due AS (
+                SELECT id, COALESCE(accrued_interest, 0) + (balance + COALESCE((SELECT SUM(s.balance) FROM account_shards s WHERE s.account_number = accounts.account_number), 0)) * CASE account_type
+                        WHEN 'SAVINGS' THEN CAST(:savingsRate AS numeric)
+                        WHEN 'CHECKING' THEN CAST(:checkingRate AS numeric)
+                        WHEN 'FIXED_DEPOSIT' THEN CAST(:fixedDepositRate AS numeric)
+                        WHEN 'CURRENT' THEN CAST(:currentRate AS numeric)
+                        ELSE 0 END AS accrued
+                FROM accounts
+                WHERE id >= :fromId AND id < :toId AND status = 'ACTIVE' AND (balance > 0 OR shard_count > 1)
+                  AND (interest_accrued_on IS NULL OR interest_accrued_on < :accrualDate)
+                ORDER BY account_number
+                FOR UPDATE
+            ), credited AS (
+                UPDATE accounts a
+                SET balance = a.balance + TRUNC(due.accrued, 2), interest_accrued_on = :accrualDate,
+                    accrued_interest = due.accrued - TRUNC(due.accrued, 2),
+                    interest_credited = COALESCE(a.interest_credited, 0) + TRUNC(due.accrued, 2),
+                    version = COALESCE(a.version, 0) + 1, updated_at = now()
+                FROM due
+                WHERE a.id = due.id AND due.accrued > 0
+                RETURNING TRUNC(due.accrued, 2) AS interest
+            )
+            SELECT COUNT(*) FILTER (WHERE interest > 0) AS accounts, COALESCE(SUM(interest), 0) AS interest FROM credited
+            """, nativeQuery = true)
+    InterestCredited creditInterest(long fromId, long toId, LocalDate accrualDate,
+                                    BigDecimal savingsRate, BigDecimal checkingRate,
+                                    BigDecimal fixedDepositRate, BigDecimal currentRate);
+    
+    interface InterestCredited {
+        long getAccounts();
+        
+        BigDecimal getInterest();
+    }
+    
+    /**
+     * Account numbers splitting the accounts into count ranges of about equal size.
+     * Account numbers are compared in byte order (the "C" collation), which is the
+     * order of String.compareTo, so callers can merge against other sorted streams.
+     */
+    @Query(value = """
+            SELECT DISTINCT unnest(percentile_disc(ARRAY(
+                       SELECT CAST(g AS float8) / :count FROM generate_series(1, :count - 1) g))
+                   WITHIN GROUP (ORDER BY account_number COLLATE "C"))
+            FROM accounts
+            """, nativeQuery = true)
+    List<String> findPartitionBoundaries(int count);
+    
+    // Reconciliation export of [from, to) in byte order, to = null for no upper bound;
+    // balances include pending ledger entries and shards. Walks idx_accounts_number_c, must be
+    // consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query(value = """
+            SELECT account_number AS "accountNumber",
+                   balance + COALESCE((SELECT SUM(e.amount) FROM ledger_entries e
+                        WHERE e.account_number = accounts.account_number AND NOT e.applied), 0)
+                   + COALESCE((SELECT SUM(s.balance) FROM account_shards s WHERE s.account_number = accounts.account_number), 0) AS "balance",
+                   COALESCE(opening_balance, 0) AS "openingBalance",
+                   COALESCE(interest_credited, 0) AS "interestCredited"
+            FROM accounts
+            WHERE account_number COLLATE "C" >= :from
+              AND (CAST(:to AS text) IS NULL OR account_number COLLATE "C" < CAST(:to AS text))
+            ORDER BY account_number COLLATE "C"
+            """, nativeQuery = true)
+    Stream<BalanceRow> streamBalances(String from, String to);
+    
+    interface BalanceRow {
+        String getAccountNumber();
+        
+        BigDecimal getBalance();
+        
+        BigDecimal getOpeningBalance();
+        
+        BigDecimal getInterestCredited();
+    }
 }
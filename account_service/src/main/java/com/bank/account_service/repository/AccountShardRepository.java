@@ -0,0 +1,47 @@
+package com.bank.account_service.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.bank.account_service.entity.AccountShard;
+
+/**
+ * Shard balances are only ever changed with single UPDATE statements, never through
+ * managed entities, so concurrent credits to different shards never see stale state.
+ */
+@Repository
+public interface AccountShardRepository extends JpaRepository<AccountShard, Long> {
+    
+    @Modifying
+    @Query(value = "UPDATE account_shards SET balance = balance + :amount " +
+                   "WHERE account_number = :accountNumber AND shard_index = :shardIndex", nativeQuery = true)
+    int addToShard(String accountNumber, int shardIndex, BigDecimal amount);
+    
+    // Any shard able to cover the amount on its own, skipping shards other transactions hold
+    @Query(value = "SELECT shard_index FROM account_shards " +
+                   "WHERE account_number = :accountNumber AND balance >= :amount " +
+                   "ORDER BY random() LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Integer> lockShardCovering(String accountNumber, BigDecimal amount);
+    
+    // All shards of the account, locked in index order
+    @Query(value = "SELECT shard_index AS \"shardIndex\", balance AS \"balance\" FROM account_shards " +
+                   "WHERE account_number = :accountNumber ORDER BY shard_index FOR UPDATE", nativeQuery = true)
+    List<ShardBalance> lockShards(String accountNumber);
+    
+    interface ShardBalance {
+        int getShardIndex();
+        
+        BigDecimal getBalance();
+    }
+    
+    @Modifying
+    @Query(value = "DELETE FROM account_shards WHERE account_number = :accountNumber AND shard_index >= :fromIndex",
+           nativeQuery = true)
+    int deleteShardsFrom(String accountNumber, int fromIndex);
+}
@@ -0,0 +1,45 @@
+package com.bank.account_service.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.bank.account_service.entity.InterestAccrualChunk;
+
+@Repository
+public interface InterestAccrualChunkRepository extends JpaRepository<InterestAccrualChunk, InterestAccrualChunk.Key> {
+    
+    @Query("SELECT c.chunkStart FROM InterestAccrualChunk c WHERE c.accrualDate = :accrualDate AND c.completed = true")
+    List<Long> findCompletedChunkStarts(LocalDate accrualDate);
+    
+    @Query("SELECT DISTINCT c.accrualDate FROM InterestAccrualChunk c WHERE c.completed = false ORDER BY c.accrualDate")
+    List<LocalDate> findDatesWithFailedChunks();
+    
+    // Upserts, so that instances running the same chunk never trip over each other's row
+    @Modifying
+    @Query(value = """
+            INSERT INTO interest_accrual_chunks AS c
+                (accrual_date, chunk_start, chunk_end, completed, attempts, accounts, interest, last_error, updated_at)
+            VALUES (:accrualDate, :chunkStart, :chunkEnd, true, 1, :accounts, :interest, NULL, now())
+            ON CONFLICT (accrual_date, chunk_start) DO UPDATE
+            SET completed = true, attempts = c.attempts + 1, accounts = c.accounts + EXCLUDED.accounts,
+                interest = c.interest + EXCLUDED.interest, last_error = NULL, updated_at = now()
+            """, nativeQuery = true)
+    int markCompleted(LocalDate accrualDate, long chunkStart, long chunkEnd, long accounts, BigDecimal interest);
+    
+    @Modifying
+    @Query(value = """
+            INSERT INTO interest_accrual_chunks AS c
+                (accrual_date, chunk_start, chunk_end, completed, attempts, accounts, interest, last_error, updated_at)
+            VALUES (:accrualDate, :chunkStart, :chunkEnd, false, 1, 0, 0, :error, now())
+            ON CONFLICT (accrual_date, chunk_start) DO UPDATE
+            SET attempts = c.attempts + 1, last_error = EXCLUDED.last_error, updated_at = now()
+            WHERE NOT c.completed
+            """, nativeQuery = true)
+    int markFailed(LocalDate accrualDate, long chunkStart, long chunkEnd, String error);
+}
@@ -0,0 +1,86 @@
+package com.bank.account_service.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.bank.account_service.entity.LedgerEntry;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    
+    // Snapshot and pending entries are read in one statement, so a concurrent snapshot
+    // run is seen either entirely or not at all. Shards of an account sharded before
+    // ledger mode was switched on still count
+    @Query(value = """
+            SELECT a.balance + COALESCE((SELECT SUM(e.amount) FROM ledger_entries e
+                    WHERE e.account_number = a.account_number AND NOT e.applied), 0)
+                + COALESCE((SELECT SUM(s.balance) FROM account_shards s WHERE s.account_number = a.account_number), 0)
+            FROM accounts a
+            WHERE a.account_number = :accountNumber
+            """, nativeQuery = true)
+    Optional<BigDecimal> findAvailableBalance(String accountNumber);
+    
+    @Query(value = """
+            SELECT a.account_number AS "accountNumber",
+                   a.balance + COALESCE((SELECT SUM(e.amount) FROM ledger_entries e
+                        WHERE e.account_number = a.account_number AND NOT e.applied), 0)
+                   + COALESCE((SELECT SUM(s.balance) FROM account_shards s WHERE s.account_number = a.account_number), 0) AS "balance"
+            FROM accounts a
+            WHERE a.account_number IN :accountNumbers
+            """, nativeQuery = true)
+    List<AvailableBalance> findAvailableBalances(Collection<String> accountNumbers);
+    
+    interface AvailableBalance {
+        String getAccountNumber();
+        
+        BigDecimal getBalance();
+    }
+    
+    // Held until the transaction ends; keyed by a hash, so a collision only costs a wait
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(:accountNumber))", nativeQuery = true)
+    int lockForDebit(String accountNumber);
+    
+    /**
+     * Folds up to limit pending entries, oldest first, into the balances of their
+     * accounts and flags them applied, in one statement. Entries are claimed with SKIP
+     * LOCKED, so concurrent runs take disjoint batches, and account rows are locked in
+     * account number order. Like every data-modifying CTE, snapshot runs to completion
+     * although the final SELECT does not read it. Returns the number of entries folded.
+     */
+    @Query(value = """
+            WITH batch AS (
+                SELECT id FROM ledger_entries
+                WHERE NOT applied
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ), folded AS (
+                UPDATE ledger_entries e SET applied = true
+                FROM batch
+                WHERE e.id = batch.id
+                RETURNING e.account_number, e.amount
+            ), totals AS (
+                SELECT account_number, SUM(amount) AS amount FROM folded GROUP BY account_number
+            ), locked AS (
+                SELECT a.id, totals.amount
+                FROM accounts a JOIN totals ON totals.account_number = a.account_number
+                ORDER BY a.account_number
+                FOR UPDATE OF a
+            ), snapshot AS (
+                UPDATE accounts a
+                SET balance = a.balance + locked.amount,
+                    version = COALESCE(a.version, 0) + 1, updated_at = now()
+                FROM locked
+                WHERE a.id = locked.id
+                RETURNING a.id
+            )
+            SELECT COUNT(*) FROM folded
+            """, nativeQuery = true)
+    long foldPendingEntries(int limit);
+}
@@ -0,0 +1,35 @@
+package com.bank.account_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.bank.account_service.entity.OutboxEvent;
+import com.bank.common.outbox.OutboxStore;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxStore<OutboxEvent> {
+    
+    // The two-key form keeps it apart from the single-key locks taken on hashed account numbers
+    @Override
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('account-service outbox relay'), 0)", nativeQuery = true)
+    boolean tryLockRelay();
+    
+    // Called only by the holder of the relay lock, so events leave in id order
+    @Override
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(int limit);
+    
+    // The lowest id is (near enough) the oldest event, and is found on the primary key index
+    @Override
+    @Query(value = "SELECT created_at FROM outbox_events ORDER BY id LIMIT 1", nativeQuery = true)
+    LocalDateTime findOldestCreatedAt();
+    
+    @Override
+    @Query(value = "SELECT count(*) FROM (SELECT 1 FROM outbox_events LIMIT :cap) e", nativeQuery = true)
+    long countUpTo(int cap);
+}
@@ -0,0 +1,10 @@
+package com.bank.account_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.bank.account_service.entity.ProcessedTransfer;
+
+@Repository
+public interface ProcessedTransferRepository extends JpaRepository<ProcessedTransfer, String> {
+}
@@ -1,24 +1,40 @@
 package com.bank.account_service.service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bank.account_service.dto.BalanceMovement;
+import com.bank.account_service.dto.BalanceMovementResult;
 import com.bank.account_service.dto.CreateAccountRequest;
+import com.bank.account_service.dto.TransferRequest;
+import com.bank.account_service.dto.TransferResponse;
 import com.bank.account_service.entity.Account;
 import com.bank.account_service.entity.AccountResponse;
 import com.bank.account_service.entity.AccountStatus;
+import com.bank.account_service.entity.ProcessedMovement;
+import com.bank.account_service.entity.ProcessedTransfer;
+import com.bank.account_service.entity.TransferOutcome;
 import com.bank.account_service.event.AccountEvent;
 import com.bank.account_service.exception.AccountNotFoundException;
 import com.bank.account_service.exception.InsufficientBalanceException;
 import com.bank.account_service.exception.InvalidAccountException;
 import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.ProcessedMovementRepository;
+import com.bank.account_service.repository.ProcessedTransferRepository;
+import com.bank.common.id.IdGenerator;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,7 +46,12 @@ import lombok.extern.slf4j.Slf4j;
 public class AccountService {
     
     private final AccountRepository accountRepository;
-    private final KafkaTemplate<String, AccountEvent> kafkaTemplate;
+    private final OutboxService outboxService;
+    private final IdGenerator idGenerator;
+    private final ProcessedTransferRepository processedTransferRepository;
+    private final ProcessedMovementRepository processedMovementRepository;
+    private final LedgerService ledgerService;
+    private final AccountShardService accountShardService;
     
     @Transactional
     @CacheEvict(value = "accounts", allEntries = true)
@@ -41,6 +62,7 @@ public class AccountService {
                 .customerId(request.getCustomerId())
                 .accountType(request.getAccountType())
                 .balance(request.getInitialDeposit())
+                .openingBalance(request.getInitialDeposit())
                 .status(AccountStatus.ACTIVE)
                 .currency(request.getCurrency())
                 .build();
@@ -56,11 +78,24 @@ public class AccountService {
     public AccountResponse getAccount(String accountNumber) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new InvalidAccountException("Account not found: " + accountNumber));
+        if (ledgerService.isEnabled()) {
+            return toResponse(account, ledgerService.availableBalance(accountNumber));
+        }
         return toResponse(account);
     }
     
     @Transactional
-    public void updateBalance(String accountNumber, BigDecimal amount, String operation) {
+    public AccountResponse updateBalance(String accountNumber, BigDecimal amount, String operation) {
+        if (ledgerService.isEnabled()) {
+            return postBalanceUpdate(accountNumber, amount, operation);
+        }
+        if (accountShardService.isSharded(accountNumber)) {
+            Account account = "DEBIT".equals(operation)
+                    ? debitSide(accountNumber, amount, "Insufficient balance")
+                    : creditSide(accountNumber, amount);
+            publishEvent("BALANCE_UPDATED", account);
+            return toResponse(account);
+        }
         Account account = accountRepository.findByAccountNumberForUpdate(accountNumber)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found"));
         
@@ -75,39 +110,684 @@ public class AccountService {
         
         accountRepository.save(account);
         publishEvent("BALANCE_UPDATED", account);
+        return toResponse(account);
+    }
+    
+    // Ledger mode: only a debit waits for earlier debits of the account, and nothing
+    // waits for a credit. The balance returned for a credit is as of its own append.
+    private AccountResponse postBalanceUpdate(String accountNumber, BigDecimal amount, String operation) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        
+        BigDecimal balance;
+        if ("DEBIT".equals(operation)) {
+            ledgerService.lockForDebit(List.of(accountNumber));
+            BigDecimal available = ledgerService.availableBalance(accountNumber);
+            if (available.compareTo(amount) < 0) {
+                throw new InsufficientBalanceException("Insufficient balance");
+            }
+            ledgerService.post(null, accountNumber, null, amount);
+            balance = available.subtract(amount);
+        } else {
+            ledgerService.post(null, null, accountNumber, amount);
+            balance = ledgerService.availableBalance(accountNumber);
+        }
+        
+        publishEvent("BALANCE_UPDATED", account, balance);
+        return toResponse(account, balance);
+    }
+    
+    /**
+     * Moves money between two accounts in a single DB transaction. Both rows are locked
+     * in account number order, so two opposite-direction transfers between the same
+     * pair of accounts queue behind each other instead of deadlocking.
+     * A transfer carrying a reference is applied at most once: a repeat returns the
+     * current balances, and a transfer cancelled first is rejected.
+     */
+    @Transactional
+    public TransferResponse transfer(TransferRequest request) {
+        if (ledgerService.isEnabled()) {
+            return postTransfer(request);
+        }
+        if (isSharded(request)) {
+            return shardedTransfer(request);
+        }
+        Account[] pair = lockPair(request);
+        Account source = pair[0];
+        Account destination = pair[1];
+        
+        ProcessedTransfer processed = findProcessed(request.getReference());
+        if (processed != null) {
+            if (processed.getOutcome() == TransferOutcome.CANCELLED) {
+                throw new InvalidAccountException("Transfer " + request.getReference() + " was cancelled");
+            }
+            return toTransferResponse(request, source, destination);
+        }
+        
+        if (source.getBalance().compareTo(request.getAmount()) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance");
+        }
+        move(source, destination, request.getAmount());
+        markProcessed(request.getReference(), TransferOutcome.APPLIED);
+        
+        return toTransferResponse(request, source, destination);
+    }
+    
+    /**
+     * Cancels a referenced transfer. If it was applied, the money is moved back; if it
+     * never arrived, the reference is recorded as cancelled so a late original is
+     * rejected. Takes the same locks as {@link #transfer}, so the two cannot interleave.
+     * Cancelling twice is a no-op.
+     */
+    @Transactional
+    public TransferResponse cancelTransfer(TransferRequest request) {
+        if (request.getReference() == null || request.getReference().isBlank()) {
+            throw new InvalidAccountException("A reference is required to cancel a transfer");
+        }
+        if (ledgerService.isEnabled()) {
+            return postTransferCancellation(request);
+        }
+        if (isSharded(request)) {
+            return shardedTransferCancellation(request);
+        }
+        Account[] pair = lockPair(request);
+        Account source = pair[0];
+        Account destination = pair[1];
+        
+        ProcessedTransfer processed = findProcessed(request.getReference());
+        if (processed == null) {
+            markProcessed(request.getReference(), TransferOutcome.CANCELLED);
+        } else if (processed.getOutcome() == TransferOutcome.APPLIED) {
+            if (destination.getBalance().compareTo(request.getAmount()) < 0) {
+                throw new InsufficientBalanceException("Insufficient balance to reverse transfer");
+            }
+            move(destination, source, request.getAmount());
+            processed.setOutcome(TransferOutcome.CANCELLED);
+            processedTransferRepository.save(processed);
+            log.info("Reversed transfer {}", request.getReference());
+        }
+        
+        return toTransferResponse(request, source, destination);
+    }
+    
+    /**
+     * Ledger mode {@link #transfer}. Only the source is locked, for debits; repeats of a
+     * referenced transfer queue on that lock, so the processed check stays exact.
+     */
+    private TransferResponse postTransfer(TransferRequest request) {
+        Account[] pair = findPair(request);
+        ledgerService.lockForDebit(List.of(request.getFromAccountNumber()));
+        
+        ProcessedTransfer processed = findProcessed(request.getReference());
+        if (processed != null) {
+            if (processed.getOutcome() == TransferOutcome.CANCELLED) {
+                throw new InvalidAccountException("Transfer " + request.getReference() + " was cancelled");
+            }
+            return postedTransferResponse(request, pair);
+        }
+        
+        if (ledgerService.availableBalance(request.getFromAccountNumber()).compareTo(request.getAmount()) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance");
+        }
+        ledgerService.post(request.getReference(), request.getFromAccountNumber(),
+                request.getToAccountNumber(), request.getAmount());
+        markProcessed(request.getReference(), TransferOutcome.APPLIED);
+        
+        TransferResponse response = postedTransferResponse(request, pair);
+        publishEvent("BALANCE_UPDATED", pair[0], response.getFromBalance());
+        publishEvent("BALANCE_UPDATED", pair[1], response.getToBalance());
+        return response;
+    }
+    
+    /**
+     * Ledger mode {@link #cancelTransfer}. The reversal debits the destination, so that
+     * is the account locked; cancels of the same transfer queue on it.
+     */
+    private TransferResponse postTransferCancellation(TransferRequest request) {
+        Account[] pair = findPair(request);
+        ledgerService.lockForDebit(List.of(request.getToAccountNumber()));
+        
+        ProcessedTransfer processed = findProcessed(request.getReference());
+        if (processed == null) {
+            markProcessed(request.getReference(), TransferOutcome.CANCELLED);
+            return postedTransferResponse(request, pair);
+        }
+        if (processed.getOutcome() == TransferOutcome.APPLIED) {
+            if (ledgerService.availableBalance(request.getToAccountNumber()).compareTo(request.getAmount()) < 0) {
+                throw new InsufficientBalanceException("Insufficient balance to reverse transfer");
+            }
+            ledgerService.post(request.getReference(), request.getToAccountNumber(),
+                    request.getFromAccountNumber(), request.getAmount());
+            processed.setOutcome(TransferOutcome.CANCELLED);
+            processedTransferRepository.save(processed);
+            log.info("Reversed transfer {}", request.getReference());
+            
+            TransferResponse response = postedTransferResponse(request, pair);
+            publishEvent("BALANCE_UPDATED", pair[0], response.getFromBalance());
+            publishEvent("BALANCE_UPDATED", pair[1], response.getToBalance());
+            return response;
+        }
+        return postedTransferResponse(request, pair);
+    }
+    
+    // Returns {source, destination}, unlocked
+    private Account[] findPair(TransferRequest request) {
+        if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
+            throw new InvalidAccountException("Cannot transfer to the same account");
+        }
+        return new Account[] { findAccount(request.getFromAccountNumber()), findAccount(request.getToAccountNumber()) };
+    }
+    
+    private Account findAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+    }
+    
+    private TransferResponse postedTransferResponse(TransferRequest request, Account[] pair) {
+        return TransferResponse.builder()
+                .fromAccountNumber(pair[0].getAccountNumber())
+                .toAccountNumber(pair[1].getAccountNumber())
+                .amount(request.getAmount())
+                .fromBalance(ledgerService.availableBalance(pair[0].getAccountNumber()))
+                .toBalance(ledgerService.availableBalance(pair[1].getAccountNumber()))
+                .build();
+    }
+    
+    private boolean isSharded(TransferRequest request) {
+        return accountShardService.isSharded(request.getFromAccountNumber())
+                || accountShardService.isSharded(request.getToAccountNumber());
+    }
+    
+    /**
+     * {@link #transfer} with a sharded account on either side. A sharded account's row is
+     * not locked, so a repeat of a referenced transfer is stopped by the processed
+     * transfer's primary key instead: the second insert fails and rolls back its move.
+     */
+    private TransferResponse shardedTransfer(TransferRequest request) {
+        if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
+            throw new InvalidAccountException("Cannot transfer to the same account");
+        }
+        ProcessedTransfer processed = findProcessed(request.getReference());
+        if (processed != null) {
+            if (processed.getOutcome() == TransferOutcome.CANCELLED) {
+                throw new InvalidAccountException("Transfer " + request.getReference() + " was cancelled");
+            }
+            Account[] pair = findPair(request);
+            return toTransferResponse(request, pair[0], pair[1]);
+        }
+        
+        Account[] pair = moveSharded(request.getFromAccountNumber(), request.getToAccountNumber(),
+                request.getAmount(), "Insufficient balance");
+        markProcessed(request.getReference(), TransferOutcome.APPLIED);
+        return toTransferResponse(request, pair[0], pair[1]);
+    }
+    
+    private TransferResponse shardedTransferCancellation(TransferRequest request) {
+        Account[] pair = findPair(request);
+        ProcessedTransfer processed = findProcessed(request.getReference());
+        if (processed == null) {
+            markProcessed(request.getReference(), TransferOutcome.CANCELLED);
+        } else if (processed.getOutcome() == TransferOutcome.APPLIED) {
+            Account[] reversed = moveSharded(request.getToAccountNumber(), request.getFromAccountNumber(),
+                    request.getAmount(), "Insufficient balance to reverse transfer");
+            pair = new Account[] { reversed[1], reversed[0] };
+            processed.setOutcome(TransferOutcome.CANCELLED);
+            processedTransferRepository.save(processed);
+            log.info("Reversed transfer {}", request.getReference());
+        }
+        return toTransferResponse(request, pair[0], pair[1]);
+    }
+    
+    // Returns {source, destination}; the sides are applied in account number order, like lockPair
+    private Account[] moveSharded(String from, String to, BigDecimal amount, String insufficientMessage) {
+        Account source;
+        Account destination;
+        if (from.compareTo(to) < 0) {
+            source = debitSide(from, amount, insufficientMessage);
+            destination = creditSide(to, amount);
+        } else {
+            destination = creditSide(to, amount);
+            source = debitSide(from, amount, insufficientMessage);
+        }
+        publishEvent("BALANCE_UPDATED", source);
+        publishEvent("BALANCE_UPDATED", destination);
+        return new Account[] { source, destination };
+    }
+    
+    // Sharded accounts are changed by AccountShardService without loading them locked;
+    // any other account is locked and updated as usual
+    private Account debitSide(String accountNumber, BigDecimal amount, String insufficientMessage) {
+        if (!accountShardService.isSharded(accountNumber)) {
+            Account account = lockAccount(accountNumber);
+            if (account.getBalance().compareTo(amount) < 0) {
+                throw new InsufficientBalanceException(insufficientMessage);
+            }
+            account.setBalance(account.getBalance().subtract(amount));
+            return accountRepository.save(account);
+        }
+        Account account = findAccount(accountNumber);
+        if (!accountShardService.debit(accountNumber, amount)) {
+            throw new InsufficientBalanceException(insufficientMessage);
+        }
+        return account;
+    }
+    
+    private Account creditSide(String accountNumber, BigDecimal amount) {
+        if (!accountShardService.isSharded(accountNumber)) {
+            Account account = lockAccount(accountNumber);
+            account.setBalance(account.getBalance().add(amount));
+            return accountRepository.save(account);
+        }
+        Account account = findAccount(accountNumber);
+        accountShardService.credit(accountNumber, amount);
+        return account;
+    }
+    
+    // Returns {source, destination}, locked in account number order
+    private Account[] lockPair(TransferRequest request) {
+        String from = request.getFromAccountNumber();
+        String to = request.getToAccountNumber();
+        if (from.equals(to)) {
+            throw new InvalidAccountException("Cannot transfer to the same account");
+        }
+        
+        boolean fromFirst = from.compareTo(to) < 0;
+        Account first = lockAccount(fromFirst ? from : to);
+        Account second = lockAccount(fromFirst ? to : from);
+        return fromFirst ? new Account[] { first, second } : new Account[] { second, first };
+    }
+    
+    private void move(Account source, Account destination, BigDecimal amount) {
+        source.setBalance(source.getBalance().subtract(amount));
+        destination.setBalance(destination.getBalance().add(amount));
+        
+        accountRepository.save(source);
+        accountRepository.save(destination);
+        publishEvent("BALANCE_UPDATED", source);
+        publishEvent("BALANCE_UPDATED", destination);
+    }
+    
+    private ProcessedTransfer findProcessed(String reference) {
+        return reference == null ? null : processedTransferRepository.findById(reference).orElse(null);
+    }
+    
+    private void markProcessed(String reference, TransferOutcome outcome) {
+        if (reference != null) {
+            processedTransferRepository.save(ProcessedTransfer.builder()
+                    .reference(reference)
+                    .outcome(outcome)
+                    .build());
+        }
+    }
+    
+    private TransferResponse toTransferResponse(TransferRequest request, Account source, Account destination) {
+        return TransferResponse.builder()
+                .fromAccountNumber(source.getAccountNumber())
+                .toAccountNumber(destination.getAccountNumber())
+                .amount(request.getAmount())
+                .fromBalance(accountShardService.balanceOf(source))
+                .toBalance(accountShardService.balanceOf(destination))
+                .build();
+    }
+    
+    private Account lockAccount(String accountNumber) {
+        return accountRepository.findByAccountNumberForUpdate(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+    }
+    
+    /**
+     * Applies a batch of movements in one DB transaction. Every account involved is
+     * locked once (in account number order), movements are applied in submission order
+     * against the locked rows, and each account is written and announced once.
+     * A movement that cannot be applied is reported back without affecting the others.
+     * Every outcome is stored under the movement's reference, so a re-sent batch gets
+     * the stored outcomes back and moves nothing twice.
+     */
+    @Transactional
+    public List<BalanceMovementResult> applyMovements(List<BalanceMovement> movements) {
+        if (ledgerService.isEnabled()) {
+            return postMovements(movements);
+        }
+        Set<String> accountNumbers = new TreeSet<>();
+        for (BalanceMovement movement : movements) {
+            if (movement.getDebitAccountNumber() != null) {
+                accountNumbers.add(movement.getDebitAccountNumber());
+            }
+            if (movement.getCreditAccountNumber() != null) {
+                accountNumbers.add(movement.getCreditAccountNumber());
+            }
+        }
+        
+        // Every account row is locked in account number order, and a sharded account's
+        // shards right after its own row: the order transfers and debit sweeps take them
+        // in. Locking all rows first and the shards after would wait on a shard while
+        // holding rows a transfer crediting that shard may be waiting for.
+        Map<String, Account> accounts = new HashMap<>();
+        Set<String> sharded = new HashSet<>();
+        List<String> unlocked = new ArrayList<>();
+        for (String accountNumber : accountNumbers) {
+            unlocked.add(accountNumber);
+            if (accountShardService.isSharded(accountNumber)) {
+                lockAccounts(unlocked, accounts);
+                if (accounts.containsKey(accountNumber)) {
+                    accountShardService.lockShards(accountNumber);
+                    sharded.add(accountNumber);
+                }
+            }
+        }
+        lockAccounts(unlocked, accounts);
+        
+        Map<String, BalanceMovementResult> processed = findProcessedMovements(movements);
+        List<BalanceMovementResult> results = new ArrayList<>(movements.size());
+        List<BalanceMovementResult> outcomes = new ArrayList<>(movements.size());
+        Map<String, Account> touched = new LinkedHashMap<>();
+        
+        for (BalanceMovement movement : movements) {
+            BalanceMovementResult replay = processed.get(movement.getReference());
+            if (replay != null) {
+                results.add(replay);
+                continue;
+            }
+            BalanceMovementResult result = BalanceMovementResult.builder()
+                    .reference(movement.getReference())
+                    .build();
+            String failureReason = sharded.contains(movement.getDebitAccountNumber())
+                    || sharded.contains(movement.getCreditAccountNumber())
+                    ? applyShardedMovement(movement, accounts, sharded, touched, result)
+                    : applyMovement(movement, accounts, touched, result);
+            result.setApplied(failureReason == null);
+            result.setFailureReason(failureReason);
+            results.add(result);
+            outcomes.add(result);
+            if (movement.getReference() != null) {
+                processed.put(movement.getReference(), result);
+            }
+        }
+        
+        markMovementsProcessed(outcomes);
+        accountRepository.saveAll(touched.values());
+        touched.values().forEach(account -> publishEvent("BALANCE_UPDATED", account));
+        
+        log.info("Applied batch of {} movements across {} accounts", movements.size(), touched.size());
+        return results;
+    }
+    
+    // Locks the given accounts with one ordered query and empties the list
+    private void lockAccounts(List<String> accountNumbers, Map<String, Account> accounts) {
+        if (accountNumbers.isEmpty()) {
+            return;
+        }
+        for (Account account : accountRepository.findAllByAccountNumberInForUpdate(accountNumbers)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        accountNumbers.clear();
+    }
+    
+    private String applyMovement(BalanceMovement movement, Map<String, Account> accounts,
+                                 Map<String, Account> touched, BalanceMovementResult result) {
+        if (movement.getDebitAccountNumber() == null && movement.getCreditAccountNumber() == null) {
+            return "Movement has no account";
+        }
+        
+        Account debit = null;
+        Account credit = null;
+        
+        if (movement.getDebitAccountNumber() != null) {
+            debit = accounts.get(movement.getDebitAccountNumber());
+            if (debit == null) {
+                return "Account not found: " + movement.getDebitAccountNumber();
+            }
+            if (debit.getBalance().compareTo(movement.getAmount()) < 0) {
+                return "Insufficient balance";
+            }
+        }
+        if (movement.getCreditAccountNumber() != null) {
+            credit = accounts.get(movement.getCreditAccountNumber());
+            if (credit == null) {
+                return "Account not found: " + movement.getCreditAccountNumber();
+            }
+        }
+        
+        if (debit != null) {
+            debit.setBalance(debit.getBalance().subtract(movement.getAmount()));
+            touched.put(debit.getAccountNumber(), debit);
+            result.setDebitBalanceAfter(debit.getBalance());
+        }
+        if (credit != null) {
+            credit.setBalance(credit.getBalance().add(movement.getAmount()));
+            touched.put(credit.getAccountNumber(), credit);
+            result.setCreditBalanceAfter(credit.getBalance());
+        }
+        return null;
+    }
+    
+    /**
+     * Ledger mode {@link #applyMovements}. Only the debited accounts are locked; the
+     * movements are checked in submission order against the available balances read
+     * once, and every applied movement appends its entry pair. A re-send of a batch
+     * with no debits is not held back by any lock; if it races the original, the
+     * second insert of a reference fails and the re-send rolls back as a whole.
+     */
+    private List<BalanceMovementResult> postMovements(List<BalanceMovement> movements) {
+        Set<String> accountNumbers = new TreeSet<>();
+        Set<String> debitAccountNumbers = new TreeSet<>();
+        for (BalanceMovement movement : movements) {
+            if (movement.getDebitAccountNumber() != null) {
+                accountNumbers.add(movement.getDebitAccountNumber());
+                debitAccountNumbers.add(movement.getDebitAccountNumber());
+            }
+            if (movement.getCreditAccountNumber() != null) {
+                accountNumbers.add(movement.getCreditAccountNumber());
+            }
+        }
+        
+        ledgerService.lockForDebit(debitAccountNumbers);
+        Map<String, BalanceMovementResult> processed = findProcessedMovements(movements);
+        Map<String, BigDecimal> balances = ledgerService.availableBalances(accountNumbers);
+        
+        List<BalanceMovementResult> results = new ArrayList<>(movements.size());
+        List<BalanceMovementResult> outcomes = new ArrayList<>(movements.size());
+        Set<String> touched = new TreeSet<>();
+        for (BalanceMovement movement : movements) {
+            BalanceMovementResult replay = processed.get(movement.getReference());
+            if (replay != null) {
+                results.add(replay);
+                continue;
+            }
+            BalanceMovementResult result = BalanceMovementResult.builder()
+                    .reference(movement.getReference())
+                    .build();
+            String failureReason = postMovement(movement, balances, result);
+            if (failureReason == null) {
+                if (movement.getDebitAccountNumber() != null) {
+                    touched.add(movement.getDebitAccountNumber());
+                }
+                if (movement.getCreditAccountNumber() != null) {
+                    touched.add(movement.getCreditAccountNumber());
+                }
+            }
+            result.setApplied(failureReason == null);
+            result.setFailureReason(failureReason);
+            results.add(result);
+            outcomes.add(result);
+            if (movement.getReference() != null) {
+                processed.put(movement.getReference(), result);
+            }
+        }
+        
+        markMovementsProcessed(outcomes);
+        if (!touched.isEmpty()) {
+            for (Account account : accountRepository.findByAccountNumberIn(touched)) {
+                publishEvent("BALANCE_UPDATED", account, balances.get(account.getAccountNumber()));
+            }
+        }
+        
+        log.info("Posted batch of {} movements across {} accounts", movements.size(), touched.size());
+        return results;
+    }
+    
+    private String postMovement(BalanceMovement movement, Map<String, BigDecimal> balances,
+                                BalanceMovementResult result) {
+        String debit = movement.getDebitAccountNumber();
+        String credit = movement.getCreditAccountNumber();
+        if (debit == null && credit == null) {
+            return "Movement has no account";
+        }
+        if (debit != null) {
+            if (!balances.containsKey(debit)) {
+                return "Account not found: " + debit;
+            }
+            if (balances.get(debit).compareTo(movement.getAmount()) < 0) {
+                return "Insufficient balance";
+            }
+        }
+        if (credit != null && !balances.containsKey(credit)) {
+            return "Account not found: " + credit;
+        }
+        
+        ledgerService.post(movement.getReference(), debit, credit, movement.getAmount());
+        if (debit != null) {
+            result.setDebitBalanceAfter(balances.merge(debit, movement.getAmount().negate(), BigDecimal::add));
+        }
+        if (credit != null) {
+            result.setCreditBalanceAfter(balances.merge(credit, movement.getAmount(), BigDecimal::add));
+        }
+        return null;
+    }
+    
+    // Outcomes stored for the batch's references. Read after the batch's locks are taken,
+    // so a re-send that waited on them sees everything the original stored.
+    private Map<String, BalanceMovementResult> findProcessedMovements(List<BalanceMovement> movements) {
+        List<String> references = movements.stream()
+                .map(BalanceMovement::getReference)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<String, BalanceMovementResult> processed = new HashMap<>();
+        for (ProcessedMovement movement : processedMovementRepository.findAllById(references)) {
+            processed.put(movement.getReference(), BalanceMovementResult.builder()
+                    .reference(movement.getReference())
+                    .applied(movement.isApplied())
+                    .failureReason(movement.getFailureReason())
+                    .debitBalanceAfter(movement.getDebitBalanceAfter())
+                    .creditBalanceAfter(movement.getCreditBalanceAfter())
+                    .build());
+        }
+        return processed;
+    }
+    
+    private void markMovementsProcessed(List<BalanceMovementResult> outcomes) {
+        processedMovementRepository.saveAll(outcomes.stream()
+                .filter(outcome -> outcome.getReference() != null)
+                .map(outcome -> ProcessedMovement.builder()
+                        .reference(outcome.getReference())
+                        .applied(outcome.isApplied())
+                        .failureReason(outcome.getFailureReason())
+                        .debitBalanceAfter(outcome.getDebitBalanceAfter())
+                        .creditBalanceAfter(outcome.getCreditBalanceAfter())
+                        .build())
+                .toList());
+    }
+    
+    // A movement with a sharded side. That side is applied on the spot, under the locks
+    // the batch already holds, so the debit goes first and the credit only once the
+    // debit went through.
+    private String applyShardedMovement(BalanceMovement movement, Map<String, Account> accounts,
+                                        Set<String> sharded, Map<String, Account> touched,
+                                        BalanceMovementResult result) {
+        String debitNumber = movement.getDebitAccountNumber();
+        String creditNumber = movement.getCreditAccountNumber();
+        Account debit = debitNumber == null ? null : accounts.get(debitNumber);
+        Account credit = creditNumber == null ? null : accounts.get(creditNumber);
+        if (debitNumber != null && debit == null) {
+            return "Account not found: " + debitNumber;
+        }
+        if (creditNumber != null && credit == null) {
+            return "Account not found: " + creditNumber;
+        }
+        
+        BigDecimal amount = movement.getAmount();
+        if (debit != null) {
+            if (sharded.contains(debitNumber)) {
+                if (!accountShardService.debit(debitNumber, amount)) {
+                    return "Insufficient balance";
+                }
+            } else {
+                if (debit.getBalance().compareTo(amount) < 0) {
+                    return "Insufficient balance";
+                }
+                debit.setBalance(debit.getBalance().subtract(amount));
+            }
+            touched.put(debitNumber, debit);
+            result.setDebitBalanceAfter(accountShardService.balanceOf(debit));
+        }
+        if (credit != null) {
+            if (sharded.contains(creditNumber)) {
+                accountShardService.credit(creditNumber, amount);
+            } else {
+                credit.setBalance(credit.getBalance().add(amount));
+            }
+            touched.put(creditNumber, credit);
+            result.setCreditBalanceAfter(accountShardService.balanceOf(credit));
+        }
+        return null;
+    }
+    
+    /**
+     * Sets the number of sub-balances of a hot account; see {@link AccountShardService}.
+     */
+    @CacheEvict(value = "accounts", key = "#accountNumber")
+    public AccountResponse reshardAccount(String accountNumber, int shardCount) {
+        accountShardService.reshard(accountNumber, shardCount);
+        return toResponse(findAccount(accountNumber));
     }
     
     public List<AccountResponse> getCustomerAccounts(Long customerId) {
-        return accountRepository.findByCustomerId(customerId).stream()
+        List<Account> accounts = accountRepository.findByCustomerId(customerId);
+        if (ledgerService.isEnabled() && !accounts.isEmpty()) {
+            Map<String, BigDecimal> balances = ledgerService.availableBalances(
+                    accounts.stream().map(Account::getAccountNumber).toList());
+            return accounts.stream()
+                    .map(account -> toResponse(account, balances.get(account.getAccountNumber())))
+                    .toList();
+        }
+        return accounts.stream()
                 .map(this::toResponse)
                 .toList();
     }
     
     private String generateAccountNumber() {
-        return "ACC" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+        return "ACC" + idGenerator.nextEncodedId();
     }
     
-    @SuppressWarnings("null")
     private void publishEvent(String eventType, Account account) {
+        publishEvent(eventType, account, accountShardService.balanceOf(account));
+    }
+    
+    private void publishEvent(String eventType, Account account, BigDecimal balance) {
         AccountEvent event = AccountEvent.builder()
                 .eventType(eventType)
                 .accountNumber(account.getAccountNumber())
                 .customerId(account.getCustomerId())
-                .balance(account.getBalance())
+                .balance(balance)
                 .timestamp(System.currentTimeMillis())
                 .build();
         
-        kafkaTemplate.send("account-events", account.getAccountNumber(), event);
-        log.info("Published event: {} for account: {}", eventType, account.getAccountNumber());
+        outboxService.enqueue("account-events", account.getAccountNumber(), event);
+        log.info("Queued event: {} for account: {}", eventType, account.getAccountNumber());
     }
     
     private AccountResponse toResponse(Account account) {
+        return toResponse(account, accountShardService.balanceOf(account));
+    }
+    
+    private AccountResponse toResponse(Account account, BigDecimal balance) {
         return AccountResponse.builder()
                 .id(account.getId())
                 .accountNumber(account.getAccountNumber())
                 .customerId(account.getCustomerId())
                 .accountType(account.getAccountType())
-                .balance(account.getBalance())
+                .balance(balance)
                 .status(account.getStatus())
                 .currency(account.getCurrency())
                 .createdAt(account.getCreatedAt())
@@ -0,0 +1,215 @@
+package com.bank.account_service.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.AccountShard;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.InvalidAccountException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountRepository.ShardedAccount;
+import com.bank.account_service.repository.AccountShardRepository;
+import com.bank.account_service.repository.AccountShardRepository.ShardBalance;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hot accounts (merchants, treasury) split into sub-balances. A sharded account's
+ * balance is its own row's balance plus its {@link AccountShard} rows'. A credit locks
+ * one random shard instead of the account row, so credits to the account run up to
+ * shard-count at a time. A debit first takes any shard that covers it on its own,
+ * skipping shards in use; only if there is none does it sweep: lock the account row
+ * and every shard, in that order, and draw from them in turn.
+ * <p>
+ * Which accounts are sharded is read from the database every
+ * account.shards.refresh-ms. An instance that does not know yet treats the account as
+ * unsharded, which is still correct: it updates the account row directly, only
+ * without the concurrency, and a debit it cannot cover from the row alone is rejected.
+ * <p>
+ * Lock order: accounts in account number order, and within an account its row before
+ * its shards, shards in index order. Shard locks taken with SKIP LOCKED never wait and
+ * are exempt. Callers touching several accounts must keep to this order.
+ */
+@Service
+@Slf4j
+public class AccountShardService {
+    
+    private final AccountRepository accountRepository;
+    private final AccountShardRepository accountShardRepository;
+    
+    // Account number -> shard count, for sharded accounts only
+    private volatile Map<String, Integer> shardedAccounts = Map.of();
+    
+    @Value("${account.shards.max-count:64}")
+    private int maxShards;
+    
+    public AccountShardService(AccountRepository accountRepository, AccountShardRepository accountShardRepository) {
+        this.accountRepository = accountRepository;
+        this.accountShardRepository = accountShardRepository;
+    }
+    
+    public boolean isSharded(String accountNumber) {
+        return shardedAccounts.containsKey(accountNumber);
+    }
+    
+    /**
+     * The account's full balance. Unsharded accounts are answered from the row as given.
+     */
+    public BigDecimal balanceOf(Account account) {
+        if (account.getShardCount() == null || account.getShardCount() <= 1) {
+            return account.getBalance();
+        }
+        return accountRepository.findTotalBalance(account.getAccountNumber()).orElse(account.getBalance());
+    }
+    
+    /**
+     * Credits a random shard, or the account row if that shard is gone (the account was
+     * resharded to fewer shards since this instance last looked).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(String accountNumber, BigDecimal amount) {
+        Integer shardCount = shardedAccounts.get(accountNumber);
+        if (shardCount != null
+                && accountShardRepository.addToShard(accountNumber, ThreadLocalRandom.current().nextInt(shardCount), amount) == 1) {
+            return;
+        }
+        if (accountRepository.addToBalance(accountNumber, amount) == 0) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+    }
+    
+    /**
+     * Debits the account if its full balance covers the amount. Returns false, leaving
+     * everything as it was, if it does not.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean debit(String accountNumber, BigDecimal amount) {
+        Integer shardIndex = accountShardRepository.lockShardCovering(accountNumber, amount).orElse(null);
+        if (shardIndex != null) {
+            accountShardRepository.addToShard(accountNumber, shardIndex, amount.negate());
+            return true;
+        }
+        return sweep(accountNumber, amount);
+    }
+    
+    /**
+     * Locks every shard of the account, in shard order. The caller must hold the account
+     * row's lock already; credits and debits of the account then wait for nothing more.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockShards(String accountNumber) {
+        accountShardRepository.lockShards(accountNumber);
+    }
+    
+    // Fallback of debit: waits for every shard, so it sees the account's whole balance
+    private boolean sweep(String accountNumber, BigDecimal amount) {
+        BigDecimal own = accountRepository.lockBalance(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+        List<ShardBalance> shards = accountShardRepository.lockShards(accountNumber);
+        
+        BigDecimal total = own;
+        for (ShardBalance shard : shards) {
+            total = total.add(shard.getBalance());
+        }
+        if (total.compareTo(amount) < 0) {
+            return false;
+        }
+        
+        BigDecimal remaining = amount;
+        for (ShardBalance shard : shards) {
+            if (remaining.signum() == 0) {
+                break;
+            }
+            BigDecimal drawn = remaining.min(shard.getBalance());
+            if (drawn.signum() > 0) {
+                accountShardRepository.addToShard(accountNumber, shard.getShardIndex(), drawn.negate());
+                remaining = remaining.subtract(drawn);
+            }
+        }
+        if (remaining.signum() > 0) {
+            accountRepository.addToBalance(accountNumber, remaining.negate());
+        }
+        log.debug("Debit of {} on {} swept {} shards", amount, accountNumber, shards.size());
+        return true;
+    }
+    
+    /**
+     * Sets the number of shards of an account; 1 unshards it. Shards that go away are
+     * folded back into the account row, new ones start empty. The balance does not change.
+     */
+    @Transactional
+    public void reshard(String accountNumber, int shardCount) {
+        if (shardCount < 1 || shardCount > maxShards) {
+            throw new InvalidAccountException("Shard count must be between 1 and " + maxShards);
+        }
+        accountRepository.lockBalance(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+        List<ShardBalance> shards = accountShardRepository.lockShards(accountNumber);
+        
+        int keep = shardCount > 1 ? shardCount : 0;
+        BigDecimal folded = BigDecimal.ZERO;
+        for (ShardBalance shard : shards) {
+            if (shard.getShardIndex() >= keep) {
+                folded = folded.add(shard.getBalance());
+            }
+        }
+        accountShardRepository.deleteShardsFrom(accountNumber, keep);
+        if (folded.signum() != 0) {
+            accountRepository.addToBalance(accountNumber, folded);
+        }
+        
+        List<AccountShard> added = new ArrayList<>();
+        for (int index = shards.size(); index < keep; index++) {
+            added.add(AccountShard.builder()
+                    .accountNumber(accountNumber)
+                    .shardIndex(index)
+                    .balance(BigDecimal.ZERO)
+                    .build());
+        }
+        accountShardRepository.saveAll(added);
+        accountRepository.updateShardCount(accountNumber, shardCount);
+        
+        // Routed by the new count only once the shards exist for everyone else too
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                routeLocally(accountNumber, keep > 0 ? shardCount : null);
+                log.info("Account {} now has {} shards", accountNumber, shardCount);
+            }
+        });
+    }
+    
+    private synchronized void routeLocally(String accountNumber, Integer shardCount) {
+        Map<String, Integer> updated = new HashMap<>(shardedAccounts);
+        if (shardCount != null) {
+            updated.put(accountNumber, shardCount);
+        } else {
+            updated.remove(accountNumber);
+        }
+        shardedAccounts = Map.copyOf(updated);
+    }
+    
+    @Scheduled(fixedDelayString = "${account.shards.refresh-ms:5000}")
+    public void refresh() {
+        Map<String, Integer> current = new HashMap<>();
+        for (ShardedAccount account : accountRepository.findShardedAccounts()) {
+            current.put(account.getAccountNumber(), account.getShardCount());
+        }
+        synchronized (this) {
+            shardedAccounts = Map.copyOf(current);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.account_service.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountRepository.BalanceRow;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Balances for the transaction service's end-of-day reconciliation. A range of
+ * accounts is written as NDJSON, in byte order of the account number, straight from a
+ * forward-only cursor, so memory stays flat however many accounts the range holds.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceExportService {
+    
+    private final AccountRepository accountRepository;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Account numbers splitting all accounts into about count ranges of equal size
+     */
+    @Transactional(readOnly = true)
+    public List<String> partitionBoundaries(int count) {
+        return accountRepository.findPartitionBoundaries(Math.max(count, 1)).stream()
+                .sorted()
+                .toList();
+    }
+    
+    // The cursor only streams (instead of buffering the whole result) inside a transaction
+    @Transactional(readOnly = true)
+    public void exportBalances(String from, String to, OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(new SerializedString("\n"));
+        
+        long exported = 0;
+        try (Stream<BalanceRow> rows = accountRepository.streamBalances(from, to)) {
+            Iterator<BalanceRow> cursor = rows.iterator();
+            while (cursor.hasNext()) {
+                BalanceRow row = cursor.next();
+                json.writeStartObject();
+                json.writeStringField("accountNumber", row.getAccountNumber());
+                json.writeNumberField("balance", row.getBalance());
+                json.writeNumberField("openingBalance", row.getOpeningBalance());
+                json.writeNumberField("interestCredited", row.getInterestCredited());
+                json.writeEndObject();
+                exported++;
+            }
+        }
+        json.writeRaw('\n');
+        json.close();
+        
+        log.debug("Exported {} balances in [{}, {})", exported, from, to);
+    }
+}
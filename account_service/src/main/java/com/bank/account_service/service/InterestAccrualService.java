@@ -0,0 +1,238 @@
+package com.bank.account_service.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.account_service.event.AccountEvent;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountRepository.InterestCredited;
+import com.bank.account_service.repository.InterestAccrualChunkRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Nightly interest accrual over all accounts. The id range of the accounts table is
+ * split recursively on a fork-join pool down to chunks of interest.chunk-size ids; each
+ * chunk is credited with one UPDATE in its own DB transaction, together with one
+ * INTEREST_ACCRUED summary event for the chunk. Rates are annual per account type
+ * (interest.annual-rate.*) and accrue daily; whole cents are posted to the balance and
+ * the fraction of a cent is carried in accrued_interest.
+ * <p>
+ * A run is safe to repeat: accounts already accrued for the day are skipped, so after a
+ * crash the job can simply be started again. Each chunk's outcome is recorded in
+ * interest_accrual_chunks: a failed chunk does not stop the others, a repeated run skips
+ * the chunks that completed, and dates with failed chunks are re-run every
+ * interest.retry-interval-ms. Chunks are aligned to multiples of the chunk size, so
+ * they line up between runs however the id range has grown.
+ */
+@Service
+@Slf4j
+public class InterestAccrualService implements DisposableBean {
+    
+    private static final BigDecimal DAYS_PER_YEAR = BigDecimal.valueOf(365);
+    
+    private final AccountRepository accountRepository;
+    private final InterestAccrualChunkRepository chunkRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final ForkJoinPool pool;
+    private final Timer runTimer;
+    
+    private final BigDecimal savingsRate;
+    private final BigDecimal checkingRate;
+    private final BigDecimal fixedDepositRate;
+    private final BigDecimal currentRate;
+    
+    @Value("${interest.chunk-size:5000}")
+    private long chunkSize;
+    
+    public InterestAccrualService(AccountRepository accountRepository,
+                                  InterestAccrualChunkRepository chunkRepository,
+                                  OutboxService outboxService,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectProvider<CacheManager> cacheManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${interest.parallelism:4}") int parallelism,
+                                  @Value("${interest.annual-rate.savings:0.035}") BigDecimal savingsRate,
+                                  @Value("${interest.annual-rate.checking:0.001}") BigDecimal checkingRate,
+                                  @Value("${interest.annual-rate.fixed-deposit:0.06}") BigDecimal fixedDepositRate,
+                                  @Value("${interest.annual-rate.current:0}") BigDecimal currentRate) {
+        this.accountRepository = accountRepository;
+        this.chunkRepository = chunkRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        // Each worker holds a DB connection while its chunk runs; keep below the pool size
+        this.pool = new ForkJoinPool(parallelism);
+        this.runTimer = meterRegistry.timer("accounts.interest.run");
+        this.savingsRate = daily(savingsRate);
+        this.checkingRate = daily(checkingRate);
+        this.fixedDepositRate = daily(fixedDepositRate);
+        this.currentRate = daily(currentRate);
+    }
+    
+    @Scheduled(cron = "${interest.cron:0 30 0 * * *}")
+    public void accrueNightly() {
+        accrue(LocalDate.now());
+    }
+    
+    @Scheduled(fixedDelayString = "${interest.retry-interval-ms:600000}")
+    public void retryFailedChunks() {
+        for (LocalDate accrualDate : chunkRepository.findDatesWithFailedChunks()) {
+            log.info("Resuming interest run for {}", accrualDate);
+            accrue(accrualDate);
+        }
+    }
+    
+    /**
+     * Credits one day of interest, for the given date, to every eligible account.
+     * Chunks that already completed for the date are skipped.
+     */
+    public AccrualTotals accrue(LocalDate accrualDate) {
+        Long minId = accountRepository.findMinId();
+        Long maxId = accountRepository.findMaxId();
+        if (minId == null) {
+            return new AccrualTotals(0, 0, 0, BigDecimal.ZERO);
+        }
+        Set<Long> completed = new HashSet<>(chunkRepository.findCompletedChunkStarts(accrualDate));
+        
+        long started = System.nanoTime();
+        AccrualTotals totals = pool.invoke(
+                new AccrueRange(accrualDate, completed, minId / chunkSize, maxId / chunkSize + 1));
+        long elapsedNanos = System.nanoTime() - started;
+        // Balances changed underneath getAccount's cache
+        cacheManager.ifAvailable(manager -> {
+            Cache accounts = manager.getCache("accounts");
+            if (accounts != null) {
+                accounts.clear();
+            }
+        });
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("Interest for {}: {} credited to {} accounts in {} chunks ({} skipped as done), {} ms",
+                 accrualDate, totals.interest(), totals.accounts(), totals.chunks(), completed.size(),
+                 elapsedNanos / 1_000_000);
+        if (totals.failedChunks() > 0) {
+            log.error("Interest for {}: {} chunks failed and will be retried", accrualDate, totals.failedChunks());
+        }
+        return totals;
+    }
+    
+    // A failure rolls back only this chunk; it is recorded and the run carries on
+    private AccrualTotals accrueChunk(LocalDate accrualDate, long fromId, long toId) {
+        try {
+            return transactionTemplate.execute(status -> {
+                InterestCredited credited = accountRepository.creditInterest(fromId, toId, accrualDate,
+                        savingsRate, checkingRate, fixedDepositRate, currentRate);
+                chunkRepository.markCompleted(accrualDate, fromId, toId, credited.getAccounts(), credited.getInterest());
+                if (credited.getAccounts() == 0) {
+                    return new AccrualTotals(1, 0, 0, BigDecimal.ZERO);
+                }
+                
+                String key = "interest-" + accrualDate + "-" + fromId;
+                outboxService.enqueue("account-events", key, AccountEvent.builder()
+                        .eventType("INTEREST_ACCRUED")
+                        .accountCount((int) credited.getAccounts())
+                        .amount(credited.getInterest())
+                        .timestamp(System.currentTimeMillis())
+                        .build());
+                return new AccrualTotals(1, 0, credited.getAccounts(), credited.getInterest());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Interest chunk [{}, {}) for {} failed: {}", fromId, toId, accrualDate, e.getMessage());
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        chunkRepository.markFailed(accrualDate, fromId, toId, String.valueOf(e.getMessage())));
+            } catch (RuntimeException recordFailure) {
+                // Not recorded, so only a manual re-run picks the chunk up again
+                log.error("Could not record failed interest chunk [{}, {}) for {}: {}",
+                          fromId, toId, accrualDate, recordFailure.getMessage());
+            }
+            return new AccrualTotals(1, 1, 0, BigDecimal.ZERO);
+        }
+    }
+    
+    static BigDecimal daily(BigDecimal annualRate) {
+        return annualRate.divide(DAYS_PER_YEAR, MathContext.DECIMAL64);
+    }
+    
+    /**
+     * One account's day as {@link AccountRepository#creditInterest} computes it in SQL:
+     * the day's interest is added to what was carried, the whole cents are posted and
+     * the rest is carried to the next day.
+     */
+    static Accrual accrue(BigDecimal carried, BigDecimal balance, BigDecimal dailyRate) {
+        BigDecimal accrued = carried.add(balance.multiply(dailyRate));
+        BigDecimal posted = accrued.setScale(2, RoundingMode.DOWN);
+        return new Accrual(posted, accrued.subtract(posted));
+    }
+    
+    record Accrual(BigDecimal posted, BigDecimal carried) {
+    }
+    
+    public record AccrualTotals(long chunks, long failedChunks, long accounts, BigDecimal interest) {
+        
+        AccrualTotals plus(AccrualTotals other) {
+            return new AccrualTotals(chunks + other.chunks, failedChunks + other.failedChunks,
+                                     accounts + other.accounts, interest.add(other.interest));
+        }
+    }
+    
+    /**
+     * Splits the chunks [fromChunk, toChunk) in halves down to single chunks; chunk i
+     * holds ids [i * chunkSize, (i + 1) * chunkSize). Ids are dense enough
+     * (sequence-allocated) that equal id ranges hold similar numbers of accounts.
+     */
+    private final class AccrueRange extends RecursiveTask<AccrualTotals> {
+        
+        private final LocalDate accrualDate;
+        private final Set<Long> completed;
+        private final long fromChunk;
+        private final long toChunk;
+        
+        AccrueRange(LocalDate accrualDate, Set<Long> completed, long fromChunk, long toChunk) {
+            this.accrualDate = accrualDate;
+            this.completed = completed;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+        
+        @Override
+        protected AccrualTotals compute() {
+            if (toChunk - fromChunk == 1) {
+                long fromId = fromChunk * chunkSize;
+                return completed.contains(fromId)
+                        ? new AccrualTotals(0, 0, 0, BigDecimal.ZERO)
+                        : accrueChunk(accrualDate, fromId, fromId + chunkSize);
+            }
+            long middle = fromChunk + (toChunk - fromChunk) / 2;
+            AccrueRange upper = new AccrueRange(accrualDate, completed, middle, toChunk);
+            upper.fork();
+            AccrualTotals lower = new AccrueRange(accrualDate, completed, fromChunk, middle).compute();
+            return lower.plus(upper.join());
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+}
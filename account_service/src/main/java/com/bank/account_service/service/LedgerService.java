@@ -0,0 +1,149 @@
+package com.bank.account_service.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.account_service.entity.LedgerEntry;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.repository.LedgerEntryRepository;
+import com.bank.account_service.repository.LedgerEntryRepository.AvailableBalance;
+import com.bank.common.id.IdGenerator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ledger mode (account.ledger.enabled). Instead of rewriting Account.balance under the
+ * account's row lock, every movement appends an immutable debit/credit pair of
+ * {@link LedgerEntry} rows. Appends take no row locks, so credits to a hot account
+ * never wait for each other. Account.balance becomes a snapshot that the snapshot job
+ * brings up to date in batches; the available balance is the snapshot plus the entries
+ * not yet folded into it.
+ * <p>
+ * Funds checks still need one debit of an account at a time, or two debits could both
+ * pass against the same balance. Debits therefore serialize on a transaction-scoped
+ * advisory lock per account, which, unlike the row lock, credits and the snapshot job
+ * never take.
+ * <p>
+ * The snapshot job runs whether or not ledger mode is on, so that switching it off
+ * leaves no entries unfolded once the job has caught up.
+ */
+@Service
+@Slf4j
+public class LedgerService {
+    
+    // Contra side of money entering or leaving the bank (deposits and withdrawals)
+    public static final String EXTERNAL_ACCOUNT = "EXTERNAL";
+    
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final IdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer snapshotTimer;
+    private final Counter entriesFolded;
+    
+    @Value("${account.ledger.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${account.ledger.snapshot-batch-size:5000}")
+    private int snapshotBatchSize;
+    
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository,
+                         IdGenerator idGenerator,
+                         TransactionTemplate transactionTemplate,
+                         MeterRegistry meterRegistry) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.idGenerator = idGenerator;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotTimer = meterRegistry.timer("accounts.ledger.snapshot");
+        this.entriesFolded = meterRegistry.counter("accounts.ledger.entries.folded");
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Snapshot balance plus pending entries, this transaction's own appends included.
+     */
+    public BigDecimal availableBalance(String accountNumber) {
+        return ledgerEntryRepository.findAvailableBalance(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+    }
+    
+    /**
+     * Available balances of the accounts that exist among the given ones.
+     */
+    public Map<String, BigDecimal> availableBalances(Collection<String> accountNumbers) {
+        return ledgerEntryRepository.findAvailableBalances(accountNumbers).stream()
+                .collect(Collectors.toMap(AvailableBalance::getAccountNumber, AvailableBalance::getBalance));
+    }
+    
+    /**
+     * Makes other debits of these accounts wait until the caller's transaction ends.
+     * Must be called before the funds check. Locks are taken in account number order,
+     * so callers debiting several accounts cannot deadlock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockForDebit(Collection<String> accountNumbers) {
+        for (String accountNumber : new TreeSet<>(accountNumbers)) {
+            ledgerEntryRepository.lockForDebit(accountNumber);
+        }
+    }
+    
+    /**
+     * Appends the entry pair of one movement. A null side is the external account.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void post(String reference, String debitAccountNumber, String creditAccountNumber, BigDecimal amount) {
+        long pairId = idGenerator.nextId();
+        ledgerEntryRepository.saveAll(List.of(
+                entry(pairId, reference, debitAccountNumber, amount.negate()),
+                entry(pairId, reference, creditAccountNumber, amount)));
+    }
+    
+    private LedgerEntry entry(long pairId, String reference, String accountNumber, BigDecimal amount) {
+        return LedgerEntry.builder()
+                .pairId(pairId)
+                .reference(reference)
+                .accountNumber(accountNumber != null ? accountNumber : EXTERNAL_ACCOUNT)
+                // The external side has no balance to fold into
+                .applied(accountNumber == null)
+                .amount(amount)
+                .build();
+    }
+    
+    /**
+     * Folds pending entries into the account snapshots, a batch per DB transaction,
+     * until no full batch is left.
+     */
+    @Scheduled(fixedDelayString = "${account.ledger.snapshot-interval-ms:200}")
+    public void snapshot() {
+        long started = System.nanoTime();
+        long total = 0;
+        long folded;
+        do {
+            folded = transactionTemplate.execute(status -> ledgerEntryRepository.foldPendingEntries(snapshotBatchSize));
+            total += folded;
+        } while (folded == snapshotBatchSize);
+        
+        if (total > 0) {
+            entriesFolded.increment(total);
+            snapshotTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.debug("Folded {} ledger entries into balances", total);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.bank.account_service.service;
+
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.account_service.entity.OutboxEvent;
+import com.bank.account_service.event.AccountEvent;
+import com.bank.account_service.repository.OutboxEventRepository;
+import com.bank.common.outbox.KafkaOutboxRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Drains this service's outbox table to Kafka; see {@link KafkaOutboxRelay}.
+ */
+@Component
+public class OutboxRelay extends KafkaOutboxRelay<OutboxEvent, AccountEvent> {
+    
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, AccountEvent> kafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry) {
+        super(outboxEventRepository, kafkaTemplate, transactionTemplate, objectMapper, meterRegistry,
+              AccountEvent.class);
+    }
+}
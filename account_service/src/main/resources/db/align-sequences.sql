@@ -0,0 +1,9 @@
+-- Ids come from pooled sequences (allocationSize 50) instead of IDENTITY columns.
+-- Rows inserted before the switch can be ahead of a freshly created sequence, so
+-- move it past them. A no-op once the sequence is ahead, which it then stays.
+
+SELECT setval('accounts_seq', (SELECT MAX(id) FROM accounts) + 50)
+WHERE (SELECT MAX(id) FROM accounts) >= (SELECT last_value FROM accounts_seq);
+
+SELECT setval('outbox_events_seq', (SELECT MAX(id) FROM outbox_events) + 50)
+WHERE (SELECT MAX(id) FROM outbox_events) >= (SELECT last_value FROM outbox_events_seq);
@@ -0,0 +1,10 @@
+-- Pending (not yet snapshotted) ledger entries: per account for funds checks, and in
+-- id order for the snapshot job. Both stay small however long the ledger grows.
+
+CREATE INDEX IF NOT EXISTS idx_ledger_pending_account
+ON ledger_entries (account_number) INCLUDE (amount)
+WHERE NOT applied;
+
+CREATE INDEX IF NOT EXISTS idx_ledger_pending_id
+ON ledger_entries (id)
+WHERE NOT applied;
@@ -0,0 +1,5 @@
+-- Account numbers in byte order ("C" collation), the order reconciliation reads them
+-- in, so each partition of the balance export is a single index-only range scan.
+
+CREATE INDEX IF NOT EXISTS idx_accounts_number_c
+ON accounts (account_number COLLATE "C") INCLUDE (balance, opening_balance, interest_credited);
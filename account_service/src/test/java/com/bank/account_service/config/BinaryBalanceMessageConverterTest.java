@@ -0,0 +1,24 @@
+package com.bank.account_service.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import com.bank.account_service.entity.AccountResponse;
+import com.bank.common.config.BalanceWireFormat;
+
+class BinaryBalanceMessageConverterTest {
+    
+    private final BinaryBalanceMessageConverter converter = new BinaryBalanceMessageConverter();
+    
+    @Test
+    void writesTheBinaryBalanceOnlyWhenAskedForByName() {
+        assertThat(converter.canWrite(AccountResponse.class, BalanceWireFormat.MEDIA_TYPE)).isTrue();
+        
+        assertThat(converter.canWrite(AccountResponse.class, null)).isFalse();
+        assertThat(converter.canWrite(AccountResponse.class, MediaType.ALL)).isFalse();
+        assertThat(converter.canWrite(AccountResponse.class, MediaType.parseMediaType("application/*"))).isFalse();
+        assertThat(converter.canWrite(AccountResponse.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+}
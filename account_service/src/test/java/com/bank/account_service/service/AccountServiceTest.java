@@ -0,0 +1,172 @@
+package com.bank.account_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.bank.account_service.dto.BalanceMovement;
+import com.bank.account_service.dto.BalanceMovementResult;
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.ProcessedMovement;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.ProcessedMovementRepository;
+import com.bank.account_service.repository.ProcessedTransferRepository;
+import com.bank.common.id.IdGenerator;
+
+@ExtendWith(MockitoExtension.class)
+class AccountServiceTest {
+    
+    private static final String DEBITED = "1000000001";
+    private static final String CREDITED = "1000000002";
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private OutboxService outboxService;
+    
+    @Mock
+    private ProcessedTransferRepository processedTransferRepository;
+    
+    @Mock
+    private ProcessedMovementRepository processedMovementRepository;
+    
+    @Mock
+    private LedgerService ledgerService;
+    
+    @Mock
+    private AccountShardService accountShardService;
+    
+    private AccountService accountService;
+    
+    @BeforeEach
+    void setUp() {
+        accountService = new AccountService(accountRepository, outboxService, new IdGenerator(1),
+                                            processedTransferRepository, processedMovementRepository,
+                                            ledgerService, accountShardService);
+    }
+    
+    @Test
+    void resentBatchGetsStoredOutcomesBackAndMovesNothingTwice() {
+        Account debited = account(DEBITED, "100.00");
+        Account credited = account(CREDITED, "50.00");
+        when(accountRepository.findAllByAccountNumberInForUpdate(anyCollection())).thenReturn(List.of(debited, credited));
+        when(processedMovementRepository.findAllById(List.of("M1", "M2"))).thenReturn(List.of(
+                ProcessedMovement.builder()
+                        .reference("M1")
+                        .applied(true)
+                        .debitBalanceAfter(new BigDecimal("90.00"))
+                        .build()));
+        
+        List<BalanceMovementResult> results = accountService.applyMovements(List.of(
+                movement("M1", DEBITED, null, "10.00"),
+                movement("M2", null, CREDITED, "5.00")));
+        
+        assertThat(results).extracting(BalanceMovementResult::getReference).containsExactly("M1", "M2");
+        assertThat(results.get(0).isApplied()).isTrue();
+        assertThat(results.get(0).getDebitBalanceAfter()).isEqualByComparingTo("90.00");
+        assertThat(results.get(1).isApplied()).isTrue();
+        assertThat(results.get(1).getCreditBalanceAfter()).isEqualByComparingTo("55.00");
+        // The stored movement was not applied again
+        assertThat(debited.getBalance()).isEqualByComparingTo("100.00");
+        assertThat(storedOutcomes()).extracting(ProcessedMovement::getReference).containsExactly("M2");
+    }
+    
+    @Test
+    void referenceRepeatedWithinABatchIsAppliedOnce() {
+        Account debited = account(DEBITED, "100.00");
+        when(accountRepository.findAllByAccountNumberInForUpdate(anyCollection())).thenReturn(List.of(debited));
+        when(processedMovementRepository.findAllById(List.of("M1"))).thenReturn(List.of());
+        
+        List<BalanceMovementResult> results = accountService.applyMovements(List.of(
+                movement("M1", DEBITED, null, "10.00"),
+                movement("M1", DEBITED, null, "10.00")));
+        
+        assertThat(results).hasSize(2);
+        assertThat(results.get(1)).isSameAs(results.get(0));
+        assertThat(debited.getBalance()).isEqualByComparingTo("90.00");
+        assertThat(storedOutcomes()).hasSize(1);
+    }
+    
+    @Test
+    void rejectedMovementIsStoredAndLeavesTheOthersApplied() {
+        Account debited = account(DEBITED, "5.00");
+        Account credited = account(CREDITED, "0.00");
+        when(accountRepository.findAllByAccountNumberInForUpdate(anyCollection())).thenReturn(List.of(debited, credited));
+        when(processedMovementRepository.findAllById(anyList())).thenReturn(List.of());
+        
+        List<BalanceMovementResult> results = accountService.applyMovements(List.of(
+                movement("M1", DEBITED, CREDITED, "10.00"),
+                movement("M2", DEBITED, CREDITED, "5.00")));
+        
+        assertThat(results.get(0).isApplied()).isFalse();
+        assertThat(results.get(0).getFailureReason()).isEqualTo("Insufficient balance");
+        assertThat(results.get(1).isApplied()).isTrue();
+        assertThat(debited.getBalance()).isEqualByComparingTo("0.00");
+        assertThat(credited.getBalance()).isEqualByComparingTo("5.00");
+        
+        // A re-send of the rejected movement is answered from the stored outcome
+        Map<String, ProcessedMovement> stored = new HashMap<>();
+        storedOutcomes().forEach(outcome -> stored.put(outcome.getReference(), outcome));
+        assertThat(stored.get("M1").isApplied()).isFalse();
+        assertThat(stored.get("M1").getFailureReason()).isEqualTo("Insufficient balance");
+        assertThat(stored.get("M2").isApplied()).isTrue();
+    }
+    
+    @Test
+    void resentLedgerBatchPostsNoEntries() {
+        when(ledgerService.isEnabled()).thenReturn(true);
+        when(ledgerService.availableBalances(anyCollection()))
+                .thenReturn(new HashMap<>(Map.of(DEBITED, new BigDecimal("100.00"))));
+        when(processedMovementRepository.findAllById(List.of("M1"))).thenReturn(List.of(
+                ProcessedMovement.builder().reference("M1").applied(true).build()));
+        
+        List<BalanceMovementResult> results = accountService.applyMovements(List.of(
+                movement("M1", DEBITED, null, "10.00")));
+        
+        assertThat(results).singleElement().satisfies(result -> assertThat(result.isApplied()).isTrue());
+        verify(ledgerService, never()).post(anyString(), any(), any(), any());
+        verify(accountRepository, never()).findByAccountNumberIn(anyCollection());
+        assertThat(storedOutcomes()).isEmpty();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<ProcessedMovement> storedOutcomes() {
+        ArgumentCaptor<List<ProcessedMovement>> stored = ArgumentCaptor.forClass(List.class);
+        verify(processedMovementRepository).saveAll(stored.capture());
+        return stored.getValue();
+    }
+    
+    private static BalanceMovement movement(String reference, String debit, String credit, String amount) {
+        return BalanceMovement.builder()
+                .reference(reference)
+                .debitAccountNumber(debit)
+                .creditAccountNumber(credit)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+    
+    private static Account account(String accountNumber, String balance) {
+        return Account.builder()
+                .accountNumber(accountNumber)
+                .balance(new BigDecimal(balance))
+                .build();
+    }
+}
@@ -0,0 +1,254 @@
+package com.bank.account_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.account_service.entity.AccountShard;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.exception.InvalidAccountException;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.repository.AccountRepository.ShardedAccount;
+import com.bank.account_service.repository.AccountShardRepository;
+import com.bank.account_service.repository.AccountShardRepository.ShardBalance;
+
+@ExtendWith(MockitoExtension.class)
+class AccountShardServiceTest {
+    
+    private static final String ACCOUNT = "1000000001";
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private AccountShardRepository accountShardRepository;
+    
+    private AccountShardService accountShardService;
+    
+    @BeforeEach
+    void setUp() {
+        accountShardService = new AccountShardService(accountRepository, accountShardRepository);
+        ReflectionTestUtils.setField(accountShardService, "maxShards", 64);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void debitTakesAShardThatCoversItAlone() {
+        when(accountShardRepository.lockShardCovering(ACCOUNT, new BigDecimal("30.00"))).thenReturn(Optional.of(2));
+        
+        assertThat(accountShardService.debit(ACCOUNT, new BigDecimal("30.00"))).isTrue();
+        
+        verify(accountShardRepository).addToShard(ACCOUNT, 2, new BigDecimal("-30.00"));
+        verify(accountShardRepository, never()).lockShards(anyString());
+        verifyNoInteractions(accountRepository);
+    }
+    
+    @Test
+    void sweepDrawsFromShardsInOrderThenFromTheRow() {
+        when(accountShardRepository.lockShardCovering(ACCOUNT, new BigDecimal("30.00"))).thenReturn(Optional.empty());
+        when(accountRepository.lockBalance(ACCOUNT)).thenReturn(Optional.of(new BigDecimal("10.00")));
+        when(accountShardRepository.lockShards(ACCOUNT)).thenReturn(List.of(
+                shard(0, "5.00"), shard(1, "0.00"), shard(2, "20.00")));
+        
+        assertThat(accountShardService.debit(ACCOUNT, new BigDecimal("30.00"))).isTrue();
+        
+        InOrder order = inOrder(accountRepository, accountShardRepository);
+        // The row is locked before its shards
+        order.verify(accountRepository).lockBalance(ACCOUNT);
+        order.verify(accountShardRepository).lockShards(ACCOUNT);
+        order.verify(accountShardRepository).addToShard(ACCOUNT, 0, new BigDecimal("-5.00"));
+        order.verify(accountShardRepository).addToShard(ACCOUNT, 2, new BigDecimal("-20.00"));
+        order.verify(accountRepository).addToBalance(ACCOUNT, new BigDecimal("-5.00"));
+        verify(accountShardRepository, never()).addToShard(eq(ACCOUNT), eq(1), any());
+    }
+    
+    @Test
+    void sweepCoveredByShardsLeavesTheRowAlone() {
+        when(accountShardRepository.lockShardCovering(ACCOUNT, new BigDecimal("8.00"))).thenReturn(Optional.empty());
+        when(accountRepository.lockBalance(ACCOUNT)).thenReturn(Optional.of(new BigDecimal("100.00")));
+        when(accountShardRepository.lockShards(ACCOUNT)).thenReturn(List.of(shard(0, "5.00"), shard(1, "5.00")));
+        
+        assertThat(accountShardService.debit(ACCOUNT, new BigDecimal("8.00"))).isTrue();
+        
+        verify(accountShardRepository).addToShard(ACCOUNT, 0, new BigDecimal("-5.00"));
+        verify(accountShardRepository).addToShard(ACCOUNT, 1, new BigDecimal("-3.00"));
+        verify(accountRepository, never()).addToBalance(anyString(), any());
+    }
+    
+    @Test
+    void sweepRejectsADebitTheWholeBalanceCannotCover() {
+        when(accountShardRepository.lockShardCovering(ACCOUNT, new BigDecimal("35.01"))).thenReturn(Optional.empty());
+        when(accountRepository.lockBalance(ACCOUNT)).thenReturn(Optional.of(new BigDecimal("10.00")));
+        when(accountShardRepository.lockShards(ACCOUNT)).thenReturn(List.of(shard(0, "5.00"), shard(1, "20.00")));
+        
+        assertThat(accountShardService.debit(ACCOUNT, new BigDecimal("35.01"))).isFalse();
+        
+        verify(accountShardRepository, never()).addToShard(anyString(), anyInt(), any());
+        verify(accountRepository, never()).addToBalance(anyString(), any());
+    }
+    
+    @Test
+    void sweepOfAnUnknownAccountIsNotFound() {
+        when(accountShardRepository.lockShardCovering(ACCOUNT, BigDecimal.ONE)).thenReturn(Optional.empty());
+        when(accountRepository.lockBalance(ACCOUNT)).thenReturn(Optional.empty());
+        
+        assertThatThrownBy(() -> accountShardService.debit(ACCOUNT, BigDecimal.ONE))
+                .isInstanceOf(AccountNotFoundException.class);
+    }
+    
+    @Test
+    void creditGoesToAShardOfAShardedAccount() {
+        when(accountRepository.findShardedAccounts()).thenReturn(List.of(sharded(ACCOUNT, 4)));
+        accountShardService.refresh();
+        when(accountShardRepository.addToShard(eq(ACCOUNT), anyInt(), eq(BigDecimal.TEN))).thenReturn(1);
+        
+        accountShardService.credit(ACCOUNT, BigDecimal.TEN);
+        
+        ArgumentCaptor<Integer> index = ArgumentCaptor.forClass(Integer.class);
+        verify(accountShardRepository).addToShard(eq(ACCOUNT), index.capture(), eq(BigDecimal.TEN));
+        assertThat(index.getValue()).isBetween(0, 3);
+        verify(accountRepository, never()).addToBalance(anyString(), any());
+    }
+    
+    @Test
+    void creditFallsBackToTheRowWhenTheShardIsGone() {
+        when(accountRepository.findShardedAccounts()).thenReturn(List.of(sharded(ACCOUNT, 4)));
+        accountShardService.refresh();
+        when(accountShardRepository.addToShard(eq(ACCOUNT), anyInt(), eq(BigDecimal.TEN))).thenReturn(0);
+        when(accountRepository.addToBalance(ACCOUNT, BigDecimal.TEN)).thenReturn(1);
+        
+        accountShardService.credit(ACCOUNT, BigDecimal.TEN);
+        
+        verify(accountRepository).addToBalance(ACCOUNT, BigDecimal.TEN);
+    }
+    
+    @Test
+    void creditToAnUnknownAccountIsNotFound() {
+        when(accountRepository.addToBalance(ACCOUNT, BigDecimal.TEN)).thenReturn(0);
+        
+        assertThatThrownBy(() -> accountShardService.credit(ACCOUNT, BigDecimal.TEN))
+                .isInstanceOf(AccountNotFoundException.class);
+        verifyNoInteractions(accountShardRepository);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void reshardFoldsRemovedShardsAndRoutesOnlyAfterCommit() {
+        when(accountRepository.lockBalance(ACCOUNT)).thenReturn(Optional.of(new BigDecimal("1.00")));
+        when(accountShardRepository.lockShards(ACCOUNT)).thenReturn(List.of(
+                shard(0, "1.00"), shard(1, "2.00"), shard(2, "3.00"), shard(3, "4.00")));
+        TransactionSynchronizationManager.initSynchronization();
+        
+        accountShardService.reshard(ACCOUNT, 2);
+        
+        verify(accountShardRepository).deleteShardsFrom(ACCOUNT, 2);
+        verify(accountRepository).addToBalance(ACCOUNT, new BigDecimal("7.00"));
+        verify(accountRepository).updateShardCount(ACCOUNT, 2);
+        ArgumentCaptor<List<AccountShard>> added = ArgumentCaptor.forClass(List.class);
+        verify(accountShardRepository).saveAll(added.capture());
+        assertThat(added.getValue()).isEmpty();
+        
+        assertThat(accountShardService.isSharded(ACCOUNT)).isFalse();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(accountShardService.isSharded(ACCOUNT)).isTrue();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void reshardAddsEmptyShards() {
+        when(accountRepository.lockBalance(ACCOUNT)).thenReturn(Optional.of(new BigDecimal("1.00")));
+        when(accountShardRepository.lockShards(ACCOUNT)).thenReturn(List.of(shard(0, "1.00"), shard(1, "2.00")));
+        TransactionSynchronizationManager.initSynchronization();
+        
+        accountShardService.reshard(ACCOUNT, 4);
+        
+        verify(accountRepository, never()).addToBalance(anyString(), any());
+        ArgumentCaptor<List<AccountShard>> added = ArgumentCaptor.forClass(List.class);
+        verify(accountShardRepository).saveAll(added.capture());
+        assertThat(added.getValue()).extracting(AccountShard::getShardIndex).containsExactly(2, 3);
+        assertThat(added.getValue()).allSatisfy(shard -> assertThat(shard.getBalance()).isZero());
+    }
+    
+    @Test
+    void reshardToOneUnshardsTheAccount() {
+        when(accountRepository.findShardedAccounts()).thenReturn(List.of(sharded(ACCOUNT, 2)));
+        accountShardService.refresh();
+        when(accountRepository.lockBalance(ACCOUNT)).thenReturn(Optional.of(new BigDecimal("1.00")));
+        when(accountShardRepository.lockShards(ACCOUNT)).thenReturn(List.of(shard(0, "1.50"), shard(1, "2.50")));
+        TransactionSynchronizationManager.initSynchronization();
+        
+        accountShardService.reshard(ACCOUNT, 1);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        
+        verify(accountShardRepository).deleteShardsFrom(ACCOUNT, 0);
+        verify(accountRepository).addToBalance(ACCOUNT, new BigDecimal("4.00"));
+        assertThat(accountShardService.isSharded(ACCOUNT)).isFalse();
+    }
+    
+    @Test
+    void reshardRejectsCountsOutOfRange() {
+        assertThatThrownBy(() -> accountShardService.reshard(ACCOUNT, 0))
+                .isInstanceOf(InvalidAccountException.class);
+        assertThatThrownBy(() -> accountShardService.reshard(ACCOUNT, 65))
+                .isInstanceOf(InvalidAccountException.class);
+        verifyNoInteractions(accountRepository, accountShardRepository);
+    }
+    
+    private static ShardBalance shard(int shardIndex, String balance) {
+        return new ShardBalance() {
+            @Override
+            public int getShardIndex() {
+                return shardIndex;
+            }
+            
+            @Override
+            public BigDecimal getBalance() {
+                return new BigDecimal(balance);
+            }
+        };
+    }
+    
+    private static ShardedAccount sharded(String accountNumber, int shardCount) {
+        return new ShardedAccount() {
+            @Override
+            public String getAccountNumber() {
+                return accountNumber;
+            }
+            
+            @Override
+            public int getShardCount() {
+                return shardCount;
+            }
+        };
+    }
+}
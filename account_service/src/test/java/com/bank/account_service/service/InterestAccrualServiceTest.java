@@ -0,0 +1,48 @@
+package com.bank.account_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.jupiter.api.Test;
+
+import com.bank.account_service.service.InterestAccrualService.Accrual;
+
+class InterestAccrualServiceTest {
+    
+    private static final BigDecimal SAVINGS_DAILY = InterestAccrualService.daily(new BigDecimal("0.035"));
+    
+    @Test
+    void smallBalanceEarnsInterestOverAYear() {
+        BigDecimal balance = new BigDecimal("10.00");
+        // Rounded to cents each day, a balance this small never earned anything
+        assertThat(balance.multiply(SAVINGS_DAILY).setScale(2, RoundingMode.HALF_UP)).isZero();
+        
+        BigDecimal carried = BigDecimal.ZERO;
+        BigDecimal posted = BigDecimal.ZERO;
+        for (int day = 0; day < 365; day++) {
+            Accrual accrual = InterestAccrualService.accrue(carried, balance, SAVINGS_DAILY);
+            assertThat(accrual.posted().scale()).isEqualTo(2);
+            assertThat(accrual.carried()).isGreaterThanOrEqualTo(BigDecimal.ZERO).isLessThan(new BigDecimal("0.01"));
+            balance = balance.add(accrual.posted());
+            posted = posted.add(accrual.posted());
+            carried = accrual.carried();
+        }
+        
+        assertThat(posted).isEqualByComparingTo("0.35");
+        assertThat(balance).isEqualByComparingTo("10.35");
+        // The part of a cent still accrued is not lost, only not posted yet
+        assertThat(carried).isGreaterThan(BigDecimal.ZERO);
+    }
+    
+    @Test
+    void nothingIsLostBetweenPostedAndCarried() {
+        Accrual accrual = InterestAccrualService.accrue(new BigDecimal("0.0099"), new BigDecimal("1000.00"),
+                                                        SAVINGS_DAILY);
+        
+        BigDecimal accrued = new BigDecimal("0.0099").add(new BigDecimal("1000.00").multiply(SAVINGS_DAILY));
+        assertThat(accrual.posted()).isEqualByComparingTo("0.10");
+        assertThat(accrual.posted().add(accrual.carried())).isEqualByComparingTo(accrued);
+    }
+}
@@ -0,0 +1,149 @@
+package com.bank.account_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.account_service.entity.LedgerEntry;
+import com.bank.account_service.exception.AccountNotFoundException;
+import com.bank.account_service.repository.LedgerEntryRepository;
+import com.bank.common.id.IdGenerator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+    
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private LedgerService ledgerService;
+    
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService(ledgerEntryRepository, new IdGenerator(1), transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(ledgerService, "snapshotBatchSize", 3);
+    }
+    
+    @Test
+    void snapshotFoldsBatchesUntilOneIsNotFull() {
+        inTransaction();
+        when(ledgerEntryRepository.foldPendingEntries(3)).thenReturn(3L, 3L, 1L);
+        
+        ledgerService.snapshot();
+        
+        verify(ledgerEntryRepository, times(3)).foldPendingEntries(3);
+        verify(transactionTemplate, times(3)).execute(any());
+        assertThat(meterRegistry.counter("accounts.ledger.entries.folded").count()).isEqualTo(7);
+        assertThat(meterRegistry.timer("accounts.ledger.snapshot").count()).isEqualTo(1);
+    }
+    
+    @Test
+    void snapshotStopsAfterAnExactlyFullBatchIsFollowedByNothing() {
+        inTransaction();
+        when(ledgerEntryRepository.foldPendingEntries(3)).thenReturn(3L, 0L);
+        
+        ledgerService.snapshot();
+        
+        verify(ledgerEntryRepository, times(2)).foldPendingEntries(anyInt());
+        assertThat(meterRegistry.counter("accounts.ledger.entries.folded").count()).isEqualTo(3);
+    }
+    
+    @Test
+    void snapshotWithNothingPendingRecordsNothing() {
+        inTransaction();
+        when(ledgerEntryRepository.foldPendingEntries(3)).thenReturn(0L);
+        
+        ledgerService.snapshot();
+        
+        verify(ledgerEntryRepository, times(1)).foldPendingEntries(3);
+        assertThat(meterRegistry.counter("accounts.ledger.entries.folded").count()).isZero();
+        assertThat(meterRegistry.timer("accounts.ledger.snapshot").count()).isZero();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void postAppendsABalancedPairOfEntries() {
+        ledgerService.post("TXN1", "1000000001", "1000000002", new BigDecimal("25.00"));
+        
+        ArgumentCaptor<List<LedgerEntry>> saved = ArgumentCaptor.forClass(List.class);
+        verify(ledgerEntryRepository).saveAll(saved.capture());
+        List<LedgerEntry> entries = saved.getValue();
+        
+        assertThat(entries).hasSize(2);
+        LedgerEntry debit = entries.get(0);
+        LedgerEntry credit = entries.get(1);
+        assertThat(debit.getAccountNumber()).isEqualTo("1000000001");
+        assertThat(debit.getAmount()).isEqualByComparingTo("-25.00");
+        assertThat(credit.getAccountNumber()).isEqualTo("1000000002");
+        assertThat(credit.getAmount()).isEqualByComparingTo("25.00");
+        assertThat(debit.getPairId()).isEqualTo(credit.getPairId());
+        assertThat(entries).extracting(LedgerEntry::getReference).containsOnly("TXN1");
+        // Both sides are folded into real balances by the snapshot job
+        assertThat(entries).extracting(LedgerEntry::isApplied).containsOnly(false);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void externalSideOfADepositIsNeverFolded() {
+        ledgerService.post("TXN2", null, "1000000002", new BigDecimal("10.00"));
+        
+        ArgumentCaptor<List<LedgerEntry>> saved = ArgumentCaptor.forClass(List.class);
+        verify(ledgerEntryRepository).saveAll(saved.capture());
+        LedgerEntry external = saved.getValue().get(0);
+        LedgerEntry credit = saved.getValue().get(1);
+        
+        assertThat(external.getAccountNumber()).isEqualTo(LedgerService.EXTERNAL_ACCOUNT);
+        assertThat(external.isApplied()).isTrue();
+        assertThat(credit.isApplied()).isFalse();
+    }
+    
+    @Test
+    void debitLocksAreTakenOnceEachInAccountNumberOrder() {
+        ledgerService.lockForDebit(List.of("1000000003", "1000000001", "1000000002", "1000000001"));
+        
+        InOrder order = inOrder(ledgerEntryRepository);
+        order.verify(ledgerEntryRepository).lockForDebit("1000000001");
+        order.verify(ledgerEntryRepository).lockForDebit("1000000002");
+        order.verify(ledgerEntryRepository).lockForDebit("1000000003");
+        order.verifyNoMoreInteractions();
+    }
+    
+    @Test
+    void availableBalanceOfAnUnknownAccountIsNotFound() {
+        when(ledgerEntryRepository.findAvailableBalance("1000000009")).thenReturn(Optional.empty());
+        
+        assertThatThrownBy(() -> ledgerService.availableBalance("1000000009"))
+                .isInstanceOf(AccountNotFoundException.class);
+    }
+    
+    private void inTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+}
@@ -3,11 +3,15 @@ package com.bank.auth;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 
+import com.bank.common.config.VirtualThreadMonitor;
+
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableWebSecurity
+@Import(VirtualThreadMonitor.class)
 public class AuthServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(AuthServiceApplication.class, args);
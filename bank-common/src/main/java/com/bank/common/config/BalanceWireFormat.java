@@ -0,0 +1,95 @@
+package com.bank.common.config;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.BiFunction;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Compact binary encoding of the transaction-service to account-service balance update,
+ * negotiated through Content-Type/Accept so JSON keeps working for debugging.
+ * <pre>
+ * request:  version(1) operation ordinal(1) scale(1) unscaled amount(8)  = 11 bytes
+ * response: version(1) scale(1) unscaled balance(8)                      = 10 bytes
+ * </pre>
+ * Both services use this class; bump VERSION on any change, since they may be deployed
+ * at different times. Malformed input (an unknown version or operation, or a truncated
+ * body) is reported as an IOException.
+ */
+public final class BalanceWireFormat {
+    
+    public static final String MEDIA_TYPE_VALUE = "application/x-bank-balance";
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+    
+    public static final int REQUEST_LENGTH = 11;
+    public static final int RESPONSE_LENGTH = 10;
+    
+    private static final byte VERSION = 1;
+    
+    // Ordinals are the wire values: only ever append
+    public enum Operation {
+        CREDIT, DEBIT
+    }
+    
+    private static final Operation[] OPERATIONS = Operation.values();
+    
+    private BalanceWireFormat() {
+    }
+    
+    /**
+     * Whether the amount fits the fixed-width encoding; anything else goes as JSON.
+     */
+    public static boolean fits(BigDecimal amount) {
+        return amount.unscaledValue().bitLength() < Long.SIZE
+                && amount.scale() >= Byte.MIN_VALUE && amount.scale() <= Byte.MAX_VALUE;
+    }
+    
+    public static void writeRequest(String operation, BigDecimal amount, DataOutput out) throws IOException {
+        out.writeByte(VERSION);
+        out.writeByte(Operation.valueOf(operation).ordinal());
+        writeDecimal(amount, out);
+    }
+    
+    public static <T> T readRequest(DataInput in, BiFunction<String, BigDecimal, T> request) throws IOException {
+        checkVersion(in.readByte());
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= OPERATIONS.length) {
+            throw new IOException("Unknown balance operation " + ordinal);
+        }
+        Operation operation = OPERATIONS[ordinal];
+        return request.apply(operation.name(), readDecimal(in));
+    }
+    
+    public static void writeBalance(BigDecimal balance, DataOutput out) throws IOException {
+        out.writeByte(VERSION);
+        writeDecimal(balance, out);
+    }
+    
+    public static BigDecimal readBalance(DataInput in) throws IOException {
+        checkVersion(in.readByte());
+        return readDecimal(in);
+    }
+    
+    private static void writeDecimal(BigDecimal value, DataOutput out) throws IOException {
+        if (!fits(value)) {
+            throw new IllegalArgumentException("Amount does not fit the binary encoding: " + value);
+        }
+        out.writeByte(value.scale());
+        out.writeLong(value.unscaledValue().longValue());
+    }
+    
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int scale = in.readByte();
+        return new BigDecimal(BigInteger.valueOf(in.readLong()), scale);
+    }
+    
+    private static void checkVersion(byte version) throws IOException {
+        if (version != VERSION) {
+            throw new IOException("Unsupported balance wire format version " + version);
+        }
+    }
+}
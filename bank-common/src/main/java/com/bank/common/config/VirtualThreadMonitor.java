@@ -0,0 +1,100 @@
+package com.bank.common.config;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import jdk.management.VirtualThreadSchedulerMXBean;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Active when spring.threads.virtual.enabled is true, i.e. when Tomcat requests,
+ * scheduled/async tasks and Kafka listeners all run on virtual threads.
+ * <p>
+ * Publishes carrier (scheduler) utilisation next to Tomcat's own thread metrics, and
+ * watches JFR for virtual threads pinned to their carrier, e.g. while blocking on
+ * JDBC inside a synchronized block or a native frame, counting and logging where
+ * it happened. Services register it with {@code @Import(VirtualThreadMonitor.class)}.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadMonitor implements MeterBinder, DisposableBean {
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    
+    @Value("${virtual-threads.pinned-threshold-ms:20}")
+    private long pinnedThresholdMs;
+    
+    private RecordingStream recording;
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        VirtualThreadSchedulerMXBean scheduler =
+                ManagementFactory.getPlatformMXBean(VirtualThreadSchedulerMXBean.class);
+        
+        Gauge.builder("jvm.threads.virtual.carriers.parallelism", scheduler, VirtualThreadSchedulerMXBean::getParallelism)
+                .description("Target number of carrier threads")
+                .register(registry);
+        Gauge.builder("jvm.threads.virtual.carriers.pool.size", scheduler, VirtualThreadSchedulerMXBean::getPoolSize)
+                .description("Carrier threads currently started")
+                .register(registry);
+        Gauge.builder("jvm.threads.virtual.mounted", scheduler, VirtualThreadSchedulerMXBean::getMountedVirtualThreadCount)
+                .description("Virtual threads currently running on a carrier")
+                .register(registry);
+        Gauge.builder("jvm.threads.virtual.queued", scheduler, VirtualThreadSchedulerMXBean::getQueuedVirtualThreadCount)
+                .description("Virtual threads ready to run but waiting for a carrier")
+                .register(registry);
+        Gauge.builder("jvm.threads.virtual.carriers.utilization", scheduler,
+                        s -> (double) s.getMountedVirtualThreadCount() / s.getParallelism())
+                .description("Share of carrier threads busy running virtual threads")
+                .register(registry);
+        
+        Counter pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(registry);
+        
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(pinnedThresholdMs))
+                .withStackTrace();
+        recording.onEvent(PINNED_EVENT, event -> {
+            pinned.increment();
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(),
+                    event.getStackTrace() == null ? "unknown" : describe(event.getStackTrace().getFrames()));
+        });
+        recording.startAsync();
+        log.info("Virtual thread mode enabled; reporting pinning above {} ms", pinnedThresholdMs);
+    }
+    
+    private String describe(List<RecordedFrame> frames) {
+        // First application frame is the useful one; fall back to the top of the stack
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("com.bank.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return frames.isEmpty() ? "unknown"
+                : frames.get(0).getMethod().getType().getName() + "." + frames.get(0).getMethod().getName();
+    }
+    
+    @Override
+    public void destroy() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
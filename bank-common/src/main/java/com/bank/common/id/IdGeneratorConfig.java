@@ -0,0 +1,43 @@
+package com.bank.common.id;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The {@link IdGenerator} bean, imported by the services that generate IDs. Its node id
+ * is id-generator.node-id when set (0-1023, and unique per service); otherwise one is
+ * leased from the service's database. Startup fails if neither is possible.
+ */
+@Configuration(proxyBeanMethods = false)
+@Slf4j
+public class IdGeneratorConfig {
+    
+    @Bean
+    public IdGenerator idGenerator(@Value("${id-generator.node-id:-1}") long nodeId,
+                                   ObjectProvider<NodeIdLease> lease) {
+        // Anything but the -1 default must be a valid node id; IdGenerator rejects the rest
+        if (nodeId != -1) {
+            log.info("ID generator node id: {} (configured)", nodeId);
+            return new IdGenerator(nodeId);
+        }
+        return new IdGenerator(lease.getObject());
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "id-generator.node-id", havingValue = "-1", matchIfMissing = true)
+    public NodeIdLease nodeIdLease(JdbcTemplate jdbcTemplate,
+                                   @Value("${spring.application.name:application}") String applicationName,
+                                   @Value("${id-generator.lease-seconds:60}") long leaseSeconds,
+                                   @Value("${id-generator.lease-renew-ms:20000}") long renewMs) {
+        return new NodeIdLease(jdbcTemplate, applicationName, Duration.ofSeconds(leaseSeconds),
+                               Duration.ofMillis(renewMs));
+    }
+}
@@ -0,0 +1,135 @@
+package com.bank.common.id;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An {@link IdGenerator} node id leased from the service's database, for instances
+ * without an explicit id-generator.node-id. Each instance claims the lowest id in
+ * id_generator_leases that is free or whose lease has expired, renews it every
+ * id-generator.lease-renew-ms and deletes it on shutdown. Renewal has a thread of its
+ * own, so a long-running scheduled job cannot hold it up. A lease that could not be
+ * renewed stops being valid here a safety margin before it expires in the database,
+ * so a node id is never used by two instances at once as long as their clocks are
+ * closer than that margin; in between, IDs are refused rather than risked.
+ */
+@Slf4j
+public class NodeIdLease implements InitializingBean, DisposableBean {
+    
+    private static final int MAX_ATTEMPTS = 10;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner;
+    private final Duration duration;
+    private final Duration margin;
+    private final Duration renewInterval;
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "node-id-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private volatile long nodeId = -1;
+    private volatile long validUntilNanos;
+    
+    public NodeIdLease(JdbcTemplate jdbcTemplate, String applicationName, Duration duration, Duration renewInterval) {
+        if (renewInterval.compareTo(duration.dividedBy(2)) > 0) {
+            throw new IllegalArgumentException("The lease must be renewed at least twice per lease duration");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = applicationName + "/" + UUID.randomUUID();
+        this.duration = duration;
+        this.margin = duration.dividedBy(4);
+        this.renewInterval = renewInterval;
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS id_generator_leases (
+                    node_id integer PRIMARY KEY,
+                    owner varchar(255) NOT NULL,
+                    expires_at timestamp with time zone NOT NULL)
+                """);
+        acquire();
+        renewer.scheduleWithFixedDelay(this::renew, renewInterval.toMillis(), renewInterval.toMillis(),
+                                       TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * The leased node id; throws if the lease has lapsed.
+     */
+    public long nodeId() {
+        long id = nodeId;
+        if (id < 0 || System.nanoTime() - validUntilNanos >= 0) {
+            throw new IllegalStateException("ID generator node id lease is not held");
+        }
+        return id;
+    }
+    
+    void renew() {
+        long started = System.nanoTime();
+        try {
+            int renewed = jdbcTemplate.update(
+                    "UPDATE id_generator_leases SET expires_at = now() + make_interval(secs => ?) "
+                    + "WHERE node_id = ? AND owner = ?",
+                    duration.toSeconds(), nodeId, owner);
+            if (renewed == 1) {
+                validUntilNanos = started + duration.minus(margin).toNanos();
+                return;
+            }
+            // Expired and claimed by another instance; this one needs a new id
+            log.error("Lost the lease on ID generator node id {}, claiming another", nodeId);
+            validUntilNanos = started;
+            acquire();
+        } catch (RuntimeException e) {
+            log.warn("Could not renew the lease on ID generator node id {}: {}", nodeId, e.getMessage());
+        }
+    }
+    
+    private void acquire() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long started = System.nanoTime();
+            // Two instances racing for the same free id: the loser's upsert matches no row
+            List<Integer> claimed = jdbcTemplate.queryForList("""
+                    INSERT INTO id_generator_leases AS l (node_id, owner, expires_at)
+                    SELECT n, ?, now() + make_interval(secs => ?)
+                    FROM generate_series(0, ?) n
+                    WHERE NOT EXISTS (SELECT 1 FROM id_generator_leases e WHERE e.node_id = n AND e.expires_at > now())
+                    ORDER BY n
+                    LIMIT 1
+                    ON CONFLICT (node_id) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at
+                    WHERE l.expires_at <= now()
+                    RETURNING node_id
+                    """, Integer.class, owner, duration.toSeconds(), (int) IdGenerator.MAX_NODE_ID);
+            if (!claimed.isEmpty()) {
+                nodeId = claimed.get(0);
+                validUntilNanos = started + duration.minus(margin).toNanos();
+                log.info("ID generator node id: {} (leased)", nodeId);
+                return;
+            }
+        }
+        throw new IllegalStateException("No free ID generator node id in id_generator_leases");
+    }
+    
+    @Override
+    public void destroy() {
+        renewer.shutdownNow();
+        validUntilNanos = System.nanoTime();
+        try {
+            jdbcTemplate.update("DELETE FROM id_generator_leases WHERE node_id = ? AND owner = ?", nodeId, owner);
+        } catch (RuntimeException e) {
+            log.warn("Could not release ID generator node id {}: {}", nodeId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.bank.common.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains a service's outbox table to Kafka in batches, off the request path.
+ * A batch is deleted only after the broker has acknowledged every record in it,
+ * so delivery is at-least-once. Each service subclasses this as its OutboxRelay bean.
+ * <p>
+ * The outbox table is also the producer's overflow: the in-memory producer buffer is
+ * bounded (spring.kafka.producer.buffer-memory) and sends fail fast when it is full
+ * (max.block.ms), so while the broker is slow or down events simply stay in the table,
+ * and the relay backs off instead of retrying every cycle. Each send records its ack
+ * latency and failures per topic from its completion callback.
+ * <p>
+ * Only one instance relays at a time: each batch first takes the store's relay lock, and
+ * an instance that finds it held skips the cycle. Several instances each claiming their
+ * own batch could publish two events with the same key out of order, and consumers
+ * apply events such as BALANCE_UPDATED, which carry absolute values, in arrival order.
+ * With one relay, a batch is sent in id order and the next is claimed only after the
+ * previous one was acknowledged and deleted. The lock lasts one batch, so another
+ * instance takes over as soon as the holder stops or dies; the cost is that relaying
+ * does not scale out across instances.
+ * <p>
+ * The wait for acks is bounded by outbox.relay.ack-timeout-ms. A batch that is not fully
+ * acknowledged by then rolls back, which releases the lock and its claim so this or
+ * another instance can send it again.
+ */
+@Slf4j
+public abstract class KafkaOutboxRelay<R extends OutboxRecord, E> {
+    
+    private final OutboxStore<R> outboxStore;
+    private final KafkaTemplate<String, E> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Class<E> eventType;
+    
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong pendingEvents = new AtomicLong();
+    
+    // Consecutive failed cycles, and when the next one may run
+    private int failedCycles;
+    private long retryAtNanos;
+    
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${outbox.relay.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+    
+    @Value("${outbox.relay.ack-timeout-ms:35000}")
+    private long ackTimeoutMs;
+    
+    @Value("${outbox.relay.pending-count-cap:100000}")
+    private int pendingCountCap;
+    
+    protected KafkaOutboxRelay(OutboxStore<R> outboxStore,
+                               KafkaTemplate<String, E> kafkaTemplate,
+                               TransactionTemplate transactionTemplate,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               Class<E> eventType) {
+        this.outboxStore = outboxStore;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.eventType = eventType;
+        this.publishedCounter = meterRegistry.counter("outbox.events.published");
+        this.failedCounter = meterRegistry.counter("outbox.events.failed");
+        this.batchTimer = meterRegistry.timer("outbox.relay.batch");
+        Gauge.builder("outbox.lag.seconds", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age of the oldest event still waiting in the outbox")
+                .register(meterRegistry);
+        // Set by the relay loop rather than counted on every scrape
+        Gauge.builder("outbox.pending.events", pendingEvents, AtomicLong::get)
+                .description("Events left in the outbox after the last relay cycle (capped)")
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        if (failedCycles > 0 && System.nanoTime() - retryAtNanos < 0) {
+            return;
+        }
+        try {
+            Integer sent;
+            do {
+                sent = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+            } while (sent != null && sent == batchSize);
+            failedCycles = 0;
+            if (sent != null) {
+                // The last batch came back short, so the table was drained
+                pendingEvents.set(0);
+            }
+        } catch (Exception e) {
+            failedCounter.increment();
+            failedCycles++;
+            long backoffMs = Math.min(maxBackoffMs, 100L << Math.min(failedCycles, 16));
+            retryAtNanos = System.nanoTime() + backoffMs * 1_000_000;
+            log.warn("Outbox relay cycle failed, retrying in {} ms: {}", backoffMs, e.getMessage());
+            countPending();
+        } finally {
+            LocalDateTime oldest = outboxStore.findOldestCreatedAt();
+            lagMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+        }
+    }
+    
+    // Null if another instance is relaying
+    private Integer relayBatch() {
+        if (!outboxStore.tryLockRelay()) {
+            return null;
+        }
+        List<R> batch = outboxStore.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        List<CompletableFuture<?>> acks = new ArrayList<>(batch.size());
+        for (R record : batch) {
+            E event = toEvent(record);
+            if (event != null) {
+                acks.add(send(record.getTopic(), record.getEventKey(), event));
+            }
+        }
+        // The batch is complete, so don't let its tail wait out linger.ms
+        kafkaTemplate.flush();
+        // Throws if any send failed or timed out, rolling back so the whole batch is retried
+        awaitAcks(acks);
+        
+        outboxStore.deleteAllInBatch(batch);
+        publishedCounter.increment(batch.size());
+        log.debug("Relayed {} outbox events", batch.size());
+        return batch.size();
+    }
+    
+    private void awaitAcks(List<CompletableFuture<?>> acks) {
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                    .get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Broker did not acknowledge the batch within " + ackTimeoutMs + " ms", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Send failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for broker acks", e);
+        }
+    }
+    
+    private void countPending() {
+        try {
+            pendingEvents.set(outboxStore.countUpTo(pendingCountCap));
+        } catch (Exception e) {
+            // The database is what failed; keep the last known value
+            log.debug("Could not count pending outbox events: {}", e.getMessage());
+        }
+    }
+    
+    private CompletableFuture<?> send(String topic, String key, E event) {
+        long started = System.nanoTime();
+        return kafkaTemplate.send(topic, key, event).whenComplete((result, failure) -> {
+            if (failure == null) {
+                meterRegistry.timer("outbox.send.latency", "topic", topic)
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            } else {
+                Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                meterRegistry.counter("outbox.send.failures", "topic", topic,
+                                      "exception", cause.getClass().getSimpleName()).increment();
+            }
+        });
+    }
+    
+    private E toEvent(R record) {
+        try {
+            return objectMapper.readValue(record.getPayload(), eventType);
+        } catch (Exception e) {
+            // A payload that cannot be read would block the outbox forever; drop it loudly instead
+            log.error("Discarding unreadable outbox event {}: {}", record.getId(), e.getMessage());
+            failedCounter.increment();
+            return null;
+        }
+    }
+}
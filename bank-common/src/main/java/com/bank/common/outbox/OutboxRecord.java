@@ -0,0 +1,15 @@
+package com.bank.common.outbox;
+
+/**
+ * A row of a service's outbox table: a serialized event and where to send it.
+ */
+public interface OutboxRecord {
+    
+    Long getId();
+    
+    String getTopic();
+    
+    String getEventKey();
+    
+    String getPayload();
+}
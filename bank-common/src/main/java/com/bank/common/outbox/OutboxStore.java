@@ -0,0 +1,25 @@
+package com.bank.common.outbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * What the relay needs from a service's outbox repository. The queries are declared
+ * on the repository itself, since they name the service's own table.
+ */
+public interface OutboxStore<R extends OutboxRecord> {
+    
+    // Takes the relay lock for the rest of the transaction if no other instance holds it:
+    // a transaction-scoped advisory lock, so it is released even if the holder dies
+    boolean tryLockRelay();
+    
+    // Claims the oldest records with FOR UPDATE SKIP LOCKED, until the transaction ends
+    List<R> lockNextBatch(int limit);
+    
+    void deleteAllInBatch(Iterable<R> records);
+    
+    LocalDateTime findOldestCreatedAt();
+    
+    // Counts at most cap records, so a large backlog costs no more than cap rows to count
+    long countUpTo(int cap);
+}
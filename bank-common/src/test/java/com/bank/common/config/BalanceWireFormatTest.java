@@ -0,0 +1,82 @@
+package com.bank.common.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class BalanceWireFormatTest {
+    
+    @Test
+    void requestRoundTripsInElevenBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BalanceWireFormat.writeRequest("DEBIT", new BigDecimal("1234.50"), new DataOutputStream(bytes));
+        
+        assertThat(bytes.size()).isEqualTo(BalanceWireFormat.REQUEST_LENGTH);
+        Map.Entry<String, BigDecimal> request = BalanceWireFormat.readRequest(input(bytes.toByteArray()), SimpleEntry::new);
+        assertThat(request.getKey()).isEqualTo("DEBIT");
+        // Scale survives, not just the value
+        assertThat(request.getValue()).isEqualTo(new BigDecimal("1234.50"));
+    }
+    
+    @Test
+    void balanceRoundTripsInTenBytes() throws IOException {
+        for (String balance : new String[] {"0", "-15.25", "9223372036854775807", "0.0000001"}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            BalanceWireFormat.writeBalance(new BigDecimal(balance), new DataOutputStream(bytes));
+            
+            assertThat(bytes.size()).isEqualTo(BalanceWireFormat.RESPONSE_LENGTH);
+            assertThat(BalanceWireFormat.readBalance(input(bytes.toByteArray()))).isEqualTo(new BigDecimal(balance));
+        }
+    }
+    
+    @Test
+    void amountsBeyondALongDoNotFit() {
+        assertThat(BalanceWireFormat.fits(new BigDecimal("9223372036854775807"))).isTrue();
+        assertThat(BalanceWireFormat.fits(new BigDecimal("9223372036854775808"))).isFalse();
+        assertThat(BalanceWireFormat.fits(new BigDecimal("1E-128"))).isFalse();
+        
+        assertThatThrownBy(() -> BalanceWireFormat.writeBalance(new BigDecimal("9223372036854775808"),
+                                                                new DataOutputStream(new ByteArrayOutputStream())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void unknownOperationIsMalformedInput() {
+        byte[] request = {1, 2, 2, 0, 0, 0, 0, 0, 0, 0, 100};
+        
+        assertThatThrownBy(() -> BalanceWireFormat.readRequest(input(request), SimpleEntry::new))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unknown balance operation 2");
+    }
+    
+    @Test
+    void unknownVersionIsMalformedInput() {
+        byte[] balance = {2, 2, 0, 0, 0, 0, 0, 0, 0, 100};
+        
+        assertThatThrownBy(() -> BalanceWireFormat.readBalance(input(balance)))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unsupported balance wire format version 2");
+    }
+    
+    @Test
+    void truncatedBodyIsMalformedInput() {
+        byte[] balance = {1, 2, 0, 0, 0};
+        
+        assertThatThrownBy(() -> BalanceWireFormat.readBalance(input(balance))).isInstanceOf(EOFException.class);
+    }
+    
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+}
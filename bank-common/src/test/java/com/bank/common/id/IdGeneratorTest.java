@@ -0,0 +1,92 @@
+package com.bank.common.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class IdGeneratorTest {
+    
+    @Test
+    void nodeIdMustFitItsBits() {
+        new IdGenerator(0);
+        new IdGenerator(IdGenerator.MAX_NODE_ID);
+        
+        assertThatThrownBy(() -> new IdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new IdGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Node id must be between 0 and 1023, was 1024");
+    }
+    
+    @Test
+    void idsAreStrictlyIncreasingAndCarryTheNodeId() {
+        IdGenerator generator = new IdGenerator(513);
+        
+        long previous = 0;
+        // More than one millisecond's worth of sequence numbers
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            assertThat((id >>> IdGenerator.SEQUENCE_BITS) & IdGenerator.MAX_NODE_ID).isEqualTo(513);
+            previous = id;
+        }
+    }
+    
+    @Test
+    void idsCarryTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        long id = new IdGenerator(1).nextId();
+        long after = System.currentTimeMillis();
+        
+        long millis = (id >>> (IdGenerator.NODE_BITS + IdGenerator.SEQUENCE_BITS)) + IdGenerator.EPOCH;
+        assertThat(millis).isBetween(before, after);
+    }
+    
+    @Test
+    void concurrentCallersNeverGetTheSameId() throws Exception {
+        IdGenerator generator = new IdGenerator(7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> callers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                callers.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> caller : callers) {
+                caller.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        assertThat(ids).hasSize(40_000);
+    }
+    
+    @Test
+    void encodedIdsAreFixedWidthAndSortLikeTheNumbers() {
+        assertThat(IdGenerator.encode(0)).isEqualTo("0000000000000");
+        assertThat(IdGenerator.encode(31)).isEqualTo("000000000000Z");
+        assertThat(IdGenerator.encode(32)).isEqualTo("0000000000010");
+        assertThat(IdGenerator.encode(Long.MAX_VALUE)).hasSize(13).startsWith("7");
+        
+        IdGenerator generator = new IdGenerator(1);
+        String previous = generator.nextEncodedId();
+        for (int i = 0; i < 1_000; i++) {
+            String next = generator.nextEncodedId();
+            assertThat(next).hasSize(13).isGreaterThan(previous).doesNotContain("I", "L", "O", "U");
+            previous = next;
+        }
+    }
+}
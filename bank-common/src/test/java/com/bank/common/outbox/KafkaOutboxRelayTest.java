@@ -0,0 +1,69 @@
+package com.bank.common.outbox;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaOutboxRelayTest {
+    
+    @Mock
+    private OutboxStore<OutboxRecord> outboxStore;
+    
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    private KafkaOutboxRelay<OutboxRecord, String> relay;
+    
+    @BeforeEach
+    void setUp() {
+        relay = new KafkaOutboxRelay<>(outboxStore, kafkaTemplate, transactionTemplate, new ObjectMapper(),
+                                       new SimpleMeterRegistry(), String.class) {
+        };
+        ReflectionTestUtils.setField(relay, "batchSize", 500);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+    
+    @Test
+    void instanceWithoutTheRelayLockClaimsNothing() {
+        when(outboxStore.tryLockRelay()).thenReturn(false);
+        
+        relay.relay();
+        
+        verify(outboxStore, never()).lockNextBatch(anyInt());
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+    
+    @Test
+    void holderOfTheRelayLockClaimsABatch() {
+        when(outboxStore.tryLockRelay()).thenReturn(true);
+        when(outboxStore.lockNextBatch(500)).thenReturn(List.of());
+        
+        relay.relay();
+        
+        verify(outboxStore).lockNextBatch(500);
+    }
+}
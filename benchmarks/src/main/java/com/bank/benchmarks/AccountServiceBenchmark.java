@@ -0,0 +1,80 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.account_service.dto.TransferRequest;
+import com.bank.account_service.dto.TransferResponse;
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.AccountStatus;
+import com.bank.account_service.entity.AccountType;
+import com.bank.account_service.service.AccountService;
+import com.bank.benchmarks.support.Services;
+
+/**
+ * AccountService balance updates against in-memory accounts. Credits and debits
+ * alternate so the balance, and with it the BigDecimal scale work, stays stable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    private static final String SOURCE = "ACC0000000000001";
+    private static final String DESTINATION = "ACC0000000000002";
+    private static final BigDecimal AMOUNT = new BigDecimal("125.50");
+
+    private AccountService accountService;
+    private TransferRequest forward;
+    private TransferRequest back;
+
+    @Setup
+    public void setUp() {
+        accountService = Services.accountService(Map.of(
+                SOURCE, account(SOURCE),
+                DESTINATION, account(DESTINATION)));
+        forward = TransferRequest.builder()
+                .fromAccountNumber(SOURCE).toAccountNumber(DESTINATION).amount(AMOUNT).build();
+        back = TransferRequest.builder()
+                .fromAccountNumber(DESTINATION).toAccountNumber(SOURCE).amount(AMOUNT).build();
+    }
+
+    @Benchmark
+    public void creditThenDebit() {
+        accountService.updateBalance(SOURCE, AMOUNT, "CREDIT");
+        accountService.updateBalance(SOURCE, AMOUNT, "DEBIT");
+    }
+
+    @Benchmark
+    public TransferResponse transferRoundTrip() {
+        accountService.transfer(forward);
+        return accountService.transfer(back);
+    }
+
+    private static Account account(String accountNumber) {
+        return Account.builder()
+                .id(1L)
+                .accountNumber(accountNumber)
+                .customerId(1L)
+                .accountType(AccountType.CHECKING)
+                .balance(new BigDecimal("1000000.00"))
+                .status(AccountStatus.ACTIVE)
+                .currency("USD")
+                .build();
+    }
+}
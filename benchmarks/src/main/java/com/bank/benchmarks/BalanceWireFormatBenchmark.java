@@ -0,0 +1,79 @@
+package com.bank.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.benchmarks.support.Services;
+import com.bank.common.config.BalanceWireFormat;
+import com.bank.transaction_service.dto.BalanceUpdateRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encoding and decoding of the balance update request, JSON against the binary
+ * wire format, as done on either side of the transaction-service to account-service call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceWireFormatBenchmark {
+
+    private ObjectMapper objectMapper;
+    private BalanceUpdateRequest request;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Services.objectMapper();
+        request = BalanceUpdateRequest.builder()
+                .amount(new BigDecimal("125.50"))
+                .operation("DEBIT")
+                .build();
+        json = objectMapper.writeValueAsBytes(request);
+        binary = encodeBinary();
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public BalanceUpdateRequest decodeJson() throws Exception {
+        return objectMapper.readValue(json, BalanceUpdateRequest.class);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        BalanceWireFormat.writeRequest(request.getOperation(), request.getAmount(), new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public BalanceUpdateRequest decodeBinary() throws Exception {
+        return BalanceWireFormat.readRequest(new DataInputStream(new ByteArrayInputStream(binary)),
+                (operation, amount) -> BalanceUpdateRequest.builder()
+                        .operation(operation)
+                        .amount(amount)
+                        .build());
+    }
+}
@@ -0,0 +1,82 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.account_service.event.AccountEvent;
+import com.bank.benchmarks.support.Services;
+import com.bank.transaction_service.Event.TransactionEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JSON (de)serialization of the Kafka event payloads, as done by the outbox
+ * on write and by the relay and consumers on read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private TransactionEvent transactionEvent;
+    private AccountEvent accountEvent;
+    private String transactionEventJson;
+    private String accountEventJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Services.objectMapper();
+        transactionEvent = TransactionEvent.builder()
+                .eventType("TRANSACTION_COMPLETED")
+                .transactionId("TXN0B3Z9K2M4P6R8T")
+                .accountNumber("ACC0B3Z9K2M4P6R8")
+                .amount(new BigDecimal("125.50"))
+                .type("TRANSFER")
+                .status("COMPLETED")
+                .timestamp(System.currentTimeMillis())
+                .build();
+        accountEvent = AccountEvent.builder()
+                .eventType("BALANCE_UPDATED")
+                .accountNumber("ACC0B3Z9K2M4P6R8")
+                .customerId(42L)
+                .balance(new BigDecimal("98765.43"))
+                .timestamp(System.currentTimeMillis())
+                .build();
+        transactionEventJson = objectMapper.writeValueAsString(transactionEvent);
+        accountEventJson = objectMapper.writeValueAsString(accountEvent);
+    }
+
+    @Benchmark
+    public String serializeTransactionEvent() throws Exception {
+        return objectMapper.writeValueAsString(transactionEvent);
+    }
+
+    @Benchmark
+    public TransactionEvent deserializeTransactionEvent() throws Exception {
+        return objectMapper.readValue(transactionEventJson, TransactionEvent.class);
+    }
+
+    @Benchmark
+    public String serializeAccountEvent() throws Exception {
+        return objectMapper.writeValueAsString(accountEvent);
+    }
+
+    @Benchmark
+    public AccountEvent deserializeAccountEvent() throws Exception {
+        return objectMapper.readValue(accountEventJson, AccountEvent.class);
+    }
+}
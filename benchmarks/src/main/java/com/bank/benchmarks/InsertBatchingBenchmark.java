@@ -0,0 +1,154 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rows per second inserted the way Hibernate does with each id strategy, against a
+ * real PostgreSQL (unlike the other benchmarks, this one measures the database):
+ * <ul>
+ * <li>IDENTITY: one INSERT ... RETURNING id round trip per row, as the entities did
+ * before, since the id is only known after the insert.</li>
+ * <li>SEQUENCE: ids taken from a pooled sequence (one nextval per 50 rows) and the
+ * inserts sent as JDBC batches of 100, as with hibernate.jdbc.batch_size.</li>
+ * </ul>
+ * Both write ROWS rows in one DB transaction into scratch tables that are dropped
+ * afterwards. The database is -Dbench.jdbc.url (default: the transaction-service
+ * database), with -Dbench.jdbc.user / -Dbench.jdbc.password.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBatchingBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int BATCH_SIZE = 100;
+
+    private static final String COLUMNS =
+            "transaction_id varchar(32) not null, account_number varchar(32) not null, "
+            + "amount numeric(19, 2) not null, created_at timestamp not null";
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    public String idStrategy;
+
+    private Connection connection;
+    private long rowCounter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url",
+                        "jdbc:postgresql://localhost:5433/transaction_db?reWriteBatchedInserts=true"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "postgres"));
+        try (Statement ddl = connection.createStatement()) {
+            dropScratchTables(ddl);
+            ddl.execute("create table bench_insert_identity ("
+                    + "id bigint generated by default as identity primary key, " + COLUMNS + ")");
+            ddl.execute("create sequence bench_insert_seq start with 1 increment by " + ALLOCATION_SIZE);
+            ddl.execute("create table bench_insert_sequence (id bigint primary key, " + COLUMNS + ")");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement ddl = connection.createStatement()) {
+            dropScratchTables(ddl);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertRows() throws SQLException {
+        if ("IDENTITY".equals(idStrategy)) {
+            insertWithIdentity();
+        } else {
+            insertWithSequence();
+        }
+        connection.commit();
+    }
+
+    private void insertWithIdentity() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into bench_insert_identity (transaction_id, account_number, amount, created_at) "
+                + "values (?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bindRow(insert, 1);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+    }
+
+    private void insertWithSequence() throws SQLException {
+        try (PreparedStatement nextVal = connection.prepareStatement("select nextval('bench_insert_seq')");
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into bench_insert_sequence (id, transaction_id, account_number, amount, created_at) "
+                     + "values (?, ?, ?, ?, ?)")) {
+            long nextId = 0;
+            long blockEnd = 0;
+            for (int i = 0; i < ROWS; i++) {
+                if (nextId == blockEnd) {
+                    // Pooled optimizer: the sequence value is the top of a block of ALLOCATION_SIZE ids
+                    try (ResultSet value = nextVal.executeQuery()) {
+                        value.next();
+                        blockEnd = value.getLong(1) + 1;
+                        nextId = blockEnd - ALLOCATION_SIZE;
+                    }
+                }
+                insert.setLong(1, nextId++);
+                bindRow(insert, 2);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void bindRow(PreparedStatement insert, int firstParameter) throws SQLException {
+        long row = ++rowCounter;
+        insert.setString(firstParameter, "TXNBENCH" + row);
+        insert.setString(firstParameter + 1, "ACC" + (row % 1000));
+        insert.setBigDecimal(firstParameter + 2, BigDecimal.valueOf(row % 10_000, 2));
+        insert.setTimestamp(firstParameter + 3, new Timestamp(System.currentTimeMillis()));
+    }
+
+    private void dropScratchTables(Statement ddl) throws SQLException {
+        ddl.execute("drop table if exists bench_insert_identity");
+        ddl.execute("drop table if exists bench_insert_sequence");
+        ddl.execute("drop sequence if exists bench_insert_seq");
+    }
+}
@@ -0,0 +1,111 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Credits per second to one hot account from 16 threads, against a real PostgreSQL.
+ * Each credit is its own DB transaction that adds to one random sub-balance row, as
+ * AccountShardService.credit does; with a single shard that is the account row every
+ * credit used to wait on. Credits only conflict when they pick the same shard, so
+ * throughput should grow with the shard count until the threads run out. The rows live
+ * in a scratch table that is dropped afterwards. The database is -Dbench.jdbc.url
+ * (default: the account-service database), with -Dbench.jdbc.user /
+ * -Dbench.jdbc.password.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ShardedCreditBenchmark {
+
+    private static final String ACCOUNT_NUMBER = "ACCBENCHHOT";
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @State(Scope.Benchmark)
+    public static class Shards {
+
+        @Param({"1", "4", "16"})
+        public int shardCount;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            try (Connection connection = connect(); Statement ddl = connection.createStatement()) {
+                ddl.execute("drop table if exists bench_account_shards");
+                ddl.execute("create table bench_account_shards (account_number varchar(32) not null, "
+                        + "shard_index integer not null, balance numeric(19, 2) not null, "
+                        + "primary key (account_number, shard_index))");
+                ddl.execute("insert into bench_account_shards "
+                        + "select '" + ACCOUNT_NUMBER + "', i, 0 from generate_series(0, " + (shardCount - 1) + ") i");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            try (Connection connection = connect(); Statement ddl = connection.createStatement()) {
+                ddl.execute("drop table if exists bench_account_shards");
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+
+        private Connection connection;
+        private PreparedStatement credit;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            connection = connect();
+            connection.setAutoCommit(false);
+            credit = connection.prepareStatement("update bench_account_shards set balance = balance + ? "
+                    + "where account_number = ? and shard_index = ?");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            credit.close();
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int credit(Shards shards, Session session) throws SQLException {
+        session.credit.setBigDecimal(1, AMOUNT);
+        session.credit.setString(2, ACCOUNT_NUMBER);
+        session.credit.setInt(3, ThreadLocalRandom.current().nextInt(shards.shardCount));
+        int updated = session.credit.executeUpdate();
+        session.connection.commit();
+        return updated;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/account_db"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "postgres"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.benchmarks.support.Services;
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.dto.TransactionRequest;
+import com.bank.transaction_service.dto.TransactionResponse;
+import com.bank.transaction_service.service.TransactionService;
+
+/**
+ * TransactionService.processTransaction and the entity-to-response mapping,
+ * with the repository, account-service client and event outbox held in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    private static final String STORED_ID = "TXNBENCHMARK0001";
+
+    private TransactionService transactionService;
+    private TransactionRequest deposit;
+    private TransactionRequest withdrawal;
+    private TransactionRequest transfer;
+
+    @Setup
+    public void setUp() {
+        Transaction stored = Transaction.builder()
+                .id(1L)
+                .transactionId(STORED_ID)
+                .accountNumber("ACC0000000000001")
+                .toAccountNumber("ACC0000000000002")
+                .type(TransactionType.TRANSFER)
+                .amount(new BigDecimal("125.50"))
+                .status(TransactionStatus.COMPLETED)
+                .description("Benchmark transfer")
+                .transactionDate(LocalDateTime.now())
+                .build();
+        transactionService = Services.transactionService(Map.of(STORED_ID, stored));
+
+        deposit = request(TransactionType.DEPOSIT, null);
+        withdrawal = request(TransactionType.WITHDRAWAL, null);
+        transfer = request(TransactionType.TRANSFER, "ACC0000000000002");
+    }
+
+    @Benchmark
+    public TransactionResponse processDeposit() {
+        return transactionService.processTransaction(deposit, null);
+    }
+
+    @Benchmark
+    public TransactionResponse processWithdrawal() {
+        return transactionService.processTransaction(withdrawal, null);
+    }
+
+    @Benchmark
+    public TransactionResponse processTransfer() {
+        return transactionService.processTransaction(transfer, null);
+    }
+
+    /**
+     * Lookup against the in-memory repository plus toResponse mapping.
+     */
+    @Benchmark
+    public TransactionResponse getTransaction() {
+        return transactionService.getTransaction(STORED_ID);
+    }
+
+    private static TransactionRequest request(TransactionType type, String toAccountNumber) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber("ACC0000000000001");
+        request.setToAccountNumber(toAccountNumber);
+        request.setType(type);
+        request.setAmount(new BigDecimal("125.50"));
+        request.setDescription("Benchmark " + type.name().toLowerCase());
+        return request;
+    }
+}
@@ -0,0 +1,161 @@
+package com.bank.benchmarks.support;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.StreamSupport;
+
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.service.AccountService;
+import com.bank.common.id.IdGenerator;
+import com.bank.transaction_service.Client.AccountServiceClient;
+import com.bank.transaction_service.Client.VelocityPeerClient;
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Repository.TransactionRepository;
+import com.bank.transaction_service.dto.AccountBalanceResponse;
+import com.bank.transaction_service.dto.TransferResponse;
+import com.bank.transaction_service.service.AccountRouter;
+import com.bank.transaction_service.service.TransactionService;
+import com.bank.transaction_service.service.VelocityLimitService;
+import com.bank.transaction_service.service.VelocityLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Builds the services under test on top of {@link Stubs}, wired the same way
+ * Spring wires them in the running applications.
+ */
+public final class Services {
+
+    private Services() {
+    }
+
+    public static ObjectMapper objectMapper() {
+        return JsonMapper.builder().findAndAddModules().build();
+    }
+
+    /**
+     * A TransactionService whose repository keeps only the given rows (for lookups)
+     * and whose account-service client answers every call immediately.
+     */
+    public static TransactionService transactionService(Map<String, Transaction> stored) {
+        AtomicLong ids = new AtomicLong();
+        TransactionRepository transactionRepository = Stubs.of(TransactionRepository.class, Map.of(
+                "save", args -> assignId((Transaction) args[0], ids),
+                "saveAll", args -> StreamSupport.stream(((Iterable<?>) args[0]).spliterator(), false)
+                        .map(t -> assignId((Transaction) t, ids))
+                        .toList(),
+                "findByTransactionId", args -> Optional.ofNullable(stored.get((String) args[0])),
+                "findByIdempotencyKey", args -> Optional.empty(),
+                "findByIdempotencyKeyIn", args -> List.of()));
+
+        AccountServiceClient accountServiceClient = Stubs.of(AccountServiceClient.class, Map.of(
+                "updateBalance", args -> AccountBalanceResponse.builder().build(),
+                "updateBalanceBinary", args -> AccountBalanceResponse.builder().build(),
+                "transfer", args -> TransferResponse.builder().build()));
+
+        com.bank.transaction_service.service.OutboxService outboxService =
+                new com.bank.transaction_service.service.OutboxService(
+                        Stubs.of(com.bank.transaction_service.Repository.OutboxEventRepository.class,
+                                Map.of("save", args -> args[0])),
+                        objectMapper());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.initialize();
+
+        return new TransactionService(
+                transactionRepository,
+                accountServiceClient,
+                outboxService,
+                executor,
+                new TransactionTemplate(Stubs.noOpTransactionManager()),
+                new IdGenerator(1),
+                new com.bank.transaction_service.service.DailySummaryService(
+                        Stubs.of(com.bank.transaction_service.Repository.DailyAccountSummaryRepository.class,
+                                Map.of("upsert", args -> null)),
+                        transactionRepository),
+                Stubs.of(com.bank.transaction_service.Repository.TransferSagaRepository.class,
+                        Map.of("save", args -> args[0])),
+                event -> { },
+                velocityLimitService(transactionRepository));
+    }
+
+    /**
+     * Velocity limits held in memory with the default limits, every account owned
+     * by this instance (no registry).
+     */
+    private static VelocityLimitService velocityLimitService(TransactionRepository transactionRepository) {
+        VelocityLimiter limiter = new VelocityLimiter(transactionRepository, null, Stubs.noOpTransactionManager());
+        Stubs.setField(limiter, "hourlyCount", 0L);
+        Stubs.setField(limiter, "hourlyAmount", BigDecimal.ZERO);
+        Stubs.setField(limiter, "dailyCount", 0L);
+        Stubs.setField(limiter, "dailyAmount", BigDecimal.ZERO);
+        return new VelocityLimitService(
+                limiter,
+                new AccountRouter(Stubs.of(DiscoveryClient.class, Map.of()), null),
+                Stubs.of(VelocityPeerClient.class, Map.of()),
+                new SimpleMeterRegistry(),
+                "");
+    }
+
+    /**
+     * An AccountService backed by the given accounts, held in memory.
+     */
+    public static AccountService accountService(Map<String, Account> accounts) {
+        AccountRepository accountRepository = Stubs.of(AccountRepository.class, Map.of(
+                "findByAccountNumber", args -> Optional.ofNullable(accounts.get((String) args[0])),
+                "findByAccountNumberForUpdate", args -> Optional.ofNullable(accounts.get((String) args[0])),
+                "save", args -> args[0],
+                "saveAll", args -> args[0]));
+
+        com.bank.account_service.service.OutboxService outboxService =
+                new com.bank.account_service.service.OutboxService(
+                        Stubs.of(com.bank.account_service.repository.OutboxEventRepository.class,
+                                Map.of("save", args -> args[0])),
+                        objectMapper());
+
+        IdGenerator idGenerator = new IdGenerator(1);
+        // Ledger mode stays off: the benchmark measures the row-update path
+        com.bank.account_service.service.LedgerService ledgerService =
+                new com.bank.account_service.service.LedgerService(
+                        Stubs.of(com.bank.account_service.repository.LedgerEntryRepository.class, Map.of()),
+                        idGenerator,
+                        new TransactionTemplate(Stubs.noOpTransactionManager()),
+                        new SimpleMeterRegistry());
+
+        return new AccountService(
+                accountRepository,
+                outboxService,
+                idGenerator,
+                Stubs.of(com.bank.account_service.repository.ProcessedTransferRepository.class, Map.of(
+                        "findById", args -> Optional.empty(),
+                        "save", args -> args[0])),
+                Stubs.of(com.bank.account_service.repository.ProcessedMovementRepository.class, Map.of(
+                        "findAllById", args -> List.of(),
+                        "saveAll", args -> args[0])),
+                ledgerService,
+                // No account is sharded until the refresh job has run, which it never does here
+                new com.bank.account_service.service.AccountShardService(accountRepository,
+                        Stubs.of(com.bank.account_service.repository.AccountShardRepository.class, Map.of())));
+    }
+
+    private static Transaction assignId(Transaction transaction, AtomicLong ids) {
+        if (transaction.getId() == null) {
+            transaction.setId(ids.incrementAndGet());
+            // What @PrePersist does on a real save
+            transaction.setTransactionDate(LocalDateTime.now());
+        }
+        return transaction;
+    }
+}
@@ -3,13 +3,17 @@ package com.bank.notification;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.scheduling.annotation.EnableAsync;
 
+import com.bank.common.config.VirtualThreadMonitor;
+
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableKafka
 @EnableAsync
+@Import(VirtualThreadMonitor.class)
 public class NotificationServiceApplication {
 
 	public static void main(String[] args) {
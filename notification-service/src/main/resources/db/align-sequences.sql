@@ -0,0 +1,6 @@
+-- Ids come from pooled sequences (allocationSize 50) instead of IDENTITY columns.
+-- Rows inserted before the switch can be ahead of a freshly created sequence, so
+-- move it past them. A no-op once the sequence is ahead, which it then stays.
+
+SELECT setval('notifications_seq', (SELECT MAX(id) FROM notifications) + 50)
+WHERE (SELECT MAX(id) FROM notifications) >= (SELECT last_value FROM notifications_seq);
@@ -9,6 +9,12 @@ Write-Host ""
 # Get current directory
 $baseDir = Get-Location
 
+# The services depend on the shared library, so install it into the local Maven repository first
+Write-Host "Installing bank-common..." -ForegroundColor Cyan
+Push-Location "$baseDir\bank-common"
+mvn -q install -DskipTests
+Pop-Location
+
 # Define services in startup order
 $services = @(
     @{Name="Discovery Service"; Path="discovery-service"; Port=8761},
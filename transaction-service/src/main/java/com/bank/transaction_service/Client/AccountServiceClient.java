@@ -1,6 +1,16 @@
 package com.bank.transaction_service.Client;
 
+import java.util.List;
+
+import com.bank.common.config.BalanceWireFormat;
+import com.bank.transaction_service.dto.AccountBalanceResponse;
+import com.bank.transaction_service.dto.BalanceMovementResult;
 import com.bank.transaction_service.dto.BalanceUpdateRequest;
+import com.bank.transaction_service.dto.BatchBalanceUpdateRequest;
+import com.bank.transaction_service.dto.TransferRequest;
+import com.bank.transaction_service.dto.TransferResponse;
+
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
@@ -8,5 +18,26 @@ import org.springframework.web.bind.annotation.*;
 public interface AccountServiceClient {
     
     @PutMapping("/api/accounts/{accountNumber}/balance")
-    void updateBalance(@PathVariable String accountNumber, @RequestBody BalanceUpdateRequest request);
-}
\ No newline at end of file
+    AccountBalanceResponse updateBalance(@PathVariable String accountNumber, @RequestBody BalanceUpdateRequest request);
+    
+    // Same endpoint in the compact binary format; see BalanceWireFormat
+    @PutMapping(value = "/api/accounts/{accountNumber}/balance",
+                consumes = BalanceWireFormat.MEDIA_TYPE_VALUE, produces = BalanceWireFormat.MEDIA_TYPE_VALUE)
+    AccountBalanceResponse updateBalanceBinary(@PathVariable String accountNumber, @RequestBody BalanceUpdateRequest request);
+    
+    @PostMapping("/api/accounts/transfers")
+    TransferResponse transfer(@RequestBody TransferRequest request);
+    
+    @PostMapping("/api/accounts/transfers/cancel")
+    TransferResponse cancelTransfer(@RequestBody TransferRequest request);
+    
+    @PostMapping("/api/accounts/balances/batch")
+    List<BalanceMovementResult> applyBalanceMovements(@RequestBody BatchBalanceUpdateRequest request);
+    
+    @GetMapping("/api/accounts/balances/partitions")
+    List<String> getBalancePartitions(@RequestParam("count") int count);
+    
+    // NDJSON of AccountBalanceSnapshot in account number byte order; the caller reads and closes the body
+    @GetMapping("/api/accounts/balances/export")
+    Response exportBalances(@RequestParam("from") String from, @RequestParam(value = "to", required = false) String to);
+}
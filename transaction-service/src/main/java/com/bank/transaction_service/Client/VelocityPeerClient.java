@@ -0,0 +1,24 @@
+package com.bank.transaction_service.Client;
+
+import java.net.URI;
+
+import com.bank.transaction_service.dto.VelocityDecision;
+import com.bank.transaction_service.dto.VelocityReservation;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+/**
+ * Velocity limit calls to the transaction-service instance that owns an account.
+ * The instance is chosen per call (the URI argument), not by the load balancer.
+ * Every call carries the peer token the owner checks.
+ */
+@FeignClient(name = "velocity-peer", url = "http://owner-instance", configuration = VelocityPeerClientConfig.class)
+public interface VelocityPeerClient {
+    
+    @PostMapping("/internal/velocity/reserve")
+    VelocityDecision reserve(URI instance, @RequestBody VelocityReservation reservation);
+    
+    @PostMapping("/internal/velocity/release")
+    void release(URI instance, @RequestBody VelocityReservation reservation);
+}
@@ -0,0 +1,20 @@
+package com.bank.transaction_service.Client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+import com.bank.transaction_service.Controller.VelocityLimitController;
+
+import feign.RequestInterceptor;
+
+/**
+ * Feign configuration for {@link VelocityPeerClient} only (deliberately not a
+ * {@code @Configuration}, which would apply it to every client).
+ */
+public class VelocityPeerClientConfig {
+    
+    @Bean
+    RequestInterceptor peerTokenInterceptor(@Value("${transaction.velocity.peer-token:}") String peerToken) {
+        return template -> template.header(VelocityLimitController.PEER_TOKEN_HEADER, peerToken);
+    }
+}
@@ -1,22 +1,44 @@
 package com.bank.transaction_service.Controller;
+import java.math.BigDecimal;
+import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.dto.AccountBalanceResponse;
+import com.bank.transaction_service.dto.BatchTransactionRequest;
+import com.bank.transaction_service.dto.BatchTransactionResponse;
+import com.bank.transaction_service.dto.ImportJobResponse;
+import com.bank.transaction_service.dto.ImportRequest;
+import com.bank.transaction_service.dto.ReconciliationRunResponse;
+import com.bank.transaction_service.dto.StatementFormat;
+import com.bank.transaction_service.dto.TransactionHistoryResponse;
 import com.bank.transaction_service.dto.TransactionRequest;
 import com.bank.transaction_service.dto.TransactionResponse;
 import com.bank.transaction_service.dto.TransactionStatementResponse;
+import com.bank.transaction_service.service.AsyncTransactionProcessor;
+import com.bank.transaction_service.service.BulkImportService;
+import com.bank.transaction_service.service.IdempotencyService;
+import com.bank.transaction_service.service.ReconciliationService;
+import com.bank.transaction_service.service.StatementExportService;
+import com.bank.transaction_service.service.TransactionLookupCache;
+import com.bank.transaction_service.service.TransactionSearchIndex;
 import com.bank.transaction_service.service.TransactionService;
 
 import jakarta.validation.Valid;
@@ -28,17 +50,83 @@ import lombok.RequiredArgsConstructor;
 public class TransactionController {
     
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
+    private final AsyncTransactionProcessor asyncTransactionProcessor;
+    private final StatementExportService statementExportService;
+    private final BulkImportService bulkImportService;
+    private final TransactionSearchIndex transactionSearchIndex;
+    private final TransactionLookupCache transactionLookupCache;
+    private final ReconciliationService reconciliationService;
     
     @PostMapping
     public ResponseEntity<TransactionResponse> createTransaction(
-            @Valid @RequestBody TransactionRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(transactionService.processTransaction(request));
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        TransactionResponse response = idempotencyService.submit(request, idempotencyKey);
+        // Transfers are settled by a saga after the request returns
+        return ResponseEntity.status(response.getStatus() == TransactionStatus.PENDING
+                        ? HttpStatus.ACCEPTED : HttpStatus.CREATED)
+                .body(response);
+    }
+    
+    /**
+     * Accepts the transaction and returns 202 immediately; poll the Location URL
+     * (or consume transaction-events) for the outcome.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<TransactionResponse> submitTransaction(
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        TransactionResponse accepted = asyncTransactionProcessor.accept(request, idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/transactions/" + accepted.getTransactionId()))
+                .body(accepted);
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTransactionResponse> createTransactions(
+            @Valid @RequestBody BatchTransactionRequest request) {
+        return ResponseEntity.ok(transactionService.processBatch(request.getTransactions()));
+    }
+    
+    @PostMapping("/imports")
+    public ResponseEntity<ImportJobResponse> startImport(@Valid @RequestBody ImportRequest request) {
+        ImportJobResponse job = bulkImportService.startImport(request.getFileName());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/transactions/imports/" + job.getId()))
+                .body(job);
+    }
+    
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<ImportJobResponse> getImport(@PathVariable Long id) {
+        return ResponseEntity.ok(bulkImportService.getImport(id));
+    }
+    
+    @PostMapping("/reconciliations")
+    public ResponseEntity<ReconciliationRunResponse> startReconciliation() {
+        ReconciliationRunResponse run = reconciliationService.startReconciliation();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/transactions/reconciliations/" + run.getId()))
+                .body(run);
+    }
+    
+    @GetMapping("/reconciliations/{id}")
+    public ResponseEntity<ReconciliationRunResponse> getReconciliation(@PathVariable Long id) {
+        return ResponseEntity.ok(reconciliationService.getReconciliation(id));
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<TransactionResponse>> searchTransactions(
+            @RequestParam String q,
+            @RequestParam(required = false) String accountNumber,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<String> transactionIds = transactionSearchIndex.search(q, accountNumber, limit);
+        return ResponseEntity.ok(transactionService.getTransactions(transactionIds));
     }
     
     @GetMapping("/{transactionId}")
     public ResponseEntity<TransactionResponse> getTransaction(@PathVariable String transactionId) {
-        return ResponseEntity.ok(transactionService.getTransaction(transactionId));
+        return ResponseEntity.ok(transactionLookupCache.getTransaction(transactionId));
     }
     
     @GetMapping("/account/{accountNumber}")
@@ -47,6 +135,14 @@ public class TransactionController {
             Pageable pageable) {
         return ResponseEntity.ok(transactionService.getAccountTransactions(accountNumber, pageable));
     }
+    
+    @GetMapping("/account/{accountNumber}/history")
+    public ResponseEntity<TransactionHistoryResponse> getAccountHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(transactionService.getAccountHistory(accountNumber, cursor, size));
+    }
   
     @GetMapping("/statement/{accountNumber}")
     public ResponseEntity<TransactionStatementResponse> getStatement(
@@ -55,4 +151,40 @@ public class TransactionController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         return ResponseEntity.ok(transactionService.getStatement(accountNumber, startDate, endDate));
     }
+    
+    @GetMapping("/statement/{accountNumber}/summary")
+    public ResponseEntity<TransactionStatementResponse> getStatementSummary(
+            @PathVariable String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ResponseEntity.ok(transactionService.getStatementSummary(accountNumber, startDate, endDate));
+    }
+    
+    @GetMapping("/account/{accountNumber}/balance")
+    public ResponseEntity<AccountBalanceResponse> getBalanceAsOf(
+            @PathVariable String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        BigDecimal balance = transactionService.getBalanceAsOf(accountNumber, asOf);
+        if (balance == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(AccountBalanceResponse.builder()
+                .accountNumber(accountNumber)
+                .balance(balance)
+                .build());
+    }
+    
+    @GetMapping("/statement/{accountNumber}/export")
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @PathVariable String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        StatementFormat statementFormat = StatementFormat.from(format);
+        StreamingResponseBody body = out -> statementExportService
+                .exportStatement(accountNumber, startDate, endDate, statementFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(statementFormat.getContentType()))
+                .body(body);
+    }
 }
@@ -0,0 +1,53 @@
+package com.bank.transaction_service.Controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bank.transaction_service.dto.VelocityDecision;
+import com.bank.transaction_service.dto.VelocityReservation;
+import com.bank.transaction_service.service.VelocityLimitService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Velocity limit checks forwarded by other instances for accounts this one owns.
+ * Always answered from local windows, so a request is never forwarded twice.
+ * Only peers may call these: a request without the peer token is refused.
+ */
+@RestController
+@RequestMapping("/internal/velocity")
+@RequiredArgsConstructor
+public class VelocityLimitController {
+    
+    public static final String PEER_TOKEN_HEADER = "X-Peer-Token";
+    
+    private final VelocityLimitService velocityLimitService;
+    
+    @PostMapping("/reserve")
+    public ResponseEntity<VelocityDecision> reserve(@RequestHeader(name = PEER_TOKEN_HEADER, required = false) String peerToken,
+                                                    @RequestBody VelocityReservation reservation) {
+        if (!velocityLimitService.isPeer(peerToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        String rejection = velocityLimitService.reserveLocally(reservation);
+        return ResponseEntity.ok(VelocityDecision.builder()
+                .allowed(rejection == null)
+                .reason(rejection)
+                .build());
+    }
+    
+    @PostMapping("/release")
+    public ResponseEntity<Void> release(@RequestHeader(name = PEER_TOKEN_HEADER, required = false) String peerToken,
+                                        @RequestBody VelocityReservation reservation) {
+        if (!velocityLimitService.isPeer(peerToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        velocityLimitService.releaseLocally(reservation);
+        return ResponseEntity.noContent().build();
+    }
+}
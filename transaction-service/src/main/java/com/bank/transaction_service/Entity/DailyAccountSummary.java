@@ -0,0 +1,71 @@
+package com.bank.transaction_service.Entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-account, per-day totals of completed transactions, maintained incrementally as
+ * transactions complete, so long-range statement totals read one row per day instead
+ * of every transaction.
+ */
+@Entity
+@Table(name = "daily_account_summaries", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_summary_account_date", columnNames = {"account_number", "summary_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyAccountSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+    
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+    
+    @Column(nullable = false)
+    private int transactionCount;
+    
+    @Column(nullable = false)
+    private BigDecimal totalCredits;
+    
+    @Column(nullable = false)
+    private BigDecimal totalDebits;
+    
+    // Running balance after the day's latest transaction that recorded one
+    private BigDecimal closingBalance;
+    
+    // Transaction the closing balance was taken from, and when its balance was recorded;
+    // the latter decides which balance is the day's last
+    private String lastTransactionId;
+    
+    @Column(name = "last_balance_recorded_at")
+    private LocalDateTime lastBalanceRecordedAt;
+    
+    // False on rows written while failed transactions were still counted; those are
+    // recounted once at startup (db/daily-summary-recount.sql)
+    @Column(name = "completed_only", columnDefinition = "boolean default false not null")
+    private boolean completedOnly;
+    
+    // False on rows written while transfers counted only on their sender's side; those
+    // are recounted once at startup (db/daily-summary-incoming.sql)
+    @Column(name = "with_incoming", columnDefinition = "boolean default false not null")
+    private boolean withIncoming;
+}
@@ -0,0 +1,52 @@
+package com.bank.transaction_service.Entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An account whose balance does not match its opening balance and credited interest
+ * plus the net of its completed transactions. accountBalance is null when the ledger
+ * has transactions for an account the account service does not know.
+ */
+@Entity
+@Table(name = "reconciliation_discrepancies", indexes = {
+    @Index(name = "idx_discrepancy_run_account", columnList = "runId, accountNumber")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationDiscrepancy {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reconciliation_discrepancies_seq")
+    @SequenceGenerator(name = "reconciliation_discrepancies_seq",
+                       sequenceName = "reconciliation_discrepancies_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long runId;
+    
+    @Column(nullable = false)
+    private String accountNumber;
+    
+    private BigDecimal accountBalance;
+    
+    @Column(nullable = false)
+    private BigDecimal expectedBalance;
+    
+    // accountBalance minus expectedBalance, a missing balance counting as zero
+    @Column(nullable = false)
+    private BigDecimal difference;
+}
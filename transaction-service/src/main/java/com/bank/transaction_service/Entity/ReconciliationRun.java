@@ -0,0 +1,56 @@
+package com.bank.transaction_service.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One end-of-day reconciliation of account balances against the ledger. Only the
+ * mismatches are kept, as {@link ReconciliationDiscrepancy} rows of the run.
+ */
+@Entity
+@Table(name = "reconciliation_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReconciliationStatus status;
+    
+    private int partitions;
+    
+    // Account numbers seen on either side
+    private long accountsCompared;
+    private long discrepancies;
+    
+    private long elapsedMillis;
+    
+    @Column(length = 1000)
+    private String lastError;
+    
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        startedAt = LocalDateTime.now();
+    }
+}
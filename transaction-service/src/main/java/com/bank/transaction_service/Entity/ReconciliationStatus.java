@@ -0,0 +1,5 @@
+package com.bank.transaction_service.Entity;
+
+public enum ReconciliationStatus {
+    RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,5 @@
+package com.bank.transaction_service.Entity;
+
+public enum SagaState {
+    TRANSFERRING, COMPENSATING, COMPLETED, FAILED, COMPENSATED, COMPENSATION_FAILED
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,7 +22,10 @@ import lombok.NoArgsConstructor;
 @Entity
 @Table(name = "transactions", indexes = {
     @Index(name = "idx_account_number", columnList = "accountNumber"),
-    @Index(name = "idx_transaction_date", columnList = "transactionDate")
+    @Index(name = "idx_transaction_date", columnList = "transactionDate"),
+    @Index(name = "idx_account_date_id", columnList = "accountNumber, transactionDate, id"),
+    @Index(name = "idx_to_account_date_id", columnList = "toAccountNumber, transactionDate, id"),
+    @Index(name = "idx_status_date", columnList = "status, transactionDate")
 })
 @Data
 @NoArgsConstructor
@@ -29,7 +33,8 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -46,8 +51,15 @@ public class Transaction {
     @Column(nullable = false)
     private BigDecimal amount;
     
+    // Balance of accountNumber, and for transfers of toAccountNumber, right after this
+    // transaction was applied, and when account-service reported them
     private BigDecimal balanceAfter;
     
+    private BigDecimal toBalanceAfter;
+    
+    @Column(name = "balance_recorded_at")
+    private LocalDateTime balanceRecordedAt;
+    
     @Enumerated(EnumType.STRING)
     private TransactionStatus status;
     
@@ -55,6 +67,10 @@ public class Transaction {
     
     private String referenceNumber;
     
+    // Idempotency-Key header, or the reference number when no header was sent
+    @Column(unique = true)
+    private String idempotencyKey;
+    
     @Column(name = "transaction_date")
     private LocalDateTime transactionDate;
     
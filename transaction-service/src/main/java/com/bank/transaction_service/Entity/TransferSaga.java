@@ -0,0 +1,62 @@
+package com.bank.transaction_service.Entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a transfer through account-service. TRANSFERRING retries the transfer
+ * with backoff; once attempts run out it moves to COMPENSATING, which cancels the
+ * transfer (reversing it if it did land) until account-service confirms.
+ */
+@Entity
+@Table(name = "transfer_sagas", indexes = {
+    @Index(name = "idx_saga_state_next_attempt", columnList = "state, nextAttemptAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferSaga {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "transaction_id", unique = true, nullable = false)
+    private String transactionId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SagaState state;
+    
+    // Attempts in the current state
+    private int attempts;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(length = 1000)
+    private String lastError;
+    
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
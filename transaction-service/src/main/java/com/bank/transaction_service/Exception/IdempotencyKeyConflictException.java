@@ -0,0 +1,7 @@
+package com.bank.transaction_service.Exception;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
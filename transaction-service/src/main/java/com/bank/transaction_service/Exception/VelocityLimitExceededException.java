@@ -0,0 +1,7 @@
+package com.bank.transaction_service.Exception;
+
+public class VelocityLimitExceededException extends RuntimeException {
+    public VelocityLimitExceededException(String message) {
+        super(message);
+    }
+}
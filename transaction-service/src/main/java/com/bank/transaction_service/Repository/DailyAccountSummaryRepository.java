@@ -0,0 +1,51 @@
+package com.bank.transaction_service.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.bank.transaction_service.Entity.DailyAccountSummary;
+
+@Repository
+public interface DailyAccountSummaryRepository extends JpaRepository<DailyAccountSummary, Long> {
+    
+    List<DailyAccountSummary> findByAccountNumberAndSummaryDateBetween(
+        String accountNumber, LocalDate from, LocalDate to);
+    
+    // Adds to the day's row in one statement, so concurrent writers never lose an increment.
+    // The closing balance only moves forward: it is kept from whichever transaction recorded
+    // its balance last, by balance_recorded_at as the running-balance queries order them.
+    @Modifying
+    @Query(value = "INSERT INTO daily_account_summaries (account_number, summary_date, transaction_count, " +
+                   "total_credits, total_debits, closing_balance, last_balance_recorded_at, last_transaction_id, " +
+                   "completed_only, with_incoming) " +
+                   "VALUES (:accountNumber, :summaryDate, :count, :credits, :debits, " +
+                   "CAST(:closingBalance AS numeric), CAST(:balanceRecordedAt AS timestamp), " +
+                   "CAST(:lastTransactionId AS varchar), true, true) " +
+                   "ON CONFLICT (account_number, summary_date) DO UPDATE SET " +
+                   "transaction_count = daily_account_summaries.transaction_count + EXCLUDED.transaction_count, " +
+                   "total_credits = daily_account_summaries.total_credits + EXCLUDED.total_credits, " +
+                   "total_debits = daily_account_summaries.total_debits + EXCLUDED.total_debits, " +
+                   "closing_balance = CASE WHEN " + LATER_BALANCE +
+                   " THEN EXCLUDED.closing_balance ELSE daily_account_summaries.closing_balance END, " +
+                   "last_transaction_id = CASE WHEN " + LATER_BALANCE +
+                   " THEN EXCLUDED.last_transaction_id ELSE daily_account_summaries.last_transaction_id END, " +
+                   "last_balance_recorded_at = CASE WHEN " + LATER_BALANCE +
+                   " THEN EXCLUDED.last_balance_recorded_at ELSE daily_account_summaries.last_balance_recorded_at END",
+           nativeQuery = true)
+    void upsert(String accountNumber, LocalDate summaryDate, int count, BigDecimal credits,
+                BigDecimal debits, BigDecimal closingBalance, LocalDateTime balanceRecordedAt,
+                String lastTransactionId);
+    
+    // Rows written before last_balance_recorded_at existed have none; any recorded balance
+    // is later than theirs, since the day's earlier balances were recorded before it
+    String LATER_BALANCE = "EXCLUDED.last_balance_recorded_at IS NOT NULL AND " +
+                           "EXCLUDED.last_balance_recorded_at >= " +
+                           "COALESCE(daily_account_summaries.last_balance_recorded_at, '-infinity'::timestamp)";
+}
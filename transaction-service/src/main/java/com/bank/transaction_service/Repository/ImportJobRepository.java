@@ -0,0 +1,18 @@
+package com.bank.transaction_service.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.bank.transaction_service.Entity.ImportJob;
+import com.bank.transaction_service.Entity.ImportStatus;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    
+    List<ImportJob> findByStatus(ImportStatus status);
+    
+    Optional<ImportJob> findFirstByFileNameOrderByIdDesc(String fileName);
+}
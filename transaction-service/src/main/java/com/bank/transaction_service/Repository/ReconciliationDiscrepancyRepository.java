@@ -0,0 +1,10 @@
+package com.bank.transaction_service.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.bank.transaction_service.Entity.ReconciliationDiscrepancy;
+
+@Repository
+public interface ReconciliationDiscrepancyRepository extends JpaRepository<ReconciliationDiscrepancy, Long> {
+}
@@ -0,0 +1,15 @@
+package com.bank.transaction_service.Repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.bank.transaction_service.Entity.ReconciliationRun;
+import com.bank.transaction_service.Entity.ReconciliationStatus;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+    
+    List<ReconciliationRun> findByStatus(ReconciliationStatus status);
+}
@@ -1,26 +1,181 @@
 package com.bank.transaction_service.Repository;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.bank.transaction_service.Entity.Transaction;
 import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByTransactionId(String transactionId);
     
+    // Transaction IDs are time-ordered, so this also locks in creation order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.transactionId IN :transactionIds ORDER BY t.transactionId")
+    List<Transaction> findAllByTransactionIdInForUpdate(Collection<String> transactionIds);
+    
+    // Transfers with a saga are left to the saga, which applies them under their own reference
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status " +
+           "AND t.transactionDate < :before " +
+           "AND NOT EXISTS (SELECT s FROM TransferSaga s WHERE s.transactionId = t.transactionId) " +
+           "ORDER BY t.transactionDate")
+    List<Transaction> findByStatusBefore(
+        TransactionStatus status, LocalDateTime before, Pageable pageable);
+    
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+    
+    List<Transaction> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+    
     Page<Transaction> findByAccountNumber(String accountNumber, Pageable pageable);
     
+    // Keyset pagination over (transactionDate, id): no OFFSET and no count query
+    @Query("SELECT t FROM Transaction t WHERE t.accountNumber = :accountNumber " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findHistory(String accountNumber, Pageable pageable);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.accountNumber = :accountNumber " +
+           "AND (t.transactionDate < :transactionDate OR (t.transactionDate = :transactionDate AND t.id < :id)) " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findHistoryBefore(
+        String accountNumber, LocalDateTime transactionDate, Long id, Pageable pageable);
+    
     List<Transaction> findByAccountNumberAndTransactionDateBetween(
         String accountNumber, LocalDateTime start, LocalDateTime end);
     
+    // Statement rows: the account's own transactions and the transfers it received
+    @Query("SELECT t FROM Transaction t " +
+           "WHERE (t.accountNumber = :accountNumber OR t.toAccountNumber = :accountNumber) " +
+           "AND t.transactionDate BETWEEN :start AND :end ORDER BY t.transactionDate, t.id")
+    List<Transaction> findStatementRows(String accountNumber, LocalDateTime start, LocalDateTime end);
+    
+    // As findStatementRows, half-open [from, to), for the leading partial day of a rollup-backed statement
+    @Query("SELECT t FROM Transaction t " +
+           "WHERE (t.accountNumber = :accountNumber OR t.toAccountNumber = :accountNumber) " +
+           "AND t.transactionDate >= :from AND t.transactionDate < :to")
+    List<Transaction> findInRange(String accountNumber, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Latest running balance of the account recorded strictly before the instant, from
+     * either side of a transaction (a transfer's recipient included), in the order the
+     * balances were applied. Each half is one seek on its partial index.
+     */
+    @Query(value = """
+            SELECT balance FROM (
+                (SELECT balance_after AS balance, balance_recorded_at, id FROM transactions
+                 WHERE account_number = :accountNumber AND balance_after IS NOT NULL
+                   AND balance_recorded_at < :instant
+                 ORDER BY balance_recorded_at DESC, id DESC LIMIT 1)
+                UNION ALL
+                (SELECT to_balance_after, balance_recorded_at, id FROM transactions
+                 WHERE to_account_number = :accountNumber AND to_balance_after IS NOT NULL
+                   AND balance_recorded_at < :instant
+                 ORDER BY balance_recorded_at DESC, id DESC LIMIT 1)
+            ) latest
+            ORDER BY balance_recorded_at DESC, id DESC LIMIT 1
+            """, nativeQuery = true)
+    Optional<BigDecimal> findBalanceBefore(String accountNumber, LocalDateTime instant);
+    
+    // As findBalanceBefore, at or before the instant
+    @Query(value = """
+            SELECT balance FROM (
+                (SELECT balance_after AS balance, balance_recorded_at, id FROM transactions
+                 WHERE account_number = :accountNumber AND balance_after IS NOT NULL
+                   AND balance_recorded_at <= :instant
+                 ORDER BY balance_recorded_at DESC, id DESC LIMIT 1)
+                UNION ALL
+                (SELECT to_balance_after, balance_recorded_at, id FROM transactions
+                 WHERE to_account_number = :accountNumber AND to_balance_after IS NOT NULL
+                   AND balance_recorded_at <= :instant
+                 ORDER BY balance_recorded_at DESC, id DESC LIMIT 1)
+            ) latest
+            ORDER BY balance_recorded_at DESC, id DESC LIMIT 1
+            """, nativeQuery = true)
+    Optional<BigDecimal> findBalanceAtOrBefore(String accountNumber, LocalDateTime instant);
+    
+    // Forward-only cursor for statement exports; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT t FROM Transaction t " +
+           "WHERE (t.accountNumber = :accountNumber OR t.toAccountNumber = :accountNumber) " +
+           "AND t.transactionDate BETWEEN :start AND :end ORDER BY t.transactionDate, t.id")
+    Stream<Transaction> streamStatement(String accountNumber, LocalDateTime start, LocalDateTime end);
+    
+    // Search index catch-up; walks idx_status_date, must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.transactionDate >= :since " +
+           "ORDER BY t.transactionDate")
+    Stream<Transaction> streamByStatusSince(TransactionStatus status, LocalDateTime since);
+    
+    // Velocity window rebuild; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.type IN :types AND t.status IN :statuses " +
+           "AND t.transactionDate >= :since")
+    Stream<Transaction> streamByTypeAndStatusSince(Collection<TransactionType> types,
+                                                   Collection<TransactionStatus> statuses,
+                                                   LocalDateTime since);
+    
+    List<Transaction> findByTransactionIdIn(Collection<String> transactionIds);
+    
+    /**
+     * Net balance effect of completed transactions per account in [from, to), to = null
+     * for no upper bound, in byte order of the account number (the "C" collation, the
+     * order of String.compareTo). Both halves walk a byte-order index, so the sums come
+     * out of a streaming group-by without sorting. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query(value = """
+            SELECT account_number AS "accountNumber", SUM(delta) AS "net" FROM (
+                SELECT account_number COLLATE "C" AS account_number,
+                       CASE WHEN type = 'DEPOSIT' THEN amount ELSE -amount END AS delta
+                FROM transactions
+                WHERE status = 'COMPLETED' AND type IN ('DEPOSIT', 'WITHDRAWAL', 'TRANSFER')
+                  AND account_number COLLATE "C" >= :from
+                  AND (CAST(:to AS text) IS NULL OR account_number COLLATE "C" < CAST(:to AS text))
+                UNION ALL
+                SELECT to_account_number COLLATE "C", amount
+                FROM transactions
+                WHERE status = 'COMPLETED' AND type = 'TRANSFER'
+                  AND to_account_number COLLATE "C" >= :from
+                  AND (CAST(:to AS text) IS NULL OR to_account_number COLLATE "C" < CAST(:to AS text))
+            ) movements
+            GROUP BY account_number
+            ORDER BY account_number
+            """, nativeQuery = true)
+    Stream<LedgerNet> streamLedgerNets(String from, String to);
+    
+    interface LedgerNet {
+        String getAccountNumber();
+        
+        BigDecimal getNet();
+    }
+    
     @Query("SELECT t FROM Transaction t WHERE t.accountNumber = :accountNumber " +
            "AND t.status = :status ORDER BY t.transactionDate DESC")
     List<Transaction> findRecentTransactionsByStatus(
@@ -0,0 +1,30 @@
+package com.bank.transaction_service.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.bank.transaction_service.Entity.SagaState;
+import com.bank.transaction_service.Entity.TransferSaga;
+
+@Repository
+public interface TransferSagaRepository extends JpaRepository<TransferSaga, Long> {
+    
+    // SKIP LOCKED: a saga another worker is already driving is left to that worker
+    @Query(value = "SELECT * FROM transfer_sagas WHERE transaction_id = :transactionId FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    Optional<TransferSaga> lockByTransactionId(String transactionId);
+    
+    @Query("SELECT s.transactionId FROM TransferSaga s WHERE s.transactionId IN :transactionIds")
+    List<String> findTransactionIdsIn(Collection<String> transactionIds);
+    
+    @Query("SELECT s.transactionId FROM TransferSaga s WHERE s.state IN :states " +
+           "AND s.nextAttemptAt <= :now ORDER BY s.nextAttemptAt")
+    List<String> findDueTransactionIds(Collection<SagaState> states, LocalDateTime now, Pageable pageable);
+}
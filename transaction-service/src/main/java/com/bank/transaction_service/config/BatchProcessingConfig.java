@@ -0,0 +1,40 @@
+package com.bank.transaction_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BatchProcessingConfig {
+    
+    @Value("${transaction.batch.parallelism:4}")
+    private int parallelism;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    /**
+     * Runs batch chunks concurrently so that persisting one chunk overlaps
+     * with the account-service round trip of another.
+     */
+    @Bean
+    public AsyncTaskExecutor batchTransactionExecutor() {
+        if (virtualThreads) {
+            // Parallelism is still capped: each chunk holds a DB connection for its duration
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("txn-batch-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(parallelism);
+            return executor;
+        }
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("txn-batch-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,63 @@
+package com.bank.transaction_service.config;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import com.bank.common.config.BalanceWireFormat;
+import com.bank.transaction_service.dto.AccountBalanceResponse;
+import com.bank.transaction_service.dto.BalanceUpdateRequest;
+
+/**
+ * Client half of {@link BalanceWireFormat}: writes balance update requests and reads
+ * the resulting balance. Registered as a bean so the Feign encoder and decoder pick it
+ * up; it never handles this service's own endpoints.
+ */
+@Component
+public class BinaryBalanceMessageConverter extends AbstractHttpMessageConverter<Object> {
+    
+    public BinaryBalanceMessageConverter() {
+        super(BalanceWireFormat.MEDIA_TYPE);
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == BalanceUpdateRequest.class || clazz == AccountBalanceResponse.class;
+    }
+    
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == AccountBalanceResponse.class && canRead(mediaType) && mediaType != null;
+    }
+    
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return clazz == BalanceUpdateRequest.class && BalanceWireFormat.MEDIA_TYPE.equalsTypeAndSubtype(mediaType);
+    }
+    
+    @Override
+    protected Long getContentLength(Object request, MediaType contentType) {
+        return (long) BalanceWireFormat.REQUEST_LENGTH;
+    }
+    
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return AccountBalanceResponse.builder()
+                .balance(BalanceWireFormat.readBalance(new DataInputStream(inputMessage.getBody())))
+                .build();
+    }
+    
+    @Override
+    protected void writeInternal(Object request, HttpOutputMessage outputMessage) throws IOException {
+        BalanceUpdateRequest update = (BalanceUpdateRequest) request;
+        DataOutputStream out = new DataOutputStream(outputMessage.getBody());
+        BalanceWireFormat.writeRequest(update.getOperation(), update.getAmount(), out);
+        out.flush();
+    }
+}
@@ -0,0 +1,22 @@
+package com.bank.transaction_service.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the account service's balance export
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceSnapshot {
+    private String accountNumber;
+    private BigDecimal balance;
+    private BigDecimal openingBalance;
+    private BigDecimal interestCredited;
+}
@@ -0,0 +1,19 @@
+package com.bank.transaction_service.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceMovement {
+    private String reference;
+    private String debitAccountNumber;
+    private String creditAccountNumber;
+    private BigDecimal amount;
+}
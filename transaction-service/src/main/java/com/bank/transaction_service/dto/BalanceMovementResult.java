@@ -0,0 +1,21 @@
+package com.bank.transaction_service.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceMovementResult {
+    private String reference;
+    private boolean applied;
+    private String failureReason;
+    // Balances right after this movement, for the caller's running balance
+    private BigDecimal debitBalanceAfter;
+    private BigDecimal creditBalanceAfter;
+}
@@ -1,21 +1,17 @@
-/*
- * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
- * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
- */
-
 package com.bank.transaction_service.dto;
 
 import java.math.BigDecimal;
 
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class BalanceUpdateRequest {
-
-    public void setOperation(String credit) {
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    public void setAmount(BigDecimal amount) {
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
+    private BigDecimal amount;
+    private String operation; // CREDIT or DEBIT
 }
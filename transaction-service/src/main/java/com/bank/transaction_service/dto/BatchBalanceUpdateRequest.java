@@ -0,0 +1,16 @@
+package com.bank.transaction_service.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBalanceUpdateRequest {
+    private List<BalanceMovement> movements;
+}
@@ -0,0 +1,13 @@
+package com.bank.transaction_service.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class BatchTransactionRequest {
+    @NotEmpty
+    private List<@Valid TransactionRequest> transactions;
+}
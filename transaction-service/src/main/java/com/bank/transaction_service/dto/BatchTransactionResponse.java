@@ -0,0 +1,29 @@
+package com.bank.transaction_service.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransactionResponse {
+    
+    private int totalCount;
+    
+    private int successCount;
+    
+    private int failureCount;
+    
+    // Outcome unknown (account service timed out or failed); settled later by the sweeper
+    private int pendingCount;
+    
+    /**
+     * One entry per submitted transaction, in submission order
+     */
+    private List<TransactionResponse> results;
+}
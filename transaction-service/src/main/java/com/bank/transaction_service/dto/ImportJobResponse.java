@@ -0,0 +1,35 @@
+package com.bank.transaction_service.dto;
+
+import java.time.LocalDateTime;
+
+import com.bank.transaction_service.Entity.ImportStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+    private Long id;
+    private String fileName;
+    private ImportStatus status;
+    private long fileSize;
+    private long bytesProcessed;
+    private long rowsSucceeded;
+    private long rowsFailed;
+    private long rowsRejected;
+    private long rowsPending;
+    
+    /**
+     * Rows read per second of import time, rejected rows included
+     */
+    private double rowsPerSecond;
+    
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,20 @@
+package com.bank.transaction_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRequest {
+    
+    /**
+     * Name of a file in the import directory (transaction.import.directory)
+     */
+    @NotBlank
+    private String fileName;
+}
@@ -0,0 +1,32 @@
+package com.bank.transaction_service.dto;
+
+import java.time.LocalDateTime;
+
+import com.bank.transaction_service.Entity.ReconciliationStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRunResponse {
+    private Long id;
+    private ReconciliationStatus status;
+    private int partitions;
+    private long accountsCompared;
+    private long discrepancies;
+    
+    /**
+     * Accounts compared per second of run time
+     */
+    private double accountsPerSecond;
+    
+    private long elapsedMillis;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
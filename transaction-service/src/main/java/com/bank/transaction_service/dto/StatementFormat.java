@@ -0,0 +1,27 @@
+package com.bank.transaction_service.dto;
+
+import com.bank.transaction_service.Exception.InvalidTransactionException;
+
+public enum StatementFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+    
+    private final String contentType;
+    
+    StatementFormat(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public static StatementFormat from(String value) {
+        for (StatementFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidTransactionException("Unsupported statement format: " + value);
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.transaction_service.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryResponse {
+    
+    /**
+     * Transactions on this page, newest first
+     */
+    private List<TransactionResponse> transactions;
+    
+    /**
+     * Opaque token for the next page; null when there are no older transactions
+     */
+    private String nextCursor;
+}
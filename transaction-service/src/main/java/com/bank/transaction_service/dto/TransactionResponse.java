@@ -16,6 +16,7 @@ public class TransactionResponse {
     private String toAccountNumber;
     private TransactionType type;
     private BigDecimal amount;
+    private BigDecimal balanceAfter;
     private TransactionStatus status;
     private String description;
     private LocalDateTime transactionDate;
@@ -66,4 +66,11 @@ public class TransactionStatementResponse {
      * Net change in balance (deposits - withdrawals)
      */
     private BigDecimal netChange;
+    
+    /**
+     * Change in balance not explained by the period's transactions
+     * (closingBalance - openingBalance - netChange): interest credited by account-service,
+     * which records no transaction here. Null unless both balances are known.
+     */
+    private BigDecimal untrackedChange;
 }
@@ -0,0 +1,15 @@
+package com.bank.transaction_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VelocityDecision {
+    private boolean allowed;
+    private String reason;
+}
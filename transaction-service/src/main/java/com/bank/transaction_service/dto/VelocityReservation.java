@@ -0,0 +1,26 @@
+package com.bank.transaction_service.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A debit counted against, or taken back from, an account's velocity limits on the
+ * instance that owns the account.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VelocityReservation {
+    private String accountNumber;
+    private BigDecimal amount;
+    
+    /**
+     * Epoch milliseconds of the debit
+     */
+    private long at;
+}
@@ -0,0 +1,108 @@
+package com.bank.transaction_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.netflix.eureka.EurekaInstanceConfigBean;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Assigns every account to one transaction-service instance with a consistent-hash
+ * ring over the instances registered in Eureka (with virtual nodes, so accounts spread
+ * evenly and an instance joining or leaving only moves its share of them). Without a
+ * registry, or before this instance shows up in it, every account is local.
+ */
+@Component
+@Slf4j
+public class AccountRouter {
+    
+    private static final int VIRTUAL_NODES = 128;
+    
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<EurekaInstanceConfigBean> eurekaInstance;
+    
+    // Immutable once published; replaced as a whole when the membership changes
+    private volatile Ring ring = new Ring(List.of(), null);
+    
+    @Value("${spring.application.name:transaction-service}")
+    private String serviceId;
+    
+    public AccountRouter(DiscoveryClient discoveryClient, ObjectProvider<EurekaInstanceConfigBean> eurekaInstance) {
+        this.discoveryClient = discoveryClient;
+        this.eurekaInstance = eurekaInstance;
+    }
+    
+    /**
+     * The instance owning the account, or null if it is this one.
+     */
+    public ServiceInstance ownerOf(String accountNumber) {
+        return ring.ownerOf(accountNumber);
+    }
+    
+    /**
+     * Re-reads the registered instances. Returns true if the set of instances changed.
+     */
+    public boolean refresh() {
+        EurekaInstanceConfigBean self = eurekaInstance.getIfAvailable();
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceId).stream()
+                .sorted(Comparator.comparing(ServiceInstance::getInstanceId))
+                .toList();
+        Ring current = ring;
+        if (current.instanceIds.equals(instances.stream().map(ServiceInstance::getInstanceId).toList())) {
+            return false;
+        }
+        ring = new Ring(instances, self != null ? self.getInstanceId() : null);
+        log.info("Account ring now has {} instances", instances.size());
+        return true;
+    }
+    
+    private static final class Ring {
+        
+        private final List<String> instanceIds;
+        private final TreeMap<Long, ServiceInstance> nodes = new TreeMap<>();
+        private final boolean local;
+        
+        Ring(List<ServiceInstance> instances, String selfId) {
+            this.instanceIds = instances.stream().map(ServiceInstance::getInstanceId).toList();
+            // Route only once this instance is part of the ring; until then it cannot be an owner
+            this.local = selfId == null || !instanceIds.contains(selfId);
+            for (ServiceInstance instance : instances) {
+                boolean isSelf = instance.getInstanceId().equals(selfId);
+                for (int v = 0; v < VIRTUAL_NODES; v++) {
+                    // A null value marks this instance's own points
+                    nodes.put(hash(instance.getInstanceId() + "#" + v), isSelf ? null : instance);
+                }
+            }
+        }
+        
+        ServiceInstance ownerOf(String accountNumber) {
+            if (local || nodes.isEmpty()) {
+                return null;
+            }
+            Map.Entry<Long, ServiceInstance> owner = nodes.ceilingEntry(hash(accountNumber));
+            return (owner != null ? owner : nodes.firstEntry()).getValue();
+        }
+    }
+    
+    // 64-bit FNV-1a with a final avalanche, so similar account numbers land far apart
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
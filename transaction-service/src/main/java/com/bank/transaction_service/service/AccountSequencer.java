@@ -0,0 +1,102 @@
+package com.bank.transaction_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single-writer lanes for accepted transactions. Each source account hashes onto one
+ * lane, and each lane is drained by one thread, so transactions debiting the same
+ * account are applied in order and never compete with each other for that account's
+ * row lock. Everything queued on a lane when it wakes up is settled together in one
+ * account-service call, which takes each account's lock and writes its balance once.
+ */
+@Component
+@Slf4j
+public class AccountSequencer implements DisposableBean {
+    
+    private final TransactionService transactionService;
+    private final List<BlockingQueue<String>> lanes;
+    private final List<Thread> drainers;
+    private final int maxDrain;
+    
+    private final Counter overflowCounter;
+    private final DistributionSummary drainSize;
+    
+    public AccountSequencer(TransactionService transactionService,
+                            MeterRegistry meterRegistry,
+                            @Value("${transaction.sequencer.lanes:16}") int laneCount,
+                            @Value("${transaction.sequencer.lane-capacity:1000}") int laneCapacity,
+                            @Value("${transaction.sequencer.max-drain:200}") int maxDrain) {
+        this.transactionService = transactionService;
+        this.maxDrain = maxDrain;
+        this.lanes = new ArrayList<>(laneCount);
+        this.drainers = new ArrayList<>(laneCount);
+        
+        this.overflowCounter = meterRegistry.counter("transactions.sequencer.overflow");
+        this.drainSize = DistributionSummary.builder("transactions.sequencer.drain.size")
+                .description("Transactions settled per account-service call")
+                .register(meterRegistry);
+        
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<String> lane = new ArrayBlockingQueue<>(laneCapacity);
+            lanes.add(lane);
+            Gauge.builder("transactions.sequencer.lane.depth", lane, BlockingQueue::size)
+                    .tag("lane", String.valueOf(i))
+                    .description("Transactions waiting on this lane")
+                    .register(meterRegistry);
+            
+            Thread drainer = new Thread(() -> drain(lane), "txn-lane-" + i);
+            drainer.setDaemon(true);
+            drainer.start();
+            drainers.add(drainer);
+        }
+    }
+    
+    /**
+     * Queues a transaction on its account's lane. Returns false when the lane is full;
+     * the transaction then stays PENDING until it is re-submitted.
+     */
+    public boolean submit(String transactionId, String accountNumber) {
+        boolean queued = lanes.get(Math.floorMod(accountNumber.hashCode(), lanes.size())).offer(transactionId);
+        if (!queued) {
+            overflowCounter.increment();
+        }
+        return queued;
+    }
+    
+    private void drain(BlockingQueue<String> lane) {
+        List<String> drained = new ArrayList<>(maxDrain);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                drained.add(lane.take());
+                lane.drainTo(drained, maxDrain - 1);
+                drainSize.record(drained.size());
+                transactionService.completePendingTransactions(drained);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // The rows stay PENDING and will be re-submitted by the sweeper
+                log.error("Failed to settle {} transactions: {}", drained.size(), e.getMessage());
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        drainers.forEach(Thread::interrupt);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bank.transaction_service.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Repository.TransactionRepository;
+import com.bank.transaction_service.dto.TransactionRequest;
+import com.bank.transaction_service.dto.TransactionResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Accept-now, apply-later submission. Accepted transactions are committed as PENDING
+ * and handed to the {@link AccountSequencer}, whose bounded lanes absorb bursts at the
+ * front door and drain them at the rate account-service can take.
+ * <p>
+ * The PENDING rows are the durable queue: if a lane is full, or the instance dies,
+ * or account-service is down, the sweeper re-submits PENDING rows once they are older
+ * than transaction.async.retry-after-seconds.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AsyncTransactionProcessor {
+    
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final AccountSequencer accountSequencer;
+    
+    @Value("${transaction.async.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+    
+    @Value("${transaction.async.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+    
+    public TransactionResponse accept(TransactionRequest request, String idempotencyKey) {
+        String key = idempotencyKey != null && !idempotencyKey.isBlank()
+                ? idempotencyKey : request.getReferenceNumber();
+        if (key != null && !key.isBlank()) {
+            var previous = transactionService.findByIdempotencyKey(key);
+            if (previous.isPresent()) {
+                return previous.get();
+            }
+        }
+        
+        TransactionResponse accepted;
+        try {
+            accepted = transactionService.acceptTransaction(request, key);
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent duplicate; the winner's transaction is the answer
+            return transactionService.findByIdempotencyKey(key).orElseThrow(() -> e);
+        }
+        
+        if (!accountSequencer.submit(accepted.getTransactionId(), accepted.getAccountNumber())) {
+            log.debug("Lane full, transaction {} deferred to sweeper", accepted.getTransactionId());
+        }
+        return accepted;
+    }
+    
+    @Scheduled(fixedDelayString = "${transaction.async.sweep-interval-ms:10000}")
+    public void sweep() {
+        List<Transaction> stale = transactionRepository.findByStatusBefore(
+                TransactionStatus.PENDING,
+                LocalDateTime.now().minusSeconds(retryAfterSeconds),
+                PageRequest.of(0, sweepBatchSize));
+        if (!stale.isEmpty()) {
+            log.info("Re-submitting {} pending transactions", stale.size());
+            stale.forEach(t -> accountSequencer.submit(t.getTransactionId(), t.getAccountNumber()));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.bank.transaction_service.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.bank.transaction_service.Entity.ImportJob;
+import com.bank.transaction_service.Entity.ImportStatus;
+import com.bank.transaction_service.Exception.InvalidTransactionException;
+import com.bank.transaction_service.Exception.TransactionNotFoundException;
+import com.bank.transaction_service.Repository.ImportJobRepository;
+import com.bank.transaction_service.dto.BatchTransactionResponse;
+import com.bank.transaction_service.dto.ImportJobResponse;
+import com.bank.transaction_service.dto.TransactionRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk import of transaction files dropped in the import directory. The file is read
+ * through {@link TransactionCsvReader} and fed to {@link TransactionService#processBatch}
+ * a window of rows at a time, so rows go through the same chunked, parallel pipeline
+ * as the batch endpoint, velocity limits included (parallelism is
+ * transaction.batch.parallelism).
+ * <p>
+ * After each window commits, the job's checkpoint moves past it. An import interrupted
+ * by a crash is resumed from the checkpoint on startup; the window in flight at the time
+ * is replayed, which is harmless since every row carries a reference number.
+ */
+@Service
+@Slf4j
+public class BulkImportService implements DisposableBean {
+    
+    private static final int LOGGED_REJECTS_PER_WINDOW = 10;
+    
+    private final ImportJobRepository importJobRepository;
+    private final TransactionService transactionService;
+    private final Path importDirectory;
+    private final ThreadPoolTaskExecutor importExecutor;
+    private final Counter rowsImported;
+    private final Counter rowsRejected;
+    
+    @Value("${transaction.import.window-size:4000}")
+    private int windowSize;
+    
+    public BulkImportService(ImportJobRepository importJobRepository,
+                             TransactionService transactionService,
+                             MeterRegistry meterRegistry,
+                             @Value("${transaction.import.directory:imports}") String importDirectory) {
+        this.importJobRepository = importJobRepository;
+        this.transactionService = transactionService;
+        this.importDirectory = Path.of(importDirectory).toAbsolutePath().normalize();
+        
+        // One import at a time; each one already fans out over the batch executor
+        this.importExecutor = new ThreadPoolTaskExecutor();
+        importExecutor.setCorePoolSize(1);
+        importExecutor.setMaxPoolSize(1);
+        importExecutor.setThreadNamePrefix("txn-import-");
+        importExecutor.initialize();
+        
+        this.rowsImported = meterRegistry.counter("transactions.import.rows", "outcome", "imported");
+        this.rowsRejected = meterRegistry.counter("transactions.import.rows", "outcome", "rejected");
+    }
+    
+    /**
+     * Starts importing a file, or resumes it if an earlier import of the same file did
+     * not finish. A file that was already imported completely is not imported again.
+     */
+    public ImportJobResponse startImport(String fileName) {
+        Path file = importDirectory.resolve(fileName).normalize();
+        if (!file.startsWith(importDirectory) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new InvalidTransactionException("No readable file " + fileName + " in the import directory");
+        }
+        
+        ImportJob job = importJobRepository.findFirstByFileNameOrderByIdDesc(fileName).orElse(null);
+        if (job != null && job.getStatus() != ImportStatus.FAILED) {
+            return toResponse(job);
+        }
+        if (job == null) {
+            job = ImportJob.builder()
+                    .fileName(fileName)
+                    .build();
+        }
+        job.setStatus(ImportStatus.RUNNING);
+        job.setLastError(null);
+        job = importJobRepository.save(job);
+        
+        Long jobId = job.getId();
+        importExecutor.execute(() -> run(jobId));
+        return toResponse(job);
+    }
+    
+    public ImportJobResponse getImport(Long id) {
+        return importJobRepository.findById(id)
+                .map(this::toResponse)
+                .orElseThrow(() -> new TransactionNotFoundException("Import not found: " + id));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedImports() {
+        for (ImportJob job : importJobRepository.findByStatus(ImportStatus.RUNNING)) {
+            log.info("Resuming import {} of {} from byte {}", job.getId(), job.getFileName(), job.getCheckpointOffset());
+            importExecutor.execute(() -> run(job.getId()));
+        }
+    }
+    
+    private void run(Long jobId) {
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        String referencePrefix = "IMP" + job.getId() + "-";
+        long windowStarted = System.nanoTime();
+        
+        try (TransactionCsvReader reader = new TransactionCsvReader(importDirectory.resolve(job.getFileName()),
+                job.getCheckpointOffset(), job.getCheckpointLine())) {
+            job.setFileSize(reader.size());
+            
+            List<TransactionRequest> window = new ArrayList<>(windowSize);
+            int rejected = 0;
+            while (reader.next()) {
+                if (reader.lineNumber() == 1 && reader.isHeader()) {
+                    continue;
+                }
+                String reason = reader.validate();
+                if (reason != null) {
+                    if (rejected++ < LOGGED_REJECTS_PER_WINDOW) {
+                        log.warn("Import {} rejected line {}: {}", job.getId(), reader.lineNumber(), reason);
+                    }
+                    continue;
+                }
+                window.add(reader.toRequest(referencePrefix));
+                if (window.size() == windowSize) {
+                    commitWindow(job, window, rejected, reader, windowStarted);
+                    window.clear();
+                    rejected = 0;
+                    windowStarted = System.nanoTime();
+                }
+            }
+            commitWindow(job, window, rejected, reader, windowStarted);
+            
+            job.setStatus(ImportStatus.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            log.info("Import {} of {} completed: {} succeeded, {} failed, {} rejected, {} rows/s",
+                     job.getId(), job.getFileName(), job.getRowsSucceeded(), job.getRowsFailed(),
+                     job.getRowsRejected(), String.format("%.0f", rowsPerSecond(job)));
+        } catch (IOException | RuntimeException e) {
+            log.error("Import {} of {} failed at byte {}: {}",
+                      job.getId(), job.getFileName(), job.getCheckpointOffset(), e.getMessage());
+            job.setStatus(ImportStatus.FAILED);
+            job.setLastError(e.getMessage());
+        }
+        importJobRepository.save(job);
+    }
+    
+    private void commitWindow(ImportJob job, List<TransactionRequest> window, int rejected,
+                              TransactionCsvReader reader, long windowStarted) {
+        if (!window.isEmpty()) {
+            BatchTransactionResponse result = transactionService.processBatch(window);
+            job.setRowsSucceeded(job.getRowsSucceeded() + result.getSuccessCount());
+            job.setRowsFailed(job.getRowsFailed() + result.getFailureCount());
+            job.setRowsPending(job.getRowsPending() + result.getPendingCount());
+            rowsImported.increment(window.size());
+        }
+        rowsRejected.increment(rejected);
+        job.setRowsRejected(job.getRowsRejected() + rejected);
+        job.setCheckpointOffset(reader.offsetAfterRow());
+        job.setCheckpointLine(reader.lineNumber());
+        job.setElapsedMillis(job.getElapsedMillis() + (System.nanoTime() - windowStarted) / 1_000_000);
+        importJobRepository.save(job);
+    }
+    
+    private double rowsPerSecond(ImportJob job) {
+        long rows = job.getRowsSucceeded() + job.getRowsFailed() + job.getRowsRejected() + job.getRowsPending();
+        return job.getElapsedMillis() == 0 ? 0 : rows * 1000.0 / job.getElapsedMillis();
+    }
+    
+    private ImportJobResponse toResponse(ImportJob job) {
+        return ImportJobResponse.builder()
+                .id(job.getId())
+                .fileName(job.getFileName())
+                .status(job.getStatus())
+                .fileSize(job.getFileSize())
+                .bytesProcessed(job.getCheckpointOffset())
+                .rowsSucceeded(job.getRowsSucceeded())
+                .rowsFailed(job.getRowsFailed())
+                .rowsPending(job.getRowsPending())
+                .rowsRejected(job.getRowsRejected())
+                .rowsPerSecond(rowsPerSecond(job))
+                .lastError(job.getLastError())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+    
+    @Override
+    public void destroy() {
+        importExecutor.shutdown();
+    }
+}
@@ -0,0 +1,138 @@
+package com.bank.transaction_service.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bank.transaction_service.Entity.DailyAccountSummary;
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.Repository.DailyAccountSummaryRepository;
+import com.bank.transaction_service.Repository.TransactionRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Maintains the daily per-account rollups and answers statement totals from them.
+ * Totals over a range read one rollup row per whole day and raw transactions only
+ * for the partial days at either end.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailySummaryService {
+    
+    private final DailyAccountSummaryRepository summaryRepository;
+    private final TransactionRepository transactionRepository;
+    
+    /**
+     * Adds COMPLETED transactions to their day's rollup, a transfer to its sender's and
+     * its recipient's, in the caller's DB transaction
+     * so the rollup commits or rolls back with the status change; pending, failed and
+     * reversed ones are left out, as {@link StatementTotals} leaves them out of raw rows.
+     * Transactions are grouped first, so a batch costs one upsert per account and day.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Transaction> transactions) {
+        Map<String, DayDelta> deltas = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() != TransactionStatus.COMPLETED) {
+                continue;
+            }
+            LocalDate day = transaction.getTransactionDate().toLocalDate();
+            deltas.computeIfAbsent(transaction.getAccountNumber() + "|" + day,
+                    k -> new DayDelta(transaction.getAccountNumber(), day)).add(transaction);
+            // The recipient's day counts the transfer as a credit
+            if (transaction.getType() == TransactionType.TRANSFER && transaction.getToAccountNumber() != null) {
+                deltas.computeIfAbsent(transaction.getToAccountNumber() + "|" + day,
+                        k -> new DayDelta(transaction.getToAccountNumber(), day)).add(transaction);
+            }
+        }
+        
+        for (DayDelta delta : deltas.values()) {
+            summaryRepository.upsert(delta.accountNumber, delta.day,
+                    delta.totals.getTransactionCount(),
+                    delta.totals.getTotalDeposits(),
+                    delta.totals.getTotalWithdrawals(),
+                    delta.closingBalance,
+                    delta.balanceRecordedAt,
+                    delta.lastTransactionId);
+        }
+    }
+    
+    /**
+     * Statement totals for [start, end]. Days wholly inside the range come from the
+     * rollups; the partial days at the edges are summed from their transactions.
+     */
+    StatementTotals totalsFor(String accountNumber, LocalDateTime start, LocalDateTime end) {
+        StatementTotals totals = new StatementTotals(accountNumber);
+        
+        LocalDate firstFullDay = start.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? start.toLocalDate() : start.toLocalDate().plusDays(1);
+        // end is inclusive, so its own day is whole only if end is the day's last instant
+        LocalDate lastFullDay = end.plusNanos(1).toLocalDate().minusDays(1);
+        
+        if (firstFullDay.isAfter(lastFullDay)) {
+            transactionRepository.findStatementRows(accountNumber, start, end)
+                    .forEach(totals::add);
+            return totals;
+        }
+        
+        transactionRepository.findInRange(accountNumber, start, firstFullDay.atStartOfDay())
+                .forEach(totals::add);
+        summaryRepository.findByAccountNumberAndSummaryDateBetween(accountNumber, firstFullDay, lastFullDay)
+                .forEach(totals::add);
+        transactionRepository.findStatementRows(accountNumber, lastFullDay.plusDays(1).atStartOfDay(), end)
+                .forEach(totals::add);
+        return totals;
+    }
+    
+    private static final class DayDelta {
+        private final String accountNumber;
+        private final LocalDate day;
+        private final StatementTotals totals;
+        private BigDecimal closingBalance;
+        private LocalDateTime balanceRecordedAt;
+        private Long balanceRowId;
+        private String lastTransactionId;
+        
+        private DayDelta(String accountNumber, LocalDate day) {
+            this.accountNumber = accountNumber;
+            this.day = day;
+            this.totals = new StatementTotals(accountNumber);
+        }
+        
+        // The closing balance is the one recorded last, ordered as findBalanceAtOrBefore
+        // orders them; transaction IDs are only time-ordered since they became Snowflake IDs
+        private void add(Transaction transaction) {
+            totals.add(transaction);
+            BigDecimal balance = accountNumber.equals(transaction.getAccountNumber())
+                    ? transaction.getBalanceAfter() : transaction.getToBalanceAfter();
+            if (balance == null || transaction.getBalanceRecordedAt() == null) {
+                return;
+            }
+            if (balanceRecordedAt == null || isLater(transaction)) {
+                closingBalance = balance;
+                balanceRecordedAt = transaction.getBalanceRecordedAt();
+                balanceRowId = transaction.getId();
+                lastTransactionId = transaction.getTransactionId();
+            }
+        }
+        
+        private boolean isLater(Transaction transaction) {
+            int byTime = transaction.getBalanceRecordedAt().compareTo(balanceRecordedAt);
+            if (byTime != 0) {
+                return byTime > 0;
+            }
+            return transaction.getId() != null && (balanceRowId == null || transaction.getId() > balanceRowId);
+        }
+    }
+}
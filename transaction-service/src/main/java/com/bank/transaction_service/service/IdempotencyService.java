@@ -0,0 +1,105 @@
+package com.bank.transaction_service.service;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Exception.IdempotencyKeyConflictException;
+import com.bank.transaction_service.Exception.TransactionFailedException;
+import com.bank.transaction_service.dto.TransactionRequest;
+import com.bank.transaction_service.dto.TransactionResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Makes transaction submission safe to retry. A request carrying an idempotency key
+ * (the Idempotency-Key header, or else its reference number) is executed at most once;
+ * repeats get the original outcome from a bounded in-memory cache, or from the
+ * unique idempotency_key index when the cache has no entry, without calling account-service.
+ * <p>
+ * Keys are global, and a reference number is chosen by the client, so two customers can
+ * send the same one. The stored transaction is the fingerprint of the request that used
+ * the key: a repeat is replayed only if its account, type, amount and recipient match,
+ * and anything else is rejected as a conflict instead of being answered with someone
+ * else's transaction.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+    
+    private final TransactionService transactionService;
+    private final Cache<String, TransactionResponse> outcomes;
+    
+    public IdempotencyService(TransactionService transactionService,
+                              @Value("${transaction.idempotency.cache-size:100000}") long cacheSize,
+                              @Value("${transaction.idempotency.cache-ttl:24h}") Duration cacheTtl) {
+        this.transactionService = transactionService;
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+    
+    public TransactionResponse submit(TransactionRequest request, String idempotencyKey) {
+        String key = idempotencyKey != null && !idempotencyKey.isBlank()
+                ? idempotencyKey : request.getReferenceNumber();
+        if (key == null || key.isBlank()) {
+            return transactionService.processTransaction(request, null);
+        }
+        
+        TransactionResponse previous = outcomes.getIfPresent(key);
+        if (previous == null) {
+            previous = transactionService.findByIdempotencyKey(key).orElse(null);
+        }
+        if (previous != null) {
+            log.info("Replaying transaction {} for idempotency key {}", previous.getTransactionId(), key);
+            return replay(key, request, previous);
+        }
+        
+        try {
+            TransactionResponse response = transactionService.processTransaction(request, key);
+            if (response.getStatus() != TransactionStatus.PENDING) {
+                outcomes.put(key, response);
+            }
+            return response;
+        } catch (TransactionFailedException e) {
+            transactionService.findByIdempotencyKey(key).ifPresent(failed -> outcomes.put(key, failed));
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key won the insert; answer with its transaction
+            return transactionService.findByIdempotencyKey(key)
+                    .map(winner -> replay(key, request, winner))
+                    .orElseThrow(() -> e);
+        }
+    }
+    
+    private TransactionResponse replay(String key, TransactionRequest request, TransactionResponse previous) {
+        if (!sameRequest(request, previous)) {
+            throw new IdempotencyKeyConflictException(
+                    "Idempotency key " + key + " was already used for a different transaction");
+        }
+        if (previous.getStatus() == TransactionStatus.PENDING) {
+            // Still in flight; don't pin the intermediate state in the cache
+            return previous;
+        }
+        outcomes.put(key, previous);
+        if (previous.getStatus() == TransactionStatus.FAILED) {
+            throw new TransactionFailedException("Transaction failed: " + previous.getFailureReason());
+        }
+        return previous;
+    }
+    
+    private static boolean sameRequest(TransactionRequest request, TransactionResponse previous) {
+        return Objects.equals(request.getAccountNumber(), previous.getAccountNumber())
+                && request.getType() == previous.getType()
+                && request.getAmount() != null && previous.getAmount() != null
+                && request.getAmount().compareTo(previous.getAmount()) == 0
+                && Objects.equals(request.getToAccountNumber(), previous.getToAccountNumber());
+    }
+}
@@ -0,0 +1,29 @@
+package com.bank.transaction_service.service;
+
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction_service.Entity.OutboxEvent;
+import com.bank.transaction_service.Event.TransactionEvent;
+import com.bank.transaction_service.Repository.OutboxEventRepository;
+import com.bank.common.outbox.KafkaOutboxRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Drains this service's outbox table to Kafka; see {@link KafkaOutboxRelay}.
+ */
+@Component
+public class OutboxRelay extends KafkaOutboxRelay<OutboxEvent, TransactionEvent> {
+    
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, TransactionEvent> kafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry) {
+        super(outboxEventRepository, kafkaTemplate, transactionTemplate, objectMapper, meterRegistry,
+              TransactionEvent.class);
+    }
+}
@@ -0,0 +1,354 @@
+package com.bank.transaction_service.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction_service.Client.AccountServiceClient;
+import com.bank.transaction_service.Entity.ReconciliationDiscrepancy;
+import com.bank.transaction_service.Entity.ReconciliationRun;
+import com.bank.transaction_service.Entity.ReconciliationStatus;
+import com.bank.transaction_service.Exception.TransactionNotFoundException;
+import com.bank.transaction_service.Repository.ReconciliationDiscrepancyRepository;
+import com.bank.transaction_service.Repository.ReconciliationRunRepository;
+import com.bank.transaction_service.Repository.TransactionRepository;
+import com.bank.transaction_service.Repository.TransactionRepository.LedgerNet;
+import com.bank.transaction_service.dto.AccountBalanceSnapshot;
+import com.bank.transaction_service.dto.ReconciliationRunResponse;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-of-day reconciliation of account balances against the ledger. An account's
+ * balance should equal its opening balance and credited interest plus the net of its
+ * completed transactions.
+ * <p>
+ * The account numbers are split into ranges of about equal size
+ * (transaction.reconciliation.partitions), and the ranges are reconciled in parallel
+ * (transaction.reconciliation.parallelism). For each range, the account service's
+ * balance export and the per-account ledger sums are both read as streams sorted by
+ * account number and merge-joined, so neither side is ever held in memory. Only the
+ * mismatches are written, as {@link ReconciliationDiscrepancy} rows.
+ * <p>
+ * The two sides are read from different databases at slightly different moments, so a
+ * transaction settling during the run can show up as a discrepancy; the run is meant
+ * for the quiet end-of-day window.
+ */
+@Service
+@Slf4j
+public class ReconciliationService implements DisposableBean {
+    
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationDiscrepancyRepository discrepancyRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountServiceClient accountServiceClient;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor runExecutor;
+    private final ThreadPoolTaskExecutor partitionExecutor;
+    private final Timer runTimer;
+    private final Counter accountsCounter;
+    private final Counter discrepanciesCounter;
+    
+    @Value("${transaction.reconciliation.partitions:32}")
+    private int partitions;
+    
+    @Value("${transaction.reconciliation.flush-size:500}")
+    private int flushSize;
+    
+    public ReconciliationService(ReconciliationRunRepository runRepository,
+                                 ReconciliationDiscrepancyRepository discrepancyRepository,
+                                 TransactionRepository transactionRepository,
+                                 AccountServiceClient accountServiceClient,
+                                 ObjectMapper objectMapper,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${transaction.reconciliation.parallelism:4}") int parallelism) {
+        this.runRepository = runRepository;
+        this.discrepancyRepository = discrepancyRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountServiceClient = accountServiceClient;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        // One run at a time; each one fans out over the partition executor
+        this.runExecutor = new ThreadPoolTaskExecutor();
+        runExecutor.setCorePoolSize(1);
+        runExecutor.setMaxPoolSize(1);
+        runExecutor.setThreadNamePrefix("txn-recon-");
+        runExecutor.initialize();
+        
+        this.partitionExecutor = new ThreadPoolTaskExecutor();
+        partitionExecutor.setCorePoolSize(parallelism);
+        partitionExecutor.setMaxPoolSize(parallelism);
+        partitionExecutor.setThreadNamePrefix("txn-recon-part-");
+        partitionExecutor.initialize();
+        
+        this.runTimer = meterRegistry.timer("transactions.reconciliation.run");
+        this.accountsCounter = meterRegistry.counter("transactions.reconciliation.accounts");
+        this.discrepanciesCounter = meterRegistry.counter("transactions.reconciliation.discrepancies");
+    }
+    
+    @Scheduled(cron = "${transaction.reconciliation.cron:0 0 2 * * *}")
+    public void reconcileNightly() {
+        startReconciliation();
+    }
+    
+    /**
+     * Starts a reconciliation run, or returns the one already running.
+     */
+    public ReconciliationRunResponse startReconciliation() {
+        List<ReconciliationRun> running = runRepository.findByStatus(ReconciliationStatus.RUNNING);
+        if (!running.isEmpty()) {
+            return toResponse(running.get(0));
+        }
+        
+        ReconciliationRun run = runRepository.save(ReconciliationRun.builder()
+                .status(ReconciliationStatus.RUNNING)
+                .build());
+        Long runId = run.getId();
+        runExecutor.execute(() -> run(runId));
+        return toResponse(run);
+    }
+    
+    public ReconciliationRunResponse getReconciliation(Long id) {
+        return runRepository.findById(id)
+                .map(this::toResponse)
+                .orElseThrow(() -> new TransactionNotFoundException("Reconciliation not found: " + id));
+    }
+    
+    /**
+     * A run cut short by a restart has partial results; it is closed as failed rather
+     * than resumed, and the next run starts over.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedRuns() {
+        for (ReconciliationRun run : runRepository.findByStatus(ReconciliationStatus.RUNNING)) {
+            run.setStatus(ReconciliationStatus.FAILED);
+            run.setLastError("Interrupted by restart");
+            run.setFinishedAt(LocalDateTime.now());
+            runRepository.save(run);
+        }
+    }
+    
+    private void run(Long runId) {
+        ReconciliationRun run = runRepository.findById(runId).orElseThrow();
+        long started = System.nanoTime();
+        
+        List<Future<PartitionResult>> results = new ArrayList<>();
+        try {
+            List<String> boundaries = accountServiceClient.getBalancePartitions(partitions);
+            run.setPartitions(boundaries.size() + 1);
+            
+            // ["", b1), [b1, b2), ... [bn, unbounded)
+            String from = "";
+            for (String boundary : boundaries) {
+                String lower = from;
+                results.add(partitionExecutor.submit(() -> reconcilePartition(runId, lower, boundary)));
+                from = boundary;
+            }
+            String last = from;
+            results.add(partitionExecutor.submit(() -> reconcilePartition(runId, last, null)));
+            
+            for (Future<PartitionResult> result : results) {
+                PartitionResult partition = result.get();
+                run.setAccountsCompared(run.getAccountsCompared() + partition.accounts());
+                run.setDiscrepancies(run.getDiscrepancies() + partition.discrepancies());
+            }
+            run.setStatus(ReconciliationStatus.COMPLETED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(run, results, "Interrupted");
+        } catch (ExecutionException e) {
+            fail(run, results, e.getCause().getMessage());
+        } catch (RuntimeException e) {
+            fail(run, results, e.getMessage());
+        }
+        
+        long elapsedNanos = System.nanoTime() - started;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        run.setElapsedMillis(elapsedNanos / 1_000_000);
+        run.setFinishedAt(LocalDateTime.now());
+        runRepository.save(run);
+        log.info("Reconciliation {} {}: {} accounts in {} partitions, {} discrepancies, {} accounts/s",
+                 run.getId(), run.getStatus(), run.getAccountsCompared(), run.getPartitions(),
+                 run.getDiscrepancies(), String.format("%.0f", accountsPerSecond(run)));
+    }
+    
+    private void fail(ReconciliationRun run, List<Future<PartitionResult>> results, String error) {
+        results.forEach(result -> result.cancel(true));
+        log.error("Reconciliation {} failed: {}", run.getId(), error);
+        run.setStatus(ReconciliationStatus.FAILED);
+        run.setLastError(error);
+    }
+    
+    /**
+     * Reconciles the accounts in [from, to). The discrepancies found commit together
+     * with the partition.
+     */
+    private PartitionResult reconcilePartition(Long runId, String from, String to) {
+        try (Response response = accountServiceClient.exportBalances(from, to)) {
+            if (response.status() != 200 || response.body() == null) {
+                throw new IllegalStateException("Balance export of [" + from + ", " + to + ") failed with status "
+                        + response.status());
+            }
+            try (MappingIterator<AccountBalanceSnapshot> accounts = objectMapper
+                    .readerFor(AccountBalanceSnapshot.class)
+                    .readValues(response.body().asInputStream())) {
+                return transactionTemplate.execute(status -> {
+                    try (Stream<LedgerNet> ledger = transactionRepository.streamLedgerNets(from, to)) {
+                        return merge(runId, accounts, ledger.iterator());
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private PartitionResult merge(Long runId, Iterator<AccountBalanceSnapshot> accounts, Iterator<LedgerNet> ledger) {
+        List<ReconciliationDiscrepancy> pending = new ArrayList<>(flushSize);
+        long compared = 0;
+        long discrepancies = 0;
+        
+        AccountBalanceSnapshot account = next(accounts, null, AccountBalanceSnapshot::getAccountNumber);
+        LedgerNet net = next(ledger, null, LedgerNet::getAccountNumber);
+        while (account != null || net != null) {
+            int order = account == null ? 1
+                    : net == null ? -1
+                    : account.getAccountNumber().compareTo(net.getAccountNumber());
+            
+            ReconciliationDiscrepancy discrepancy;
+            if (order < 0) {
+                // No completed transactions
+                discrepancy = compare(runId, account.getAccountNumber(), account, BigDecimal.ZERO);
+                account = next(accounts, account, AccountBalanceSnapshot::getAccountNumber);
+            } else if (order > 0) {
+                discrepancy = compare(runId, net.getAccountNumber(), null, net.getNet());
+                net = next(ledger, net, LedgerNet::getAccountNumber);
+            } else {
+                discrepancy = compare(runId, account.getAccountNumber(), account, net.getNet());
+                account = next(accounts, account, AccountBalanceSnapshot::getAccountNumber);
+                net = next(ledger, net, LedgerNet::getAccountNumber);
+            }
+            
+            compared++;
+            if (discrepancy != null) {
+                discrepancies++;
+                pending.add(discrepancy);
+                if (pending.size() == flushSize) {
+                    flush(pending);
+                }
+            }
+        }
+        flush(pending);
+        
+        accountsCounter.increment(compared);
+        discrepanciesCounter.increment(discrepancies);
+        return new PartitionResult(compared, discrepancies);
+    }
+    
+    private ReconciliationDiscrepancy compare(Long runId, String accountNumber,
+                                              AccountBalanceSnapshot account, BigDecimal ledgerNet) {
+        BigDecimal expected = ledgerNet;
+        BigDecimal actual = BigDecimal.ZERO;
+        if (account != null) {
+            expected = expected.add(account.getOpeningBalance()).add(account.getInterestCredited());
+            actual = account.getBalance();
+        }
+        BigDecimal difference = actual.subtract(expected);
+        if (account != null && difference.signum() == 0) {
+            return null;
+        }
+        return ReconciliationDiscrepancy.builder()
+                .runId(runId)
+                .accountNumber(accountNumber)
+                .accountBalance(account != null ? account.getBalance() : null)
+                .expectedBalance(expected)
+                .difference(difference)
+                .build();
+    }
+    
+    private void flush(List<ReconciliationDiscrepancy> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        discrepancyRepository.saveAll(pending);
+        entityManager.flush();
+        entityManager.clear();
+        pending.clear();
+    }
+    
+    /**
+     * The next row of a side, checking that the side really is in ascending order: a
+     * merge-join over out-of-order input would report every account after the first
+     * inversion, so the partition fails instead.
+     */
+    private static <T> T next(Iterator<T> side, T previous, Function<T, String> accountNumber) {
+        if (!side.hasNext()) {
+            return null;
+        }
+        T row = side.next();
+        if (previous != null && accountNumber.apply(previous).compareTo(accountNumber.apply(row)) >= 0) {
+            throw new IllegalStateException("Reconciliation input out of order at " + accountNumber.apply(row));
+        }
+        return row;
+    }
+    
+    private double accountsPerSecond(ReconciliationRun run) {
+        return run.getElapsedMillis() == 0 ? 0 : run.getAccountsCompared() * 1000.0 / run.getElapsedMillis();
+    }
+    
+    private ReconciliationRunResponse toResponse(ReconciliationRun run) {
+        return ReconciliationRunResponse.builder()
+                .id(run.getId())
+                .status(run.getStatus())
+                .partitions(run.getPartitions())
+                .accountsCompared(run.getAccountsCompared())
+                .discrepancies(run.getDiscrepancies())
+                .accountsPerSecond(accountsPerSecond(run))
+                .elapsedMillis(run.getElapsedMillis())
+                .lastError(run.getLastError())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .build();
+    }
+    
+    private record PartitionResult(long accounts, long discrepancies) {
+    }
+    
+    @Override
+    public void destroy() {
+        runExecutor.shutdown();
+        partitionExecutor.shutdown();
+    }
+}
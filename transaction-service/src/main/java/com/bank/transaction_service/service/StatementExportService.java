@@ -0,0 +1,172 @@
+package com.bank.transaction_service.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Repository.TransactionRepository;
+import com.bank.transaction_service.dto.StatementFormat;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes statements straight from a forward-only DB cursor to the response.
+ * Each row is written and detached as soon as it is read, and the totals are
+ * accumulated in the same pass, so memory stays flat however long the period is.
+ * Transfers the account received are listed too; accountNumber tells them apart from
+ * its own transactions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementExportService {
+    
+    private static final String CSV_HEADER =
+            "transactionId,transactionDate,type,status,amount,toAccountNumber,description,failureReason,accountNumber";
+    
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    
+    // The cursor only streams (instead of buffering the whole result) inside a transaction
+    @Transactional(readOnly = true)
+    public void exportStatement(String accountNumber,
+                                LocalDateTime startDate,
+                                LocalDateTime endDate,
+                                StatementFormat format,
+                                OutputStream out) throws IOException {
+        StatementTotals totals = new StatementTotals(accountNumber);
+        
+        try (Stream<Transaction> rows = transactionRepository.streamStatement(accountNumber, startDate, endDate)) {
+            Iterator<Transaction> cursor = rows.iterator();
+            switch (format) {
+                case NDJSON -> writeNdjson(accountNumber, startDate, endDate, cursor, totals, out);
+                case CSV -> writeCsv(cursor, totals, out);
+            }
+        }
+        
+        log.info("Exported statement for account: {} ({} completed transactions)", accountNumber, totals.getTransactionCount());
+    }
+    
+    private void writeNdjson(String accountNumber, LocalDateTime startDate, LocalDateTime endDate,
+                             Iterator<Transaction> cursor, StatementTotals totals,
+                             OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(new SerializedString("\n"));
+        
+        while (cursor.hasNext()) {
+            Transaction transaction = cursor.next();
+            totals.add(transaction);
+            
+            json.writeStartObject();
+            json.writeStringField("transactionId", transaction.getTransactionId());
+            json.writeStringField("accountNumber", transaction.getAccountNumber());
+            json.writeStringField("transactionDate", String.valueOf(transaction.getTransactionDate()));
+            json.writeStringField("type", transaction.getType().name());
+            json.writeStringField("status", transaction.getStatus().name());
+            json.writeNumberField("amount", transaction.getAmount());
+            writeOptionalField(json, "toAccountNumber", transaction.getToAccountNumber());
+            writeOptionalField(json, "description", transaction.getDescription());
+            writeOptionalField(json, "failureReason", transaction.getFailureReason());
+            json.writeEndObject();
+            
+            entityManager.detach(transaction);
+        }
+        
+        // Trailing summary line
+        json.writeStartObject();
+        json.writeObjectFieldStart("summary");
+        json.writeStringField("accountNumber", accountNumber);
+        json.writeStringField("startDate", startDate.toString());
+        json.writeStringField("endDate", endDate.toString());
+        json.writeNumberField("transactionCount", totals.getTransactionCount());
+        json.writeNumberField("totalDeposits", totals.getTotalDeposits());
+        json.writeNumberField("totalWithdrawals", totals.getTotalWithdrawals());
+        json.writeNumberField("netChange", totals.getNetChange());
+        json.writeEndObject();
+        json.writeEndObject();
+        json.writeRaw('\n');
+        json.close();
+    }
+    
+    private void writeOptionalField(JsonGenerator json, String name, String value) throws IOException {
+        if (value != null) {
+            json.writeStringField(name, value);
+        }
+    }
+    
+    private void writeCsv(Iterator<Transaction> cursor, StatementTotals totals,
+                          OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write(CSV_HEADER);
+        csv.write('\n');
+        
+        while (cursor.hasNext()) {
+            Transaction transaction = cursor.next();
+            totals.add(transaction);
+            
+            csv.write(transaction.getTransactionId());
+            csv.write(',');
+            csv.write(String.valueOf(transaction.getTransactionDate()));
+            csv.write(',');
+            csv.write(transaction.getType().name());
+            csv.write(',');
+            csv.write(transaction.getStatus().name());
+            csv.write(',');
+            csv.write(transaction.getAmount().toPlainString());
+            csv.write(',');
+            writeCsvField(csv, transaction.getToAccountNumber());
+            csv.write(',');
+            writeCsvField(csv, transaction.getDescription());
+            csv.write(',');
+            writeCsvField(csv, transaction.getFailureReason());
+            csv.write(',');
+            csv.write(transaction.getAccountNumber());
+            csv.write('\n');
+            
+            entityManager.detach(transaction);
+        }
+        
+        // Trailing summary section
+        csv.write('\n');
+        csv.write("transactionCount,totalDeposits,totalWithdrawals,netChange\n");
+        csv.write(totals.getTransactionCount() + "," + plain(totals.getTotalDeposits()) + ","
+                + plain(totals.getTotalWithdrawals()) + "," + plain(totals.getNetChange()) + "\n");
+        csv.flush();
+    }
+    
+    private void writeCsvField(Writer csv, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        csv.write(value.replace("\"", "\"\""));
+        csv.write('"');
+    }
+    
+    private String plain(BigDecimal value) {
+        return value.toPlainString();
+    }
+}
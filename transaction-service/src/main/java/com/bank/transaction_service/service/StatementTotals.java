@@ -0,0 +1,57 @@
+package com.bank.transaction_service.service;
+
+import java.math.BigDecimal;
+
+import com.bank.transaction_service.Entity.DailyAccountSummary;
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+
+import lombok.Getter;
+
+/**
+ * Running statement totals of one account, accumulated in the same pass that reads the
+ * rows. Only COMPLETED transactions count, in the amounts and in transactionCount alike,
+ * so totals summed from raw rows agree with those read from the daily rollups. A
+ * transfer is a withdrawal for its sender and a deposit for its recipient.
+ */
+@Getter
+class StatementTotals {
+    
+    private final String accountNumber;
+    private BigDecimal totalDeposits = BigDecimal.ZERO;
+    private BigDecimal totalWithdrawals = BigDecimal.ZERO;
+    private int transactionCount;
+    
+    StatementTotals(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+    
+    void add(Transaction transaction) {
+        if (transaction.getStatus() != TransactionStatus.COMPLETED) {
+            return;
+        }
+        boolean received = transaction.getType() == TransactionType.TRANSFER
+                && accountNumber.equals(transaction.getToAccountNumber());
+        if (!received && !accountNumber.equals(transaction.getAccountNumber())) {
+            return;
+        }
+        transactionCount++;
+        if (transaction.getType() == TransactionType.DEPOSIT || received) {
+            totalDeposits = totalDeposits.add(transaction.getAmount());
+        } else if (transaction.getType() == TransactionType.WITHDRAWAL
+                || transaction.getType() == TransactionType.TRANSFER) {
+            totalWithdrawals = totalWithdrawals.add(transaction.getAmount());
+        }
+    }
+    
+    void add(DailyAccountSummary summary) {
+        transactionCount += summary.getTransactionCount();
+        totalDeposits = totalDeposits.add(summary.getTotalCredits());
+        totalWithdrawals = totalWithdrawals.add(summary.getTotalDebits());
+    }
+    
+    BigDecimal getNetChange() {
+        return totalDeposits.subtract(totalWithdrawals);
+    }
+}
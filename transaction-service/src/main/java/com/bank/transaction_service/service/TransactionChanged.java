@@ -0,0 +1,11 @@
+package com.bank.transaction_service.service;
+
+import com.bank.transaction_service.dto.TransactionResponse;
+
+/**
+ * Published when a transaction is stored or its status changes. Carries the new state
+ * when the publisher has it to hand, or null when cached copies should just be dropped;
+ * {@link TransactionLookupCache} applies it once the DB transaction commits.
+ */
+public record TransactionChanged(String transactionId, TransactionResponse transaction) {
+}
@@ -0,0 +1,270 @@
+package com.bank.transaction_service.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.dto.TransactionRequest;
+
+/**
+ * Reads transaction rows straight out of a memory-mapped file, one window of the file
+ * at a time. A row is split into byte ranges and validated in place (type matched
+ * byte-by-byte, amount parsed digit-by-digit into an unscaled long); Strings are only
+ * created for rows that pass, when they are turned into requests.
+ * <p>
+ * Row layout, one per line, the description taking the rest of the line:
+ * <pre>type,accountNumber,toAccountNumber,amount,referenceNumber,description</pre>
+ */
+final class TransactionCsvReader implements AutoCloseable {
+    
+    private static final int MAP_WINDOW = 64 * 1024 * 1024;
+    private static final int FIELDS = 6;
+    private static final int MAX_FIELD_LENGTH = 1024;
+    private static final int MAX_AMOUNT_SCALE = 2;
+    
+    private static final int TYPE = 0;
+    private static final int ACCOUNT = 1;
+    private static final int TO_ACCOUNT = 2;
+    private static final int AMOUNT = 3;
+    private static final int REFERENCE = 4;
+    private static final int DESCRIPTION = 5;
+    
+    private static final TransactionType[] IMPORTABLE =
+            { TransactionType.DEPOSIT, TransactionType.WITHDRAWAL, TransactionType.TRANSFER };
+    private static final byte[][] TYPE_NAMES = new byte[IMPORTABLE.length][];
+    private static final byte[] HEADER = "type".getBytes(StandardCharsets.US_ASCII);
+    
+    static {
+        for (int i = 0; i < IMPORTABLE.length; i++) {
+            TYPE_NAMES[i] = IMPORTABLE[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+    
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowStart;
+    
+    private long nextOffset;
+    private long lineNumber;
+    
+    private final int[] fieldStart = new int[FIELDS];
+    private final int[] fieldEnd = new int[FIELDS];
+    private int fieldCount;
+    private final byte[] scratch = new byte[MAX_FIELD_LENGTH];
+    
+    private TransactionType type;
+    private long unscaledAmount;
+    private int amountScale;
+    
+    /**
+     * Opens the file positioned at a checkpoint: offset is the first byte of a line,
+     * lineNumber the number of lines before it.
+     */
+    TransactionCsvReader(Path file, long offset, long lineNumber) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.nextOffset = offset;
+        this.lineNumber = lineNumber;
+    }
+    
+    /**
+     * Moves to the next non-blank line. Returns false at the end of the file.
+     */
+    boolean next() throws IOException {
+        while (nextOffset < size) {
+            int start = position(nextOffset);
+            int end = findLineEnd(start);
+            if (end < 0) {
+                if (windowStart == nextOffset) {
+                    throw new IOException("Line " + (lineNumber + 1) + " is longer than " + MAP_WINDOW + " bytes");
+                }
+                // The line runs past this window; map a new one starting at the line
+                remap(nextOffset);
+                continue;
+            }
+            
+            nextOffset = Math.min(size, windowStart + end + 1);
+            lineNumber++;
+            int contentEnd = end > start && window.get(end - 1) == '\r' ? end - 1 : end;
+            if (contentEnd > start) {
+                split(start, contentEnd);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    long lineNumber() {
+        return lineNumber;
+    }
+    
+    /**
+     * Offset of the first byte after the current row; a checkpoint to resume from.
+     */
+    long offsetAfterRow() {
+        return nextOffset;
+    }
+    
+    long size() {
+        return size;
+    }
+    
+    boolean isHeader() {
+        return fieldEquals(TYPE, HEADER, true);
+    }
+    
+    /**
+     * Validates the current row in place. Returns null if it is valid, the reason otherwise.
+     */
+    String validate() {
+        if (fieldCount < AMOUNT + 1) {
+            return "Expected at least " + (AMOUNT + 1) + " fields, found " + fieldCount;
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            if (fieldEnd[i] - fieldStart[i] > MAX_FIELD_LENGTH) {
+                return "Field " + (i + 1) + " is longer than " + MAX_FIELD_LENGTH + " bytes";
+            }
+        }
+        
+        type = null;
+        for (int i = 0; i < IMPORTABLE.length && type == null; i++) {
+            if (fieldEquals(TYPE, TYPE_NAMES[i], false)) {
+                type = IMPORTABLE[i];
+            }
+        }
+        if (type == null) {
+            return "Unsupported transaction type";
+        }
+        if (isBlank(ACCOUNT)) {
+            return "Account number is required";
+        }
+        if (type == TransactionType.TRANSFER && isBlank(TO_ACCOUNT)) {
+            return "Destination account is required for transfers";
+        }
+        return parseAmount();
+    }
+    
+    /**
+     * Builds the request for the current, validated row. Rows without a reference
+     * number get one derived from their line, so a resumed import replays them
+     * idempotently instead of applying them twice.
+     */
+    TransactionRequest toRequest(String referencePrefix) {
+        TransactionRequest request = new TransactionRequest();
+        request.setType(type);
+        request.setAccountNumber(string(ACCOUNT));
+        request.setToAccountNumber(isBlank(TO_ACCOUNT) ? null : string(TO_ACCOUNT));
+        request.setAmount(BigDecimal.valueOf(unscaledAmount, amountScale));
+        request.setReferenceNumber(isBlank(REFERENCE) ? referencePrefix + lineNumber : string(REFERENCE));
+        request.setDescription(isBlank(DESCRIPTION) ? null : string(DESCRIPTION));
+        return request;
+    }
+    
+    private String parseAmount() {
+        int start = fieldStart[AMOUNT];
+        int end = fieldEnd[AMOUNT];
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int i = start; i < end; i++) {
+            byte b = window.get(i);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b >= '0' && b <= '9' && digits < 18) {
+                unscaled = unscaled * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                return "Invalid amount";
+            }
+        }
+        if (digits == 0 || scale > MAX_AMOUNT_SCALE) {
+            return "Invalid amount";
+        }
+        if (unscaled == 0) {
+            return "Amount must be greater than 0";
+        }
+        unscaledAmount = unscaled;
+        amountScale = Math.max(scale, 0);
+        return null;
+    }
+    
+    private void split(int start, int end) {
+        fieldCount = 0;
+        fieldStart[0] = start;
+        for (int i = start; i < end; i++) {
+            if (window.get(i) == ',' && fieldCount < FIELDS - 1) {
+                fieldEnd[fieldCount++] = i;
+                fieldStart[fieldCount] = i + 1;
+            }
+        }
+        fieldEnd[fieldCount++] = end;
+        for (int i = fieldCount; i < FIELDS; i++) {
+            fieldStart[i] = end;
+            fieldEnd[i] = end;
+        }
+    }
+    
+    private boolean fieldEquals(int field, byte[] expected, boolean ignoreCase) {
+        int start = fieldStart[field];
+        if (fieldEnd[field] - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            int b = window.get(start + i);
+            if (ignoreCase && b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean isBlank(int field) {
+        return fieldEnd[field] == fieldStart[field];
+    }
+    
+    private String string(int field) {
+        int length = fieldEnd[field] - fieldStart[field];
+        window.get(fieldStart[field], scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+    
+    private int position(long offset) throws IOException {
+        if (window == null || offset < windowStart || offset >= windowStart + window.limit()) {
+            remap(offset);
+        }
+        return (int) (offset - windowStart);
+    }
+    
+    private void remap(long offset) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(MAP_WINDOW, size - offset));
+        windowStart = offset;
+    }
+    
+    // Index of the line's '\n', the window limit if the file ends first, or -1 if the window does
+    private int findLineEnd(int start) {
+        int limit = window.limit();
+        for (int i = start; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return windowStart + limit == size ? limit : -1;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,89 @@
+package com.bank.transaction_service.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.dto.TransactionResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Near-cache in front of {@link TransactionService#getTransaction(String)} for clients
+ * polling a transaction they just submitted. Entries are bounded by
+ * transaction.lookup.cache-size and expire after transaction.lookup.cache-ttl.
+ * <p>
+ * Only final states (COMPLETED, FAILED, REVERSED) are kept. A pending transaction may be
+ * settled by another instance's saga worker or sweeper, whose eviction never reaches
+ * this cache, so a pending response expires as soon as it is returned and the next poll
+ * reads the row again.
+ * <p>
+ * Changes are applied after commit, so the cache never holds state that could still
+ * roll back: a processed transaction is written through, and a status change made
+ * elsewhere evicts the entry. A lookup racing with an eviction blocks on it rather than
+ * reinstating the old row. Hits and misses are reported as cache.gets{cache=transaction.lookup}.
+ */
+@Service
+public class TransactionLookupCache {
+    
+    private final TransactionService transactionService;
+    private final Cache<String, TransactionResponse> transactions;
+    
+    public TransactionLookupCache(TransactionService transactionService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${transaction.lookup.cache-size:50000}") long cacheSize,
+                                  @Value("${transaction.lookup.cache-ttl:10m}") Duration cacheTtl) {
+        this.transactionService = transactionService;
+        this.transactions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, TransactionResponse>() {
+                    @Override
+                    public long expireAfterCreate(String transactionId, TransactionResponse transaction,
+                                                  long currentTime) {
+                        return isFinal(transaction) ? cacheTtl.toNanos() : 0;
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String transactionId, TransactionResponse transaction,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(transactionId, transaction, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String transactionId, TransactionResponse transaction,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, transactions, "transaction.lookup");
+    }
+    
+    public TransactionResponse getTransaction(String transactionId) {
+        return transactions.get(transactionId, transactionService::getTransaction);
+    }
+    
+    private static boolean isFinal(TransactionResponse transaction) {
+        return transaction.getStatus() == TransactionStatus.COMPLETED
+                || transaction.getStatus() == TransactionStatus.FAILED
+                || transaction.getStatus() == TransactionStatus.REVERSED;
+    }
+    
+    // Without a surrounding DB transaction the change is already committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanged(TransactionChanged event) {
+        if (event.transaction() != null) {
+            transactions.put(event.transactionId(), event.transaction());
+        } else {
+            transactions.invalidate(event.transactionId());
+        }
+    }
+}
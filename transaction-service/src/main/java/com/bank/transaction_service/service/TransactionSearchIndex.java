@@ -0,0 +1,248 @@
+package com.bank.transaction_service.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bank.transaction_service.Entity.Transaction;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process inverted index over completed transactions' description and reference
+ * number, kept in Lucene segment files under transaction.search.index-dir. Documents
+ * are keyed by transactionId, so indexing the same transaction again replaces it.
+ * <p>
+ * Each commit records a watermark (the latest transactionDate indexed), from which
+ * {@link TransactionSearchIndexer} catches up after a restart.
+ */
+@Component
+@Slf4j
+public class TransactionSearchIndex implements DisposableBean {
+    
+    private static final String ID = "id";
+    private static final String ACCOUNT = "account";
+    private static final String TEXT = "text";
+    private static final String REFERENCE = "ref";
+    private static final String DATE = "date";
+    private static final String WATERMARK = "watermark";
+    
+    // Shorter terms are matched exactly; expanding one- or two-letter prefixes is not worth it
+    private static final int MIN_PREFIX_LENGTH = 3;
+    
+    private static final Sort NEWEST_FIRST = new Sort(new SortField(DATE, SortField.Type.LONG, true));
+    
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final AtomicReference<LocalDateTime> watermark = new AtomicReference<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    
+    @Value("${transaction.search.max-results:100}")
+    private int maxResults;
+    
+    public TransactionSearchIndex(@Value("${transaction.search.index-dir:data/search-index}") String indexDir)
+            throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(FSDirectory.open(Path.of(indexDir)), config);
+        this.searcherManager = new SearcherManager(writer, null);
+        
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (WATERMARK.equals(entry.getKey())) {
+                    watermark.set(LocalDateTime.parse(entry.getValue()));
+                }
+            }
+        }
+        log.info("Opened search index at {} with {} documents, watermark {}",
+                 indexDir, writer.getDocStats().numDocs, watermark.get());
+    }
+    
+    /**
+     * Latest transactionDate covered by the last commit, or null for an empty index.
+     */
+    public LocalDateTime getWatermark() {
+        return watermark.get();
+    }
+    
+    public void index(Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        try {
+            for (Transaction transaction : transactions) {
+                writer.updateDocument(new Term(ID, transaction.getTransactionId()), toDocument(transaction));
+                watermark.accumulateAndGet(transaction.getTransactionDate(),
+                        (current, candidate) -> current == null || candidate.isAfter(current) ? candidate : current);
+            }
+            dirty.set(true);
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index transactions", e);
+        }
+    }
+    
+    /**
+     * Transaction IDs matching every term of the query as a prefix of a word in the
+     * description or reference number, or the query as a prefix of the whole reference
+     * number; newest first. Optionally limited to one account (either side of a transfer).
+     * At most transaction.search.max-results IDs are returned.
+     */
+    public List<String> search(String text, String accountNumber, int limit) {
+        Query query = buildQuery(text, accountNumber);
+        if (query == null) {
+            return List.of();
+        }
+        
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, Math.clamp(limit, 1, maxResults), NEWEST_FIRST);
+                StoredFields storedFields = searcher.storedFields();
+                List<String> ids = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc hit : top.scoreDocs) {
+                    ids.add(storedFields.document(hit.doc).get(ID));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        }
+    }
+    
+    private Query buildQuery(String text, String accountNumber) {
+        BooleanQuery.Builder words = new BooleanQuery.Builder();
+        int termCount = 0;
+        for (String term : analyze(text)) {
+            words.add(matchTerm(TEXT, term), BooleanClause.Occur.MUST);
+            termCount++;
+        }
+        String reference = text.trim().toLowerCase(Locale.ROOT);
+        if (termCount == 0 && reference.isEmpty()) {
+            return null;
+        }
+        
+        BooleanQuery.Builder matches = new BooleanQuery.Builder()
+                .add(matchTerm(REFERENCE, reference), BooleanClause.Occur.SHOULD);
+        if (termCount > 0) {
+            matches.add(words.build(), BooleanClause.Occur.SHOULD);
+        }
+        
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(matches.build(), BooleanClause.Occur.MUST);
+        if (accountNumber != null && !accountNumber.isBlank()) {
+            query.add(new TermQuery(new Term(ACCOUNT, accountNumber)), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+    
+    private Query matchTerm(String field, String term) {
+        return term.length() < MIN_PREFIX_LENGTH
+                ? new TermQuery(new Term(field, term))
+                : new PrefixQuery(new Term(field, term));
+    }
+    
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(TEXT, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+    
+    private Document toDocument(Transaction transaction) {
+        Document document = new Document();
+        document.add(new StringField(ID, transaction.getTransactionId(), Field.Store.YES));
+        document.add(new StringField(ACCOUNT, transaction.getAccountNumber(), Field.Store.NO));
+        if (transaction.getToAccountNumber() != null) {
+            document.add(new StringField(ACCOUNT, transaction.getToAccountNumber(), Field.Store.NO));
+        }
+        
+        StringBuilder text = new StringBuilder();
+        if (transaction.getDescription() != null) {
+            text.append(transaction.getDescription());
+        }
+        if (transaction.getReferenceNumber() != null) {
+            text.append(' ').append(transaction.getReferenceNumber());
+            document.add(new StringField(REFERENCE,
+                    transaction.getReferenceNumber().toLowerCase(Locale.ROOT), Field.Store.NO));
+        }
+        document.add(new TextField(TEXT, text.toString(), Field.Store.NO));
+        document.add(new NumericDocValuesField(DATE,
+                transaction.getTransactionDate().toInstant(ZoneOffset.UTC).toEpochMilli()));
+        return document;
+    }
+    
+    /**
+     * Makes everything indexed so far durable, together with the watermark. Between
+     * commits, documents are searchable but would be re-indexed after a crash.
+     */
+    @Scheduled(fixedDelayString = "${transaction.search.commit-interval-ms:5000}")
+    public void commit() throws IOException {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        LocalDateTime current = watermark.get();
+        if (current != null) {
+            writer.setLiveCommitData(Map.of(WATERMARK, current.toString()).entrySet());
+        }
+        writer.commit();
+    }
+    
+    @Override
+    public void destroy() throws IOException {
+        commit();
+        searcherManager.close();
+        writer.close();
+    }
+}
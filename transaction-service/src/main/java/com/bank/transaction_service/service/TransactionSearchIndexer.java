@@ -0,0 +1,127 @@
+package com.bank.transaction_service.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Event.TransactionEvent;
+import com.bank.transaction_service.Repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feeds {@link TransactionSearchIndex}. Completed transactions arrive through the
+ * TRANSACTION_COMPLETED events the outbox relay publishes, so they are only indexed
+ * once committed. Every instance consumes under its own group and keeps a full index.
+ * <p>
+ * On startup the index catches up from the database with everything completed since
+ * its watermark (less a slack for transactions committed out of order), which covers
+ * events published while the instance was down.
+ */
+@Component
+@Slf4j
+public class TransactionSearchIndexer {
+    
+    private static final int CATCH_UP_BATCH = 1000;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private final TransactionSearchIndex searchIndex;
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTemplate;
+    
+    @Value("${transaction.search.catch-up-slack:1h}")
+    private Duration catchUpSlack;
+    
+    public TransactionSearchIndexer(TransactionSearchIndex searchIndex,
+                                    TransactionRepository transactionRepository,
+                                    ObjectMapper objectMapper,
+                                    EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager) {
+        this.searchIndex = searchIndex;
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+    
+    @KafkaListener(topics = "transaction-events",
+                   groupId = "${transaction.search.consumer-group:transaction-search-${random.uuid}}",
+                   batch = "true",
+                   properties = {
+                       "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                       "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                       "auto.offset.reset=latest"
+                   })
+    public void onTransactionEvents(List<String> messages) {
+        Set<String> completed = new LinkedHashSet<>();
+        for (String message : messages) {
+            try {
+                TransactionEvent event = objectMapper.readValue(message, TransactionEvent.class);
+                if ("TRANSACTION_COMPLETED".equals(event.getEventType())) {
+                    completed.add(event.getTransactionId());
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable transaction event: {}", e.getMessage());
+            }
+        }
+        if (!completed.isEmpty()) {
+            searchIndex.index(transactionRepository.findByTransactionIdIn(completed));
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        Thread.ofPlatform().name("txn-search-catch-up").start(this::indexSinceWatermark);
+    }
+    
+    private void indexSinceWatermark() {
+        LocalDateTime watermark = searchIndex.getWatermark();
+        LocalDateTime since = watermark == null ? BEGINNING : watermark.minus(catchUpSlack);
+        long started = System.nanoTime();
+        
+        try {
+            long indexed = readOnlyTemplate.execute(status -> {
+                long count = 0;
+                List<Transaction> batch = new ArrayList<>(CATCH_UP_BATCH);
+                try (Stream<Transaction> rows = transactionRepository.streamByStatusSince(TransactionStatus.COMPLETED, since)) {
+                    for (Transaction transaction : (Iterable<Transaction>) rows::iterator) {
+                        batch.add(transaction);
+                        if (batch.size() == CATCH_UP_BATCH) {
+                            searchIndex.index(batch);
+                            count += batch.size();
+                            batch.clear();
+                            // Indexed rows are not needed again; keep the persistence context small
+                            entityManager.clear();
+                        }
+                    }
+                }
+                searchIndex.index(batch);
+                return count + batch.size();
+            });
+            log.info("Search index caught up with {} transactions since {} in {} ms",
+                     indexed, watermark == null ? "the beginning" : since, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Search index catch-up failed: {}", e.getMessage());
+        }
+    }
+}
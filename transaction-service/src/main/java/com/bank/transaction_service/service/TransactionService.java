@@ -1,27 +1,62 @@
 package com.bank.transaction_service.service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.bank.common.config.BalanceWireFormat;
+import com.bank.common.id.IdGenerator;
 import com.bank.transaction_service.Client.AccountServiceClient;
+import com.bank.transaction_service.Entity.SagaState;
 import com.bank.transaction_service.Entity.Transaction;
 import com.bank.transaction_service.Entity.TransactionStatus;
 import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.Entity.TransferSaga;
 import com.bank.transaction_service.Event.TransactionEvent;
+import com.bank.transaction_service.Exception.InvalidTransactionException;
 import com.bank.transaction_service.Exception.TransactionFailedException;
+import com.bank.transaction_service.Exception.VelocityLimitExceededException;
 import com.bank.transaction_service.Repository.TransactionRepository;
+import com.bank.transaction_service.Repository.TransferSagaRepository;
+import com.bank.transaction_service.dto.AccountBalanceResponse;
+import com.bank.transaction_service.dto.BalanceMovement;
+import com.bank.transaction_service.dto.BalanceMovementResult;
 import com.bank.transaction_service.dto.BalanceUpdateRequest;
+import com.bank.transaction_service.dto.BatchBalanceUpdateRequest;
+import com.bank.transaction_service.dto.BatchTransactionResponse;
+import com.bank.transaction_service.dto.TransactionHistoryResponse;
 import com.bank.transaction_service.dto.TransactionRequest;
 import com.bank.transaction_service.dto.TransactionResponse;
 import com.bank.transaction_service.dto.TransactionStatementResponse;
+import com.bank.transaction_service.dto.TransferRequest;
+import com.bank.transaction_service.dto.TransferResponse;
 
+import feign.FeignException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,33 +68,55 @@ public class TransactionService {
     
     private final TransactionRepository transactionRepository;
     private final AccountServiceClient accountServiceClient;
-    private final KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+    private final OutboxService outboxService;
+    private final AsyncTaskExecutor batchTransactionExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final IdGenerator idGenerator;
+    private final DailySummaryService dailySummaryService;
+    private final TransferSagaRepository transferSagaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VelocityLimitService velocityLimitService;
     
-    @Transactional
+    @Value("${transaction.history.max-page-size:100}")
+    private int historyMaxPageSize;
+    
+    @Value("${transaction.batch.max-size:10000}")
+    private int batchMaxSize;
+    
+    @Value("${transaction.batch.chunk-size:500}")
+    private int batchChunkSize;
+    
+    @Value("${account-client.binary-codec:true}")
+    private boolean binaryCodec;
+    
+    @Value("${transaction.saga.max-attempts:5}")
+    private int sagaMaxAttempts;
+    
+    @Value("${transaction.saga.initial-backoff-ms:500}")
+    private long sagaInitialBackoffMs;
+    
+    @Value("${transaction.saga.max-backoff-ms:60000}")
+    private long sagaMaxBackoffMs;
+    
+    // A failed transaction is still recorded, together with its TRANSACTION_FAILED event
+    @Transactional(noRollbackFor = TransactionFailedException.class)
     @CircuitBreaker(name = "transactionService", fallbackMethod = "transactionFallback")
-    public TransactionResponse processTransaction(TransactionRequest request) {
-        String transactionId = generateTransactionId();
+    public TransactionResponse processTransaction(TransactionRequest request, String idempotencyKey) {
+        velocityLimitService.reserve(request.getType(), request.getAccountNumber(), request.getAmount());
+        Transaction transaction = newTransaction(request, idempotencyKey);
         
-        Transaction transaction = Transaction.builder()
-                .transactionId(transactionId)
-                .accountNumber(request.getAccountNumber())
-                .toAccountNumber(request.getToAccountNumber())
-                .type(request.getType())
-                .amount(request.getAmount())
-                .status(TransactionStatus.PENDING)
-                .description(request.getDescription())
-                .referenceNumber(request.getReferenceNumber())
-                .build();
+        // Sequence ids defer the INSERT to flush; the row and its unique idempotency key
+        // must reach the database before account-service is called, so that a concurrent
+        // duplicate loses here instead of after moving money
+        transaction = transactionRepository.saveAndFlush(transaction);
         
-        transaction = transactionRepository.save(transaction);
+        if (transaction.getType() == TransactionType.TRANSFER) {
+            startTransferSaga(transaction);
+            return changed(transaction);
+        }
         
         try {
-            switch (request.getType()) {
-                case DEPOSIT -> processDeposit(transaction);
-                case WITHDRAWAL -> processWithdrawal(transaction);
-                case TRANSFER -> processTransfer(transaction);
-                default -> throw new IllegalArgumentException("Unsupported transaction type");
-            }
+            applyBalanceUpdate(transaction);
             
             transaction.setStatus(TransactionStatus.COMPLETED);
             publishEvent("TRANSACTION_COMPLETED", transaction);
@@ -71,18 +128,105 @@ public class TransactionService {
             publishEvent("TRANSACTION_FAILED", transaction);
             throw new TransactionFailedException("Transaction failed: " + e.getMessage());
         } finally {
+            if (transaction.getStatus() != TransactionStatus.COMPLETED) {
+                velocityLimitService.release(transaction);
+            }
             transaction = transactionRepository.save(transaction);
+            dailySummaryService.record(List.of(transaction));
+            changed(transaction);
         }
         
         return toResponse(transaction);
     }
     
+    /**
+     * Records a transaction as PENDING and returns straight away; the balance update
+     * is done later by {@link #completePendingTransactions(List)}.
+     */
+    @Transactional
+    public TransactionResponse acceptTransaction(TransactionRequest request, String idempotencyKey) {
+        String invalidReason = validateRequest(request);
+        if (invalidReason != null) {
+            throw new InvalidTransactionException(invalidReason);
+        }
+        velocityLimitService.reserve(request.getType(), request.getAccountNumber(), request.getAmount());
+        Transaction transaction = transactionRepository.save(newTransaction(request, idempotencyKey));
+        log.info("Accepted transaction: {}", transaction.getTransactionId());
+        return toResponse(transaction);
+    }
+    
+    /**
+     * Runs the balance updates for accepted transactions in one account-service call.
+     * The rows are locked in transactionId (i.e. creation) order and skipped unless still
+     * PENDING, so a transaction handed over more than once is applied once, and movements
+     * for the same account are applied in the order they were accepted. Transfers driven
+     * by a saga are skipped: only {@link #advanceTransferSaga} may settle them. Rejections
+     * from account-service (4xx) fail the transactions; anything else leaves them PENDING
+     * for retry.
+     */
+    @Transactional
+    public void completePendingTransactions(List<String> transactionIds) {
+        List<Transaction> locked = transactionRepository.findAllByTransactionIdInForUpdate(transactionIds).stream()
+                .filter(t -> t.getStatus() == TransactionStatus.PENDING)
+                .toList();
+        List<String> transferIds = locked.stream()
+                .filter(t -> t.getType() == TransactionType.TRANSFER)
+                .map(Transaction::getTransactionId)
+                .toList();
+        Set<String> sagaOwned = transferIds.isEmpty() ? Set.of()
+                : new HashSet<>(transferSagaRepository.findTransactionIdsIn(transferIds));
+        List<Transaction> pending = locked.stream()
+                .filter(t -> !sagaOwned.contains(t.getTransactionId()))
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        try {
+            settleMovements(pending);
+        } catch (FeignException e) {
+            if (e.status() < 400 || e.status() >= 500) {
+                log.warn("{} transactions left pending, account service unavailable: {}", pending.size(), e.getMessage());
+                return;
+            }
+            pending.forEach(t -> markFailed(t, e.getMessage()));
+        }
+        
+        transactionRepository.saveAll(pending);
+        dailySummaryService.record(pending);
+        for (Transaction transaction : pending) {
+            if (transaction.getStatus() == TransactionStatus.FAILED) {
+                velocityLimitService.release(transaction);
+            }
+            publishEvent(transaction.getStatus() == TransactionStatus.COMPLETED
+                    ? "TRANSACTION_COMPLETED" : "TRANSACTION_FAILED", transaction);
+            eventPublisher.publishEvent(new TransactionChanged(transaction.getTransactionId(), null));
+        }
+    }
+    
+    private void applyBalanceUpdate(Transaction transaction) {
+        switch (transaction.getType()) {
+            case DEPOSIT -> processDeposit(transaction);
+            case WITHDRAWAL -> processWithdrawal(transaction);
+            default -> throw new IllegalArgumentException("Unsupported transaction type");
+        }
+    }
+    
+    private AccountBalanceResponse updateBalance(String accountNumber, BalanceUpdateRequest request) {
+        // JSON stays available for debugging and for amounts outside the binary range
+        if (binaryCodec && BalanceWireFormat.fits(request.getAmount())) {
+            return accountServiceClient.updateBalanceBinary(accountNumber, request);
+        }
+        return accountServiceClient.updateBalance(accountNumber, request);
+    }
+    
     private void processDeposit(Transaction transaction) {
         BalanceUpdateRequest request = new BalanceUpdateRequest();
         request.setAmount(transaction.getAmount());
         request.setOperation("CREDIT");
         
-        accountServiceClient.updateBalance(transaction.getAccountNumber(), request);
+        AccountBalanceResponse account = updateBalance(transaction.getAccountNumber(), request);
+        recordBalances(transaction, account.getBalance(), null);
         log.info("Deposit processed for account: {}", transaction.getAccountNumber());
     }
     
@@ -91,25 +235,332 @@ public class TransactionService {
         request.setAmount(transaction.getAmount());
         request.setOperation("DEBIT");
         
-        accountServiceClient.updateBalance(transaction.getAccountNumber(), request);
+        AccountBalanceResponse account = updateBalance(transaction.getAccountNumber(), request);
+        recordBalances(transaction, account.getBalance(), null);
         log.info("Withdrawal processed for account: {}", transaction.getAccountNumber());
     }
     
-    private void processTransfer(Transaction transaction) {
-        // Debit from source account
-        BalanceUpdateRequest debitRequest = new BalanceUpdateRequest();
-        debitRequest.setAmount(transaction.getAmount());
-        debitRequest.setOperation("DEBIT");
-        accountServiceClient.updateBalance(transaction.getAccountNumber(), debitRequest);
+    /**
+     * Transfers run as a persisted saga driven by the {@link TransferSagaWorker}: the
+     * request commits the PENDING transaction together with its saga and returns, and
+     * the worker makes the account-service call once the commit lands. If the saga row
+     * is lost, so is the transaction, so a transfer is never moved without a record.
+     */
+    private void startTransferSaga(Transaction transaction) {
+        transferSagaRepository.save(TransferSaga.builder()
+                .transactionId(transaction.getTransactionId())
+                .state(SagaState.TRANSFERRING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new TransferSagaStarted(transaction.getTransactionId()));
+    }
+    
+    /**
+     * Runs one step of a transfer saga, if it is due and no other worker holds it.
+     * The transfer carries the transaction ID as its reference, so account-service
+     * applies it at most once however often it is retried.
+     * <ul>
+     * <li>TRANSFERRING: apply the transfer. Success completes the transaction; a
+     * rejection (4xx) fails it; an unknown outcome is retried with exponential backoff,
+     * and after transaction.saga.max-attempts the saga moves to COMPENSATING.</li>
+     * <li>COMPENSATING: cancel the transfer, reversing it if it landed, and mark the
+     * transaction REVERSED. Retried with backoff until account-service answers; a
+     * rejection leaves the saga in COMPENSATION_FAILED for manual review.</li>
+     * </ul>
+     */
+    @Transactional
+    public void advanceTransferSaga(String transactionId) {
+        TransferSaga saga = transferSagaRepository.lockByTransactionId(transactionId).orElse(null);
+        if (saga == null
+                || (saga.getState() != SagaState.TRANSFERRING && saga.getState() != SagaState.COMPENSATING)
+                || saga.getNextAttemptAt().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new IllegalStateException("No transaction for saga " + transactionId));
+        
+        TransferRequest request = TransferRequest.builder()
+                .fromAccountNumber(transaction.getAccountNumber())
+                .toAccountNumber(transaction.getToAccountNumber())
+                .amount(transaction.getAmount())
+                .reference(transaction.getTransactionId())
+                .build();
+        saga.setAttempts(saga.getAttempts() + 1);
+        
+        try {
+            if (saga.getState() == SagaState.TRANSFERRING) {
+                TransferResponse response = accountServiceClient.transfer(request);
+                recordBalances(transaction, response.getFromBalance(), response.getToBalance());
+                transaction.setStatus(TransactionStatus.COMPLETED);
+                saga.setState(SagaState.COMPLETED);
+                log.info("Transfer processed from {} to {}",
+                         transaction.getAccountNumber(), transaction.getToAccountNumber());
+            } else {
+                accountServiceClient.cancelTransfer(request);
+                transaction.setStatus(TransactionStatus.REVERSED);
+                transaction.setFailureReason("Transfer could not be confirmed and was cancelled: " + saga.getLastError());
+                saga.setState(SagaState.COMPENSATED);
+                log.warn("Transfer {} cancelled after {} attempts", transactionId, sagaMaxAttempts);
+            }
+        } catch (FeignException e) {
+            saga.setLastError(e.getMessage());
+            boolean rejected = e.status() >= 400 && e.status() < 500;
+            if (rejected && saga.getState() == SagaState.TRANSFERRING) {
+                markFailed(transaction, e.getMessage());
+                saga.setState(SagaState.FAILED);
+            } else if (rejected) {
+                saga.setState(SagaState.COMPENSATION_FAILED);
+                log.error("Cancelling transfer {} was rejected, needs manual review: {}", transactionId, e.getMessage());
+            } else if (saga.getState() == SagaState.TRANSFERRING && saga.getAttempts() >= sagaMaxAttempts) {
+                saga.setState(SagaState.COMPENSATING);
+                saga.setAttempts(0);
+                saga.setNextAttemptAt(LocalDateTime.now());
+            } else {
+                saga.setNextAttemptAt(LocalDateTime.now().plus(sagaBackoff(saga.getAttempts())));
+            }
+        }
+        
+        transferSagaRepository.save(saga);
+        if (transaction.getStatus() != TransactionStatus.PENDING) {
+            if (transaction.getStatus() != TransactionStatus.COMPLETED) {
+                velocityLimitService.release(transaction);
+            }
+            transactionRepository.save(transaction);
+            dailySummaryService.record(List.of(transaction));
+            publishEvent("TRANSACTION_" + transaction.getStatus().name(), transaction);
+            eventPublisher.publishEvent(new TransactionChanged(transactionId, null));
+        }
+    }
+    
+    // Exponential with full jitter, so retries after an outage don't arrive in lockstep
+    private Duration sagaBackoff(int attempts) {
+        long ceiling = Math.min(sagaMaxBackoffMs, sagaInitialBackoffMs << Math.min(attempts - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+    }
+    
+    /**
+     * Processes a batch of transactions in chunks. Each chunk runs in its own DB
+     * transaction: the rows are inserted with one saveAll, the balance updates are
+     * applied by account-service in a single call (one lock and one write per account),
+     * and the outcome is flushed on commit. Chunks run concurrently on the batch executor.
+     * Individual failures are reported per item and never fail the whole batch; that
+     * includes withdrawals and transfers over a velocity limit.
+     * If account-service times out or fails (5xx), whether the chunk was applied is
+     * unknown: its items are returned PENDING and settled by the pending sweeper, whose
+     * re-send account-service recognises by the movement references.
+     * Items sharing a reference number are processed once; items whose reference
+     * number was already used return the original transaction.
+     */
+    public BatchTransactionResponse processBatch(List<TransactionRequest> requests) {
+        if (requests.size() > batchMaxSize) {
+            throw new InvalidTransactionException(
+                    "Batch size " + requests.size() + " exceeds the maximum of " + batchMaxSize);
+        }
+        
+        List<TransactionRequest> unique = new ArrayList<>(requests.size());
+        Map<String, Integer> uniqueIndexByKey = new HashMap<>();
+        int[] resultIndex = new int[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            String key = requests.get(i).getReferenceNumber();
+            Integer seen = key == null ? null : uniqueIndexByKey.putIfAbsent(key, unique.size());
+            if (seen != null) {
+                resultIndex[i] = seen;
+            } else {
+                resultIndex[i] = unique.size();
+                unique.add(requests.get(i));
+            }
+        }
+        
+        List<CompletableFuture<List<TransactionResponse>>> chunks = new ArrayList<>();
+        for (int from = 0; from < unique.size(); from += batchChunkSize) {
+            List<TransactionRequest> chunk = unique.subList(from, Math.min(from + batchChunkSize, unique.size()));
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> transactionTemplate.execute(status -> processChunk(chunk)), batchTransactionExecutor));
+        }
+        
+        List<TransactionResponse> uniqueResults = chunks.stream()
+                .flatMap(chunk -> chunk.join().stream())
+                .toList();
+        List<TransactionResponse> results = Arrays.stream(resultIndex)
+                .mapToObj(uniqueResults::get)
+                .toList();
+        
+        int successCount = (int) results.stream()
+                .filter(r -> r.getStatus() == TransactionStatus.COMPLETED)
+                .count();
+        int pendingCount = (int) results.stream()
+                .filter(r -> r.getStatus() == TransactionStatus.PENDING)
+                .count();
+        
+        log.info("Batch processed: {} submitted, {} completed, {} pending",
+                 results.size(), successCount, pendingCount);
+        
+        return BatchTransactionResponse.builder()
+                .totalCount(results.size())
+                .successCount(successCount)
+                .failureCount(results.size() - successCount - pendingCount)
+                .pendingCount(pendingCount)
+                .results(results)
+                .build();
+    }
+    
+    private List<TransactionResponse> processChunk(List<TransactionRequest> chunk) {
+        Map<String, Transaction> replays = findByReferenceNumbers(chunk);
+        
+        List<Transaction> results = new ArrayList<>(chunk.size());
+        List<Transaction> transactions = new ArrayList<>(chunk.size());
+        List<Transaction> reserved = new ArrayList<>(chunk.size());
+        for (TransactionRequest request : chunk) {
+            Transaction replay = request.getReferenceNumber() == null ? null : replays.get(request.getReferenceNumber());
+            if (replay != null) {
+                results.add(replay);
+                continue;
+            }
+            Transaction transaction = newTransaction(request, request.getReferenceNumber());
+            String invalidReason = validateRequest(request);
+            if (invalidReason != null) {
+                markFailed(transaction, invalidReason);
+            } else {
+                try {
+                    velocityLimitService.reserve(request.getType(), request.getAccountNumber(), request.getAmount());
+                    reserved.add(transaction);
+                } catch (VelocityLimitExceededException e) {
+                    markFailed(transaction, e.getMessage());
+                }
+            }
+            results.add(transaction);
+            transactions.add(transaction);
+        }
+        
+        // New entities are persisted in place, so the instances in results stay managed.
+        // Flushed before the account-service call for the same reason as in processTransaction.
+        transactionRepository.saveAllAndFlush(transactions);
+        
+        List<Transaction> pending = transactions.stream()
+                .filter(t -> t.getStatus() == TransactionStatus.PENDING)
+                .toList();
+        
+        if (!pending.isEmpty()) {
+            try {
+                settleMovements(pending);
+            } catch (FeignException e) {
+                if (e.status() < 400 || e.status() >= 500) {
+                    // May have been applied; the items stay PENDING for the sweeper
+                    log.warn("{} batch transactions left pending, account service outcome unknown: {}",
+                             pending.size(), e.getMessage());
+                } else {
+                    log.error("Batch balance update rejected: {}", e.getMessage());
+                    pending.forEach(t -> markFailed(t, "Account service error: " + e.getMessage()));
+                }
+            }
+        }
+        
+        transactionRepository.saveAll(transactions);
+        dailySummaryService.record(transactions);
+        // Items left PENDING keep their reservation until the sweeper settles them
+        for (Transaction transaction : reserved) {
+            if (transaction.getStatus() == TransactionStatus.FAILED) {
+                velocityLimitService.release(transaction);
+            }
+        }
+        
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() != TransactionStatus.PENDING) {
+                publishEvent(transaction.getStatus() == TransactionStatus.COMPLETED
+                        ? "TRANSACTION_COMPLETED" : "TRANSACTION_FAILED", transaction);
+            }
+        }
+        
+        return results.stream().map(this::toResponse).toList();
+    }
+    
+    private Map<String, Transaction> findByReferenceNumbers(List<TransactionRequest> chunk) {
+        List<String> keys = chunk.stream()
+                .map(TransactionRequest::getReferenceNumber)
+                .filter(Objects::nonNull)
+                .toList();
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        return transactionRepository.findByIdempotencyKeyIn(keys).stream()
+                .collect(Collectors.toMap(Transaction::getIdempotencyKey, Function.identity()));
+    }
+    
+    /**
+     * Applies the balance movements of the given PENDING transactions with a single
+     * account-service call and marks each one COMPLETED or FAILED from its result.
+     */
+    private void settleMovements(List<Transaction> pending) {
+        BatchBalanceUpdateRequest request = BatchBalanceUpdateRequest.builder()
+                .movements(pending.stream().map(this::toMovement).toList())
+                .build();
+        
+        Map<String, BalanceMovementResult> outcomes = accountServiceClient.applyBalanceMovements(request)
+                .stream()
+                .collect(Collectors.toMap(BalanceMovementResult::getReference, Function.identity()));
         
-        // Credit to destination account
-        BalanceUpdateRequest creditRequest = new BalanceUpdateRequest();
-        creditRequest.setAmount(transaction.getAmount());
-        creditRequest.setOperation("CREDIT");
-        accountServiceClient.updateBalance(transaction.getToAccountNumber(), creditRequest);
+        for (Transaction transaction : pending) {
+            BalanceMovementResult outcome = outcomes.get(transaction.getTransactionId());
+            if (outcome != null && outcome.isApplied()) {
+                transaction.setStatus(TransactionStatus.COMPLETED);
+                // The transaction's own account is the credited side only for deposits
+                if (transaction.getType() == TransactionType.DEPOSIT) {
+                    recordBalances(transaction, outcome.getCreditBalanceAfter(), null);
+                } else {
+                    recordBalances(transaction, outcome.getDebitBalanceAfter(), outcome.getCreditBalanceAfter());
+                }
+            } else {
+                markFailed(transaction, outcome != null ? outcome.getFailureReason() : "No result from account service");
+            }
+        }
+    }
+    
+    // Stamped when account-service reports the balances, which is after it applied them:
+    // statements order running balances by this, not by when the transaction was created
+    private void recordBalances(Transaction transaction, BigDecimal balance, BigDecimal toBalance) {
+        transaction.setBalanceAfter(balance);
+        transaction.setToBalanceAfter(toBalance);
+        transaction.setBalanceRecordedAt(LocalDateTime.now());
+    }
+    
+    private String validateRequest(TransactionRequest request) {
+        return switch (request.getType()) {
+            case DEPOSIT, WITHDRAWAL -> null;
+            case TRANSFER -> {
+                if (request.getToAccountNumber() == null || request.getToAccountNumber().isBlank()) {
+                    yield "Destination account is required for transfers";
+                }
+                if (request.getToAccountNumber().equals(request.getAccountNumber())) {
+                    yield "Cannot transfer to the same account";
+                }
+                yield null;
+            }
+            default -> "Unsupported transaction type";
+        };
+    }
+    
+    private BalanceMovement toMovement(Transaction transaction) {
+        BalanceMovement.BalanceMovementBuilder movement = BalanceMovement.builder()
+                .reference(transaction.getTransactionId())
+                .amount(transaction.getAmount());
         
-        log.info("Transfer processed from {} to {}", 
-                 transaction.getAccountNumber(), transaction.getToAccountNumber());
+        switch (transaction.getType()) {
+            case DEPOSIT -> movement.creditAccountNumber(transaction.getAccountNumber());
+            case WITHDRAWAL -> movement.debitAccountNumber(transaction.getAccountNumber());
+            case TRANSFER -> movement.debitAccountNumber(transaction.getAccountNumber())
+                    .creditAccountNumber(transaction.getToAccountNumber());
+            default -> throw new IllegalArgumentException("Unsupported transaction type");
+        }
+        return movement.build();
+    }
+    
+    private void markFailed(Transaction transaction, String reason) {
+        transaction.setStatus(TransactionStatus.FAILED);
+        transaction.setFailureReason(reason);
+    }
+    
+    public Optional<TransactionResponse> findByIdempotencyKey(String idempotencyKey) {
+        return transactionRepository.findByIdempotencyKey(idempotencyKey).map(this::toResponse);
     }
     
     public TransactionResponse getTransaction(String transactionId) {
@@ -118,43 +569,176 @@ public class TransactionService {
         return toResponse(transaction);
     }
     
+    /**
+     * Loads the given transactions in the order of the IDs; IDs with no row are skipped.
+     */
+    public List<TransactionResponse> getTransactions(List<String> transactionIds) {
+        if (transactionIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Transaction> byId = transactionRepository.findByTransactionIdIn(transactionIds).stream()
+                .collect(Collectors.toMap(Transaction::getTransactionId, Function.identity()));
+        return transactionIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toResponse)
+                .toList();
+    }
+    
     public Page<TransactionResponse> getAccountTransactions(String accountNumber, Pageable pageable) {
         return transactionRepository.findByAccountNumber(accountNumber, pageable)
                 .map(this::toResponse);
     }
     
+    /**
+     * Cursor-based history, newest first. Each page seeks past the last row of the
+     * previous one via the (accountNumber, transactionDate, id) index, so page 500
+     * costs the same as page 1.
+     */
+    public TransactionHistoryResponse getAccountHistory(String accountNumber, String cursor, int size) {
+        if (size < 1 || size > historyMaxPageSize) {
+            throw new InvalidTransactionException("Page size must be between 1 and " + historyMaxPageSize);
+        }
+        
+        // One extra row tells us whether another page exists
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Transaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findHistory(accountNumber, limit);
+        } else {
+            Transaction last = decodeCursor(cursor);
+            rows = transactionRepository.findHistoryBefore(
+                    accountNumber, last.getTransactionDate(), last.getId(), limit);
+        }
+        
+        boolean hasMore = rows.size() > size;
+        List<Transaction> page = hasMore ? rows.subList(0, size) : rows;
+        
+        return TransactionHistoryResponse.builder()
+                .transactions(page.stream().map(this::toResponse).toList())
+                .nextCursor(hasMore ? encodeCursor(page.get(page.size() - 1)) : null)
+                .build();
+    }
+    
+    private String encodeCursor(Transaction transaction) {
+        String position = transaction.getTransactionDate() + "|" + transaction.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private Transaction decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf('|');
+            return Transaction.builder()
+                    .transactionDate(LocalDateTime.parse(position.substring(0, separator)))
+                    .id(Long.parseLong(position.substring(separator + 1)))
+                    .build();
+        } catch (RuntimeException e) {
+            throw new InvalidTransactionException("Invalid cursor");
+        }
+    }
+    
+    /**
+     * The account's transactions in the period, received transfers included, with their
+     * totals and the boundary balances. Interest credited by account-service has no
+     * transaction here: it shows up only in untrackedChange. The totals come from the
+     * daily rollups, as in {@link #getStatementSummary}, rather than from the listed rows.
+     */
     public TransactionStatementResponse getStatement(String accountNumber, 
                                                       LocalDateTime startDate, 
                                                       LocalDateTime endDate) {
-        var transactions = transactionRepository
-                .findByAccountNumberAndTransactionDateBetween(accountNumber, startDate, endDate);
-        
-        BigDecimal totalDeposits = transactions.stream()
-                .filter(t -> t.getType() == TransactionType.DEPOSIT && 
-                            t.getStatus() == TransactionStatus.COMPLETED)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal totalWithdrawals = transactions.stream()
-                .filter(t -> (t.getType() == TransactionType.WITHDRAWAL || 
-                             t.getType() == TransactionType.TRANSFER) && 
-                            t.getStatus() == TransactionStatus.COMPLETED)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        var transactions = transactionRepository.findStatementRows(accountNumber, startDate, endDate);
+        
+        List<TransactionResponse> responses = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            responses.add(toResponse(transaction));
+        }
+        StatementTotals totals = dailySummaryService.totalsFor(accountNumber, startDate, endDate);
+        
+        // Read off the boundary rows' running balances instead of replaying history
+        BigDecimal openingBalance = transactionRepository.findBalanceBefore(accountNumber, startDate).orElse(null);
+        BigDecimal closingBalance = getBalanceAsOf(accountNumber, endDate);
         
         return TransactionStatementResponse.builder()
                 .accountNumber(accountNumber)
                 .startDate(startDate)
                 .endDate(endDate)
-                .transactions(transactions.stream().map(this::toResponse).toList())
-                .totalDeposits(totalDeposits)
-                .totalWithdrawals(totalWithdrawals)
-                .transactionCount(transactions.size())
+                .transactions(responses)
+                .totalDeposits(totals.getTotalDeposits())
+                .totalWithdrawals(totals.getTotalWithdrawals())
+                .transactionCount(totals.getTransactionCount())
+                .openingBalance(openingBalance)
+                .closingBalance(closingBalance)
+                .netChange(totals.getNetChange())
+                .untrackedChange(untrackedChange(openingBalance, closingBalance, totals))
+                .build();
+    }
+    
+    /**
+     * Statement totals and boundary balances without the transaction list. Whole days
+     * are read from the daily rollups, so the cost grows with the number of days in the
+     * range rather than the number of transactions.
+     */
+    public TransactionStatementResponse getStatementSummary(String accountNumber,
+                                                            LocalDateTime startDate,
+                                                            LocalDateTime endDate) {
+        StatementTotals totals = dailySummaryService.totalsFor(accountNumber, startDate, endDate);
+        BigDecimal openingBalance = transactionRepository.findBalanceBefore(accountNumber, startDate).orElse(null);
+        BigDecimal closingBalance = getBalanceAsOf(accountNumber, endDate);
+        
+        return TransactionStatementResponse.builder()
+                .accountNumber(accountNumber)
+                .startDate(startDate)
+                .endDate(endDate)
+                .totalDeposits(totals.getTotalDeposits())
+                .totalWithdrawals(totals.getTotalWithdrawals())
+                .transactionCount(totals.getTransactionCount())
+                .openingBalance(openingBalance)
+                .closingBalance(closingBalance)
+                .netChange(totals.getNetChange())
+                .untrackedChange(untrackedChange(openingBalance, closingBalance, totals))
+                .build();
+    }
+    
+    // What moved the balance without a transaction here, such as interest; null unless
+    // both boundary balances are known
+    private static BigDecimal untrackedChange(BigDecimal openingBalance, BigDecimal closingBalance,
+                                              StatementTotals totals) {
+        if (openingBalance == null || closingBalance == null) {
+            return null;
+        }
+        return closingBalance.subtract(openingBalance).subtract(totals.getNetChange());
+    }
+    
+    /**
+     * Balance of the account as of the given instant: the last running balance recorded
+     * for it at or before then, whether it was the transaction's account or a transfer's
+     * recipient. Null if none was recorded (rows written before balanceAfter existed).
+     * Interest credited since that transaction is not included; account-service credits
+     * it without a transaction here, and it shows up in the balance recorded by the
+     * account's next transaction.
+     */
+    public BigDecimal getBalanceAsOf(String accountNumber, LocalDateTime asOf) {
+        return transactionRepository.findBalanceAtOrBefore(accountNumber, asOf).orElse(null);
+    }
+    
+    private Transaction newTransaction(TransactionRequest request, String idempotencyKey) {
+        return Transaction.builder()
+                .transactionId(generateTransactionId())
+                .accountNumber(request.getAccountNumber())
+                .toAccountNumber(request.getToAccountNumber())
+                .type(request.getType())
+                .amount(request.getAmount())
+                .status(TransactionStatus.PENDING)
+                .description(request.getDescription())
+                .referenceNumber(request.getReferenceNumber())
+                .idempotencyKey(idempotencyKey)
                 .build();
     }
     
     private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return "TXN" + idGenerator.nextEncodedId();
     }
     
     private void publishEvent(String eventType, Transaction transaction) {
@@ -168,8 +752,15 @@ public class TransactionService {
                 .timestamp(System.currentTimeMillis())
                 .build();
         
-        kafkaTemplate.send("transaction-events", transaction.getTransactionId(), event);
-        log.info("Published event: {} for transaction: {}", eventType, transaction.getTransactionId());
+        outboxService.enqueue("transaction-events", transaction.getTransactionId(), event);
+        log.info("Queued event: {} for transaction: {}", eventType, transaction.getTransactionId());
+    }
+    
+    // Writes the stored state through to the lookup cache once it commits
+    private TransactionResponse changed(Transaction transaction) {
+        TransactionResponse response = toResponse(transaction);
+        eventPublisher.publishEvent(new TransactionChanged(transaction.getTransactionId(), response));
+        return response;
     }
     
     private TransactionResponse toResponse(Transaction transaction) {
@@ -179,6 +770,7 @@ public class TransactionService {
                 .toAccountNumber(transaction.getToAccountNumber())
                 .type(transaction.getType())
                 .amount(transaction.getAmount())
+                .balanceAfter(transaction.getBalanceAfter())
                 .status(transaction.getStatus())
                 .description(transaction.getDescription())
                 .transactionDate(transaction.getTransactionDate())
@@ -0,0 +1,8 @@
+package com.bank.transaction_service.service;
+
+/**
+ * Published when a transfer saga is persisted; the worker picks it up once the
+ * creating DB transaction commits.
+ */
+public record TransferSagaStarted(String transactionId) {
+}
@@ -0,0 +1,102 @@
+package com.bank.transaction_service.service;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bank.transaction_service.Entity.SagaState;
+import com.bank.transaction_service.Repository.TransferSagaRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drives transfer sagas on a fixed pool of workers. New sagas are handed over as soon
+ * as their creating transaction commits; a poller re-dispatches any saga whose next
+ * attempt is due (retries after backoff, overflow, or sagas left by a dead instance).
+ * No request thread ever waits on account-service for a transfer.
+ */
+@Component
+@Slf4j
+public class TransferSagaWorker implements DisposableBean {
+    
+    private static final EnumSet<SagaState> OPEN_STATES = EnumSet.of(SagaState.TRANSFERRING, SagaState.COMPENSATING);
+    
+    private final TransactionService transactionService;
+    private final TransferSagaRepository transferSagaRepository;
+    private final ThreadPoolTaskExecutor workers;
+    private final Counter overflowCounter;
+    
+    @Value("${transaction.saga.poll-batch-size:200}")
+    private int pollBatchSize;
+    
+    public TransferSagaWorker(TransactionService transactionService,
+                              TransferSagaRepository transferSagaRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${transaction.saga.workers:4}") int workerCount,
+                              @Value("${transaction.saga.queue-capacity:1000}") int queueCapacity,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.transactionService = transactionService;
+        this.transferSagaRepository = transferSagaRepository;
+        
+        this.workers = new ThreadPoolTaskExecutor();
+        workers.setCorePoolSize(workerCount);
+        workers.setMaxPoolSize(workerCount);
+        workers.setQueueCapacity(queueCapacity);
+        workers.setVirtualThreads(virtualThreads);
+        workers.setThreadNamePrefix("txn-saga-");
+        // Overflow stays due in the DB and is picked up by the next poll
+        workers.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        workers.initialize();
+        
+        this.overflowCounter = meterRegistry.counter("transactions.saga.overflow");
+        Gauge.builder("transactions.saga.queue.depth", workers, w -> w.getThreadPoolExecutor().getQueue().size())
+                .description("Transfer sagas waiting for a worker")
+                .register(meterRegistry);
+    }
+    
+    @TransactionalEventListener
+    public void onStarted(TransferSagaStarted event) {
+        dispatch(event.transactionId());
+    }
+    
+    @Scheduled(fixedDelayString = "${transaction.saga.poll-interval-ms:1000}")
+    public void poll() {
+        List<String> due = transferSagaRepository.findDueTransactionIds(
+                OPEN_STATES, LocalDateTime.now(), PageRequest.of(0, pollBatchSize));
+        due.forEach(this::dispatch);
+    }
+    
+    private void dispatch(String transactionId) {
+        if (workers.getThreadPoolExecutor().getQueue().remainingCapacity() == 0) {
+            overflowCounter.increment();
+            return;
+        }
+        workers.execute(() -> advance(transactionId));
+    }
+    
+    private void advance(String transactionId) {
+        try {
+            transactionService.advanceTransferSaga(transactionId);
+        } catch (Exception e) {
+            // The saga row is unchanged and stays due
+            log.error("Failed to advance transfer saga {}: {}", transactionId, e.getMessage());
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,194 @@
+package com.bank.transaction_service.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.transaction_service.Client.VelocityPeerClient;
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.Exception.VelocityLimitExceededException;
+import com.bank.transaction_service.dto.VelocityDecision;
+import com.bank.transaction_service.dto.VelocityReservation;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Enforces hourly and daily velocity limits on withdrawals and transfers before any
+ * balance is touched, without querying the database. Each account's windows are kept
+ * by the instance that owns it in the {@link AccountRouter} ring; other instances ask
+ * the owner. If the owner cannot be reached, the check falls back to this instance's
+ * own windows rather than failing the transaction.
+ * <p>
+ * Reservations are tied to the DB transaction recording the debit: one taken in a
+ * transaction that rolls back (a duplicate idempotency key, say) is released when it
+ * ends, and a release asked for inside a transaction happens only once it commits.
+ * <p>
+ * Peers prove themselves with transaction.velocity.peer-token. Without a token nothing
+ * is forwarded and the internal endpoints refuse every call.
+ */
+@Service
+@Slf4j
+public class VelocityLimitService {
+    
+    private final VelocityLimiter velocityLimiter;
+    private final AccountRouter accountRouter;
+    private final VelocityPeerClient velocityPeerClient;
+    private final Counter rejectedCounter;
+    private final Counter forwardedCounter;
+    private final Counter fallbackCounter;
+    private final byte[] peerToken;
+    
+    public VelocityLimitService(VelocityLimiter velocityLimiter,
+                                AccountRouter accountRouter,
+                                VelocityPeerClient velocityPeerClient,
+                                MeterRegistry meterRegistry,
+                                @Value("${transaction.velocity.peer-token:}") String peerToken) {
+        this.velocityLimiter = velocityLimiter;
+        this.accountRouter = accountRouter;
+        this.velocityPeerClient = velocityPeerClient;
+        this.rejectedCounter = meterRegistry.counter("transactions.velocity.checks", "outcome", "rejected");
+        this.forwardedCounter = meterRegistry.counter("transactions.velocity.checks", "outcome", "forwarded");
+        this.fallbackCounter = meterRegistry.counter("transactions.velocity.checks", "outcome", "fallback");
+        this.peerToken = peerToken.getBytes(StandardCharsets.UTF_8);
+        if (peerToken.isEmpty()) {
+            log.warn("transaction.velocity.peer-token is not set; velocity limits are kept per instance");
+        }
+    }
+    
+    /**
+     * Counts a debit against the account's limits, or throws if it would exceed one.
+     * Deposits are not limited. Inside a transaction, the reservation is given back
+     * if that transaction rolls back.
+     */
+    public void reserve(TransactionType type, String accountNumber, BigDecimal amount) {
+        if (!isLimited(type)) {
+            return;
+        }
+        VelocityReservation reservation = VelocityReservation.builder()
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .at(System.currentTimeMillis())
+                .build();
+        
+        String rejection;
+        ServiceInstance owner = ownerOf(accountNumber);
+        if (owner == null) {
+            rejection = reserveLocally(reservation);
+        } else {
+            try {
+                forwardedCounter.increment();
+                VelocityDecision decision = velocityPeerClient.reserve(owner.getUri(), reservation);
+                rejection = decision.isAllowed() ? null : decision.getReason();
+            } catch (FeignException e) {
+                fallbackCounter.increment();
+                log.debug("Velocity owner {} unreachable, checking locally: {}", owner.getInstanceId(), e.getMessage());
+                rejection = reserveLocally(reservation);
+            }
+        }
+        
+        if (rejection != null) {
+            rejectedCounter.increment();
+            throw new VelocityLimitExceededException(rejection);
+        }
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(reservation);
+                    }
+                }
+            });
+        }
+    }
+    
+    /**
+     * Takes back the reservation of a debit that failed or was reversed. Inside a
+     * transaction this waits for the commit, so a rollback cannot release it twice.
+     */
+    public void release(Transaction transaction) {
+        if (!isLimited(transaction.getType())) {
+            return;
+        }
+        LocalDateTime at = transaction.getTransactionDate() != null ? transaction.getTransactionDate() : LocalDateTime.now();
+        VelocityReservation reservation = VelocityReservation.builder()
+                .accountNumber(transaction.getAccountNumber())
+                .amount(transaction.getAmount())
+                .at(at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .build();
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(reservation);
+                }
+            });
+        } else {
+            release(reservation);
+        }
+    }
+    
+    private void release(VelocityReservation reservation) {
+        ServiceInstance owner = ownerOf(reservation.getAccountNumber());
+        if (owner != null) {
+            try {
+                velocityPeerClient.release(owner.getUri(), reservation);
+                return;
+            } catch (FeignException e) {
+                log.debug("Velocity owner {} unreachable, releasing locally: {}", owner.getInstanceId(), e.getMessage());
+            }
+        }
+        releaseLocally(reservation);
+    }
+    
+    /**
+     * Whether a call to the internal endpoints carries this deployment's peer token.
+     */
+    public boolean isPeer(String token) {
+        return peerToken.length > 0 && token != null
+                && MessageDigest.isEqual(peerToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public String reserveLocally(VelocityReservation reservation) {
+        return velocityLimiter.tryReserve(reservation.getAccountNumber(), reservation.getAmount(), reservation.getAt());
+    }
+    
+    public void releaseLocally(VelocityReservation reservation) {
+        velocityLimiter.release(reservation.getAccountNumber(), reservation.getAmount(), reservation.getAt());
+    }
+    
+    /**
+     * Keeps the ring in step with the registry. Accounts that moved to this instance
+     * arrive without their windows, so those are rebuilt from history.
+     */
+    @Scheduled(fixedDelayString = "${transaction.velocity.ring-refresh-ms:30000}")
+    public void refreshRing() {
+        if (accountRouter.refresh()) {
+            velocityLimiter.rebuild();
+        }
+    }
+    
+    // Peers would refuse the call without a token, so keep every account local
+    private ServiceInstance ownerOf(String accountNumber) {
+        return peerToken.length == 0 ? null : accountRouter.ownerOf(accountNumber);
+    }
+    
+    private boolean isLimited(TransactionType type) {
+        return type == TransactionType.WITHDRAWAL || type == TransactionType.TRANSFER;
+    }
+}
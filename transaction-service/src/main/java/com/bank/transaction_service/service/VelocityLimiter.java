@@ -0,0 +1,263 @@
+package com.bank.transaction_service.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.Repository.TransactionRepository;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-account sliding-window counters (count and amount of debits) over the last hour,
+ * in one-minute buckets, and the last day, in one-hour buckets, held in memory.
+ * <p>
+ * Updates are lock-free: a reservation adds itself to the current buckets first and
+ * then sums the window, taking itself back out if a limit is exceeded. Concurrent
+ * reservations near a limit can therefore reject each other, but can never together
+ * exceed it. Accounts live in a ConcurrentHashMap, whose bins are the lock stripes.
+ * <p>
+ * The windows are rebuilt from the last day of withdrawals and transfers (completed or
+ * still pending) before the application starts taking requests.
+ */
+@Component
+@Slf4j
+public class VelocityLimiter implements SmartInitializingSingleton {
+    
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final int CLEAR_EVERY = 1000;
+    
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTemplate;
+    private volatile ConcurrentHashMap<String, AccountWindows> windows = new ConcurrentHashMap<>();
+    
+    // A limit of 0 is not enforced
+    @Value("${transaction.velocity.hourly-count:20}")
+    private long hourlyCount;
+    
+    @Value("${transaction.velocity.hourly-amount:10000}")
+    private BigDecimal hourlyAmount;
+    
+    @Value("${transaction.velocity.daily-count:100}")
+    private long dailyCount;
+    
+    @Value("${transaction.velocity.daily-amount:50000}")
+    private BigDecimal dailyAmount;
+    
+    public VelocityLimiter(TransactionRepository transactionRepository,
+                           EntityManager entityManager,
+                           PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+    
+    /**
+     * Counts a debit of the given amount at the given time against the account's
+     * windows. Returns null if it fits within every limit, the reason otherwise, in
+     * which case nothing is counted.
+     */
+    public String tryReserve(String accountNumber, BigDecimal amount, long atMillis) {
+        long cents = toCents(amount);
+        AccountWindows account = windows.computeIfAbsent(accountNumber, a -> new AccountWindows());
+        Bucket minute = account.hourly.bucketAt(atMillis / MINUTE);
+        Bucket hour = account.daily.bucketAt(atMillis / HOUR);
+        add(minute, hour, 1, cents);
+        
+        long nowMillis = System.currentTimeMillis();
+        String exceeded = exceeded("Hourly", account.hourly, nowMillis / MINUTE, hourlyCount, hourlyAmount);
+        if (exceeded == null) {
+            exceeded = exceeded("Daily", account.daily, nowMillis / HOUR, dailyCount, dailyAmount);
+        }
+        if (exceeded != null) {
+            add(minute, hour, -1, -cents);
+        }
+        return exceeded;
+    }
+    
+    /**
+     * Takes back a reservation whose transaction did not go through. The time is the
+     * transaction's own, which may fall in the bucket after the one it was reserved in;
+     * the windows' totals are the same either way.
+     */
+    public void release(String accountNumber, BigDecimal amount, long atMillis) {
+        AccountWindows account = windows.get(accountNumber);
+        if (account != null) {
+            add(account.hourly.bucketAt(atMillis / MINUTE), account.daily.bucketAt(atMillis / HOUR), -1, -toCents(amount));
+        }
+    }
+    
+    private static void add(Bucket minute, Bucket hour, long count, long cents) {
+        // A null bucket is for a time already outside the window
+        if (minute != null) {
+            minute.add(count, cents);
+        }
+        if (hour != null) {
+            hour.add(count, cents);
+        }
+    }
+    
+    private static String exceeded(String window, Window counters, long now, long countLimit, BigDecimal amountLimit) {
+        long[] totals = counters.totals(now);
+        if (countLimit > 0 && totals[0] > countLimit) {
+            return window + " limit of " + countLimit + " transactions reached";
+        }
+        if (amountLimit.signum() > 0 && totals[1] > toCents(amountLimit)) {
+            return window + " limit of " + amountLimit + " exceeded";
+        }
+        return null;
+    }
+    
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.UP).unscaledValue().longValueExact();
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+    
+    /**
+     * Replaces the windows with what the last day of history says. Reservations made
+     * while the history is being read may be missed; they are a handful at most, as it
+     * only runs at startup and when accounts move between instances.
+     */
+    public void rebuild() {
+        LocalDateTime since = LocalDateTime.now().minusDays(1);
+        ConcurrentHashMap<String, AccountWindows> rebuilt = new ConcurrentHashMap<>();
+        long started = System.nanoTime();
+        
+        Long rows = readOnlyTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<Transaction> debits = transactionRepository.streamByTypeAndStatusSince(
+                    List.of(TransactionType.WITHDRAWAL, TransactionType.TRANSFER),
+                    List.of(TransactionStatus.COMPLETED, TransactionStatus.PENDING), since)) {
+                for (Transaction debit : (Iterable<Transaction>) debits::iterator) {
+                    long at = debit.getTransactionDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    AccountWindows account = rebuilt.computeIfAbsent(debit.getAccountNumber(), a -> new AccountWindows());
+                    add(account.hourly.bucketAt(at / MINUTE), account.daily.bucketAt(at / HOUR), 1, toCents(debit.getAmount()));
+                    if (++count % CLEAR_EVERY == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return count;
+        });
+        windows = rebuilt;
+        log.info("Velocity windows rebuilt from {} debits on {} accounts in {} ms",
+                 rows, rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    /**
+     * Drops accounts with no debit in the last day. One racing with a new reservation
+     * can lose that reservation; the account has been idle for a day, so this is rare.
+     */
+    @Scheduled(fixedDelayString = "${transaction.velocity.sweep-interval-ms:600000}")
+    public void evictIdleAccounts() {
+        long nowHour = System.currentTimeMillis() / HOUR;
+        List<String> idle = new ArrayList<>();
+        windows.forEach((accountNumber, account) -> {
+            if (account.daily.isEmpty(nowHour)) {
+                idle.add(accountNumber);
+            }
+        });
+        idle.forEach(windows::remove);
+    }
+    
+    private static final class AccountWindows {
+        final Window hourly = new Window(60);
+        final Window daily = new Window(24);
+    }
+    
+    /**
+     * A ring of buckets, one per period; a slot is taken over by a newer period once the
+     * one it holds has left the window. Buckets are created when first written.
+     */
+    private static final class Window {
+        
+        private final AtomicReferenceArray<Bucket> slots;
+        
+        Window(int periods) {
+            this.slots = new AtomicReferenceArray<>(periods);
+        }
+        
+        Bucket bucketAt(long period) {
+            int slot = (int) Math.floorMod(period, (long) slots.length());
+            while (true) {
+                Bucket current = slots.get(slot);
+                if (current != null && current.period == period) {
+                    return current;
+                }
+                if (current != null && current.period > period) {
+                    return null;
+                }
+                Bucket fresh = new Bucket(period);
+                if (slots.compareAndSet(slot, current, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+        
+        // {count, cents} over the periods in the window ending at now
+        long[] totals(long now) {
+            long count = 0;
+            long cents = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                Bucket bucket = slots.get(i);
+                if (bucket != null && bucket.period > now - slots.length()) {
+                    count += bucket.count.get();
+                    cents += bucket.cents.get();
+                }
+            }
+            return new long[] { count, cents };
+        }
+        
+        boolean isEmpty(long now) {
+            for (int i = 0; i < slots.length(); i++) {
+                Bucket bucket = slots.get(i);
+                if (bucket != null && bucket.period > now - slots.length() && bucket.count.get() > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+    
+    private static final class Bucket {
+        
+        final long period;
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong cents = new AtomicLong();
+        
+        Bucket(long period) {
+            this.period = period;
+        }
+        
+        void add(long count, long cents) {
+            this.count.addAndGet(count);
+            this.cents.addAndGet(cents);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+-- Daily rollups used to count a transfer only on its sender's day. Recount the rows
+-- written then from both sides of the transactions, and add the days on which an
+-- account only received transfers; a no-op once every row is marked with_incoming.
+
+INSERT INTO daily_account_summaries (account_number, summary_date, transaction_count,
+                                     total_credits, total_debits, completed_only, with_incoming)
+SELECT t.to_account_number, CAST(t.transaction_date AS date), count(*), SUM(t.amount), 0, true, true
+FROM transactions t
+WHERE t.type = 'TRANSFER' AND t.status = 'COMPLETED' AND t.to_account_number IS NOT NULL
+  AND EXISTS (SELECT 1 FROM daily_account_summaries WHERE NOT with_incoming)
+GROUP BY t.to_account_number, CAST(t.transaction_date AS date)
+ON CONFLICT (account_number, summary_date) DO NOTHING;
+
+UPDATE daily_account_summaries s
+SET transaction_count = (SELECT count(*) FROM transactions t
+                         WHERE (t.account_number = s.account_number
+                                OR (t.type = 'TRANSFER' AND t.to_account_number = s.account_number))
+                           AND t.status = 'COMPLETED'
+                           AND t.transaction_date >= s.summary_date
+                           AND t.transaction_date < s.summary_date + 1),
+    total_credits = (SELECT COALESCE(SUM(t.amount), 0) FROM transactions t
+                     WHERE ((t.type = 'DEPOSIT' AND t.account_number = s.account_number)
+                            OR (t.type = 'TRANSFER' AND t.to_account_number = s.account_number))
+                       AND t.status = 'COMPLETED'
+                       AND t.transaction_date >= s.summary_date
+                       AND t.transaction_date < s.summary_date + 1),
+    total_debits = (SELECT COALESCE(SUM(t.amount), 0) FROM transactions t
+                    WHERE t.type IN ('WITHDRAWAL', 'TRANSFER') AND t.account_number = s.account_number
+                      AND t.status = 'COMPLETED'
+                      AND t.transaction_date >= s.summary_date
+                      AND t.transaction_date < s.summary_date + 1),
+    with_incoming = true
+WHERE NOT s.with_incoming;
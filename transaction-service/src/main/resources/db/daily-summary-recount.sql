@@ -0,0 +1,11 @@
+-- Daily rollups used to count failed and reversed transactions in transaction_count
+-- (their amounts were already left out). Recount the rows written then from the
+-- transactions themselves; a no-op once every row is marked completed_only.
+UPDATE daily_account_summaries s
+SET transaction_count = (SELECT count(*) FROM transactions t
+                         WHERE t.account_number = s.account_number
+                           AND t.status = 'COMPLETED'
+                           AND t.transaction_date >= s.summary_date
+                           AND t.transaction_date < s.summary_date + 1),
+    completed_only = true
+WHERE NOT s.completed_only;
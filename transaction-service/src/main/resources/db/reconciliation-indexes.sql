@@ -0,0 +1,11 @@
+-- Completed rows by account number in byte order ("C" collation), the order
+-- reconciliation merges balances in. Each partition of the ledger side becomes two
+-- index-only range scans feeding a streaming group-by.
+
+CREATE INDEX IF NOT EXISTS idx_recon_account
+ON transactions (account_number COLLATE "C") INCLUDE (type, amount)
+WHERE status = 'COMPLETED';
+
+CREATE INDEX IF NOT EXISTS idx_recon_to_account
+ON transactions (to_account_number COLLATE "C") INCLUDE (amount)
+WHERE status = 'COMPLETED' AND type = 'TRANSFER';
@@ -0,0 +1,16 @@
+-- Running balances per account, on whichever side of the transaction the account is,
+-- in the order the balances were applied. The partial indexes hold only rows that
+-- carry a balance for that side.
+
+CREATE INDEX IF NOT EXISTS idx_balance_account
+ON transactions (account_number, balance_recorded_at, id)
+WHERE balance_after IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_balance_to_account
+ON transactions (to_account_number, balance_recorded_at, id)
+WHERE to_balance_after IS NOT NULL;
+
+-- Rows that recorded a balance before balance_recorded_at existed: their creation time
+-- is the best estimate. A no-op once they are filled in.
+UPDATE transactions SET balance_recorded_at = transaction_date
+WHERE balance_after IS NOT NULL AND balance_recorded_at IS NULL;
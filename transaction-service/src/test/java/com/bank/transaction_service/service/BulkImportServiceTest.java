@@ -0,0 +1,180 @@
+package com.bank.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bank.transaction_service.Entity.ImportJob;
+import com.bank.transaction_service.Entity.ImportStatus;
+import com.bank.transaction_service.Repository.ImportJobRepository;
+import com.bank.transaction_service.dto.BatchTransactionResponse;
+import com.bank.transaction_service.dto.TransactionRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BulkImportServiceTest {
+    
+    private static final String HEADER = "type,accountNumber,toAccountNumber,amount,referenceNumber,description\n";
+    private static final String ROW_1 = "DEPOSIT,1000000001,,10.00,REF-1,first\n";
+    private static final String ROW_2 = "WITHDRAWAL,1000000001,,2.50,REF-2,second\n";
+    private static final String INVALID = "DEPOSIT,1000000001,,ten,REF-3,third\n";
+    private static final String ROW_4 = "TRANSFER,1000000001,1000000002,1.00,,fourth\n";
+    
+    @TempDir
+    Path directory;
+    
+    @Mock
+    private ImportJobRepository importJobRepository;
+    
+    @Mock
+    private TransactionService transactionService;
+    
+    private BulkImportService bulkImportService;
+    
+    // processBatch is handed a window that is cleared afterwards, so keep copies
+    private final List<List<TransactionRequest>> windows = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(directory.resolve("transactions.csv"), HEADER + ROW_1 + ROW_2 + INVALID + ROW_4,
+                          StandardCharsets.UTF_8);
+        bulkImportService = new BulkImportService(importJobRepository, transactionService,
+                                                  new SimpleMeterRegistry(), directory.toString());
+        ReflectionTestUtils.setField(bulkImportService, "windowSize", 2);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        bulkImportService.destroy();
+    }
+    
+    @Test
+    void importsInWindowsAndCheckpointsAfterEach() {
+        ImportJob job = job(0, 0);
+        when(importJobRepository.findById(7L)).thenReturn(Optional.of(job));
+        answerBatches();
+        
+        run(job);
+        
+        assertThat(windows).hasSize(2);
+        assertThat(windows.get(0)).extracting(TransactionRequest::getReferenceNumber)
+                .containsExactly("REF-1", "REF-2");
+        // Rows without a reference get one from their line
+        assertThat(windows.get(1)).extracting(TransactionRequest::getReferenceNumber)
+                .containsExactly("IMP7-5");
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(job.getRowsSucceeded()).isEqualTo(3);
+        assertThat(job.getRowsRejected()).isEqualTo(1);
+        assertThat(job.getCheckpointOffset()).isEqualTo(job.getFileSize());
+        assertThat(job.getCheckpointLine()).isEqualTo(5);
+        assertThat(job.getFinishedAt()).isNotNull();
+    }
+    
+    @Test
+    void resumesFromTheCheckpoint() {
+        // Interrupted after the first window: header and two rows committed
+        ImportJob job = job(HEADER.length() + ROW_1.length() + ROW_2.length(), 3);
+        job.setRowsSucceeded(2);
+        when(importJobRepository.findById(7L)).thenReturn(Optional.of(job));
+        answerBatches();
+        
+        run(job);
+        
+        assertThat(windows).hasSize(1);
+        assertThat(windows.get(0)).extracting(TransactionRequest::getReferenceNumber)
+                .containsExactly("IMP7-5");
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(job.getRowsSucceeded()).isEqualTo(3);
+        assertThat(job.getRowsRejected()).isEqualTo(1);
+        assertThat(job.getCheckpointLine()).isEqualTo(5);
+    }
+    
+    @Test
+    void resumingAtTheEndOfTheFileImportsNothing() {
+        ImportJob job = job(HEADER.length() + ROW_1.length() + ROW_2.length() + INVALID.length() + ROW_4.length(), 5);
+        job.setRowsSucceeded(3);
+        when(importJobRepository.findById(7L)).thenReturn(Optional.of(job));
+        
+        run(job);
+        
+        verify(transactionService, never()).processBatch(anyList());
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(job.getRowsSucceeded()).isEqualTo(3);
+    }
+    
+    @Test
+    void failedWindowLeavesTheCheckpointBeforeIt() {
+        ImportJob job = job(0, 0);
+        when(importJobRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(transactionService.processBatch(anyList()))
+                .thenReturn(BatchTransactionResponse.builder().successCount(2).build())
+                .thenThrow(new IllegalStateException("Database unavailable"));
+        
+        run(job);
+        
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.FAILED);
+        assertThat(job.getLastError()).isEqualTo("Database unavailable");
+        assertThat(job.getCheckpointOffset()).isEqualTo(HEADER.length() + ROW_1.length() + ROW_2.length());
+        assertThat(job.getCheckpointLine()).isEqualTo(3);
+        verify(transactionService, times(2)).processBatch(anyList());
+    }
+    
+    @Test
+    void missingFileFailsTheJob() throws IOException {
+        Files.delete(directory.resolve("transactions.csv"));
+        ImportJob job = job(0, 0);
+        when(importJobRepository.findById(7L)).thenReturn(Optional.of(job));
+        
+        run(job);
+        
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.FAILED);
+        assertThat(job.getLastError()).isNotNull();
+        verify(importJobRepository).save(job);
+    }
+    
+    private void run(ImportJob job) {
+        ReflectionTestUtils.invokeMethod(bulkImportService, "run", job.getId());
+    }
+    
+    private void answerBatches() {
+        when(transactionService.processBatch(anyList())).thenAnswer(invocation -> {
+            List<TransactionRequest> window = invocation.getArgument(0);
+            windows.add(List.copyOf(window));
+            return BatchTransactionResponse.builder()
+                    .totalCount(window.size())
+                    .successCount(window.size())
+                    .build();
+        });
+    }
+    
+    private static ImportJob job(long checkpointOffset, long checkpointLine) {
+        return ImportJob.builder()
+                .id(7L)
+                .fileName("transactions.csv")
+                .status(ImportStatus.RUNNING)
+                .checkpointOffset(checkpointOffset)
+                .checkpointLine(checkpointLine)
+                .build();
+    }
+}
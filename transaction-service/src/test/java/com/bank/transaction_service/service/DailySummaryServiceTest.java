@@ -0,0 +1,92 @@
+package com.bank.transaction_service.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.Repository.DailyAccountSummaryRepository;
+import com.bank.transaction_service.Repository.TransactionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DailySummaryServiceTest {
+    
+    private static final String ACCOUNT = "1000000001";
+    private static final LocalDateTime MORNING = LocalDateTime.of(2026, 3, 2, 9, 0);
+    
+    @Mock
+    private DailyAccountSummaryRepository summaryRepository;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @InjectMocks
+    private DailySummaryService dailySummaryService;
+    
+    @Test
+    void closingBalanceIsTheOneRecordedLastWhateverTheTransactionIds() {
+        // An ID from before Snowflake IDs sorts after the newer one
+        Transaction older = deposit("TXN-ZZZZ", 1L, "100.00", MORNING);
+        Transaction newer = deposit("0000000000001", 2L, "150.00", MORNING.plusHours(1));
+        
+        dailySummaryService.record(List.of(newer, older));
+        
+        verify(summaryRepository).upsert(eq(ACCOUNT), eq(LocalDate.of(2026, 3, 2)), eq(2), any(), any(),
+                                         eq(new BigDecimal("150.00")), eq(MORNING.plusHours(1)),
+                                         eq("0000000000001"));
+    }
+    
+    @Test
+    void receivedTransferAddsToTheRecipientsDay() {
+        Transaction transfer = Transaction.builder()
+                .id(3L)
+                .transactionId("0000000000003")
+                .type(TransactionType.TRANSFER)
+                .status(TransactionStatus.COMPLETED)
+                .accountNumber("1000000002")
+                .toAccountNumber(ACCOUNT)
+                .amount(new BigDecimal("25.00"))
+                .balanceAfter(new BigDecimal("75.00"))
+                .toBalanceAfter(new BigDecimal("125.00"))
+                .balanceRecordedAt(MORNING)
+                .transactionDate(MORNING)
+                .build();
+        
+        dailySummaryService.record(List.of(transfer));
+        
+        verify(summaryRepository).upsert(eq(ACCOUNT), any(), anyInt(), eq(new BigDecimal("25.00")),
+                                         eq(BigDecimal.ZERO), eq(new BigDecimal("125.00")), eq(MORNING),
+                                         eq("0000000000003"));
+        verify(summaryRepository).upsert(eq("1000000002"), any(), anyInt(), eq(BigDecimal.ZERO),
+                                         eq(new BigDecimal("25.00")), eq(new BigDecimal("75.00")), eq(MORNING),
+                                         eq("0000000000003"));
+    }
+    
+    private static Transaction deposit(String transactionId, Long id, String balanceAfter, LocalDateTime recordedAt) {
+        return Transaction.builder()
+                .id(id)
+                .transactionId(transactionId)
+                .type(TransactionType.DEPOSIT)
+                .status(TransactionStatus.COMPLETED)
+                .accountNumber(ACCOUNT)
+                .amount(new BigDecimal("50.00"))
+                .balanceAfter(new BigDecimal(balanceAfter))
+                .balanceRecordedAt(recordedAt)
+                .transactionDate(MORNING)
+                .build();
+    }
+}
@@ -0,0 +1,212 @@
+package com.bank.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.Exception.IdempotencyKeyConflictException;
+import com.bank.transaction_service.Exception.TransactionFailedException;
+import com.bank.transaction_service.dto.TransactionRequest;
+import com.bank.transaction_service.dto.TransactionResponse;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+    
+    @Mock
+    private TransactionService transactionService;
+    
+    private IdempotencyService idempotencyService;
+    
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(transactionService, 100, Duration.ofHours(1));
+    }
+    
+    @Test
+    void executesOnceAndReplaysFromTheCache() {
+        TransactionRequest request = request("REF-1");
+        TransactionResponse completed = response("1", TransactionStatus.COMPLETED);
+        when(transactionService.findByIdempotencyKey("key-1")).thenReturn(Optional.empty());
+        when(transactionService.processTransaction(request, "key-1")).thenReturn(completed);
+        
+        assertThat(idempotencyService.submit(request, "key-1")).isSameAs(completed);
+        assertThat(idempotencyService.submit(request, "key-1")).isSameAs(completed);
+        
+        verify(transactionService, times(1)).processTransaction(request, "key-1");
+        verify(transactionService, times(1)).findByIdempotencyKey("key-1");
+    }
+    
+    @Test
+    void fallsBackToTheReferenceNumberWhenNoKeyIsGiven() {
+        TransactionRequest request = request("REF-2");
+        TransactionResponse completed = response("2", TransactionStatus.COMPLETED);
+        when(transactionService.findByIdempotencyKey("REF-2")).thenReturn(Optional.empty());
+        when(transactionService.processTransaction(request, "REF-2")).thenReturn(completed);
+        
+        assertThat(idempotencyService.submit(request, " ")).isSameAs(completed);
+    }
+    
+    @Test
+    void requestsWithoutAnyKeyAreNotDeduplicated() {
+        TransactionRequest request = request(null);
+        when(transactionService.processTransaction(request, null))
+                .thenReturn(response("3", TransactionStatus.COMPLETED));
+        
+        idempotencyService.submit(request, null);
+        idempotencyService.submit(request, null);
+        
+        verify(transactionService, times(2)).processTransaction(request, null);
+        verify(transactionService, never()).findByIdempotencyKey(anyString());
+    }
+    
+    @Test
+    void replaysAStoredOutcomeWithoutExecuting() {
+        TransactionResponse stored = response("4", TransactionStatus.COMPLETED);
+        when(transactionService.findByIdempotencyKey("key-4")).thenReturn(Optional.of(stored));
+        
+        assertThat(idempotencyService.submit(request("REF-4"), "key-4")).isSameAs(stored);
+        
+        verify(transactionService, never()).processTransaction(any(), any());
+    }
+    
+    @Test
+    void replaysAStoredFailureAsAFailure() {
+        TransactionResponse failed = response("5", TransactionStatus.FAILED);
+        failed.setFailureReason("Insufficient funds");
+        when(transactionService.findByIdempotencyKey("key-5")).thenReturn(Optional.of(failed));
+        
+        assertThatThrownBy(() -> idempotencyService.submit(request("REF-5"), "key-5"))
+                .isInstanceOf(TransactionFailedException.class)
+                .hasMessageContaining("Insufficient funds");
+        // Cached after the first replay
+        assertThatThrownBy(() -> idempotencyService.submit(request("REF-5"), "key-5"))
+                .isInstanceOf(TransactionFailedException.class);
+        
+        verify(transactionService, times(1)).findByIdempotencyKey("key-5");
+        verify(transactionService, never()).processTransaction(any(), any());
+    }
+    
+    @Test
+    void pendingOutcomesAreNotCached() {
+        TransactionResponse pending = response("6", TransactionStatus.PENDING);
+        TransactionResponse completed = response("6", TransactionStatus.COMPLETED);
+        when(transactionService.findByIdempotencyKey("key-6"))
+                .thenReturn(Optional.of(pending), Optional.of(completed));
+        
+        assertThat(idempotencyService.submit(request("REF-6"), "key-6").getStatus())
+                .isEqualTo(TransactionStatus.PENDING);
+        assertThat(idempotencyService.submit(request("REF-6"), "key-6").getStatus())
+                .isEqualTo(TransactionStatus.COMPLETED);
+    }
+    
+    @Test
+    void losingTheDuplicateKeyRaceAnswersWithTheWinner() {
+        TransactionRequest request = request("REF-7");
+        TransactionResponse winner = response("7", TransactionStatus.COMPLETED);
+        when(transactionService.findByIdempotencyKey("key-7"))
+                .thenReturn(Optional.empty(), Optional.of(winner));
+        when(transactionService.processTransaction(request, "key-7"))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates idx_idempotency_key"));
+        
+        assertThat(idempotencyService.submit(request, "key-7")).isSameAs(winner);
+        // The winner's outcome is cached for later repeats
+        assertThat(idempotencyService.submit(request, "key-7")).isSameAs(winner);
+        
+        verify(transactionService, times(1)).processTransaction(request, "key-7");
+        verify(transactionService, times(2)).findByIdempotencyKey("key-7");
+    }
+    
+    @Test
+    void anIntegrityViolationWithoutAWinnerIsRethrown() {
+        TransactionRequest request = request("REF-8");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not a duplicate");
+        when(transactionService.findByIdempotencyKey("key-8")).thenReturn(Optional.empty());
+        when(transactionService.processTransaction(request, "key-8")).thenThrow(violation);
+        
+        assertThatThrownBy(() -> idempotencyService.submit(request, "key-8")).isSameAs(violation);
+    }
+    
+    @Test
+    void aFailedExecutionIsCachedAndRethrown() {
+        TransactionRequest request = request("REF-9");
+        TransactionResponse failed = response("9", TransactionStatus.FAILED);
+        when(transactionService.findByIdempotencyKey("key-9"))
+                .thenReturn(Optional.empty(), Optional.of(failed));
+        when(transactionService.processTransaction(request, "key-9"))
+                .thenThrow(new TransactionFailedException("Transaction failed: Insufficient funds"));
+        
+        assertThatThrownBy(() -> idempotencyService.submit(request, "key-9"))
+                .isInstanceOf(TransactionFailedException.class);
+        assertThatThrownBy(() -> idempotencyService.submit(request, "key-9"))
+                .isInstanceOf(TransactionFailedException.class);
+        
+        verify(transactionService, times(1)).processTransaction(request, "key-9");
+    }
+    
+    @Test
+    void aDifferentRequestWithTheSameKeyIsRejected() {
+        TransactionResponse stored = response("10", TransactionStatus.COMPLETED);
+        when(transactionService.findByIdempotencyKey("REF-10")).thenReturn(Optional.of(stored));
+        // Another customer who happened to pick the same reference number
+        TransactionRequest other = request("REF-10");
+        other.setAccountNumber("1000000002");
+        
+        assertThatThrownBy(() -> idempotencyService.submit(other, null))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+        // Also when the stored outcome is served from the cache
+        assertThat(idempotencyService.submit(request("REF-10"), null)).isSameAs(stored);
+        TransactionRequest larger = request("REF-10");
+        larger.setAmount(new BigDecimal("250.00"));
+        assertThatThrownBy(() -> idempotencyService.submit(larger, null))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+        
+        verify(transactionService, never()).processTransaction(any(), any());
+    }
+    
+    @Test
+    void anEqualAmountAtAnotherScaleIsTheSameRequest() {
+        TransactionResponse stored = response("11", TransactionStatus.COMPLETED);
+        when(transactionService.findByIdempotencyKey("key-11")).thenReturn(Optional.of(stored));
+        TransactionRequest request = request("REF-11");
+        request.setAmount(new BigDecimal("25"));
+        
+        assertThat(idempotencyService.submit(request, "key-11")).isSameAs(stored);
+    }
+    
+    private static TransactionRequest request(String referenceNumber) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber("1000000001");
+        request.setType(TransactionType.DEPOSIT);
+        request.setAmount(new BigDecimal("25.00"));
+        request.setReferenceNumber(referenceNumber);
+        return request;
+    }
+    
+    private static TransactionResponse response(String transactionId, TransactionStatus status) {
+        return TransactionResponse.builder()
+                .transactionId(transactionId)
+                .accountNumber("1000000001")
+                .type(TransactionType.DEPOSIT)
+                .amount(new BigDecimal("25.00"))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,274 @@
+package com.bank.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bank.transaction_service.Client.AccountServiceClient;
+import com.bank.transaction_service.Entity.ReconciliationDiscrepancy;
+import com.bank.transaction_service.Entity.ReconciliationRun;
+import com.bank.transaction_service.Entity.ReconciliationStatus;
+import com.bank.transaction_service.Repository.ReconciliationDiscrepancyRepository;
+import com.bank.transaction_service.Repository.ReconciliationRunRepository;
+import com.bank.transaction_service.Repository.TransactionRepository;
+import com.bank.transaction_service.Repository.TransactionRepository.LedgerNet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+    
+    private static final long RUN_ID = 3L;
+    
+    @Mock
+    private ReconciliationRunRepository runRepository;
+    
+    @Mock
+    private ReconciliationDiscrepancyRepository discrepancyRepository;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private AccountServiceClient accountServiceClient;
+    
+    @Mock
+    private EntityManager entityManager;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private ReconciliationService reconciliationService;
+    
+    // saveAll is handed a buffer that is cleared afterwards, so keep copies
+    private final List<List<ReconciliationDiscrepancy>> flushes = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new ReconciliationService(runRepository, discrepancyRepository, transactionRepository,
+                                                          accountServiceClient, new ObjectMapper(), entityManager,
+                                                          transactionManager, meterRegistry, 2);
+        ReflectionTestUtils.setField(reconciliationService, "partitions", 2);
+        ReflectionTestUtils.setField(reconciliationService, "flushSize", 500);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        reconciliationService.destroy();
+    }
+    
+    @Test
+    void matchingAccountsHaveNoDiscrepancies() {
+        export("", null,
+               account("1000000001", "150.00", "100.00", "0.00"),
+               account("1000000002", "101.25", "100.00", "1.25"));
+        ledger("", null, net("1000000001", "50.00"));
+        
+        reconcilePartition("", null);
+        
+        verify(discrepancyRepository, never()).saveAll(anyList());
+        assertThat(counter("transactions.reconciliation.accounts")).isEqualTo(2);
+        assertThat(counter("transactions.reconciliation.discrepancies")).isZero();
+    }
+    
+    @Test
+    void mergeReportsEachKindOfMismatch() {
+        recordFlushes();
+        export("", null,
+               account("1000000001", "150.00", "100.00", "0.00"),
+               account("1000000003", "99.00", "100.00", "0.00"),
+               account("1000000005", "100.00", "100.00", "0.00"));
+        ledger("", null,
+               net("1000000001", "49.99"),
+               net("1000000004", "20.00"),
+               net("1000000005", "0.00"));
+        
+        reconcilePartition("", null);
+        
+        assertThat(flushes).hasSize(1);
+        Map<String, ReconciliationDiscrepancy> found = flushes.get(0).stream()
+                .collect(Collectors.toMap(ReconciliationDiscrepancy::getAccountNumber, d -> d));
+        assertThat(found).containsOnlyKeys("1000000001", "1000000003", "1000000004");
+        
+        // Balance off by a cent against the ledger
+        assertThat(found.get("1000000001").getExpectedBalance()).isEqualByComparingTo("149.99");
+        assertThat(found.get("1000000001").getDifference()).isEqualByComparingTo("0.01");
+        // No transactions, balance moved anyway
+        assertThat(found.get("1000000003").getExpectedBalance()).isEqualByComparingTo("100.00");
+        assertThat(found.get("1000000003").getDifference()).isEqualByComparingTo("-1.00");
+        // Ledger rows for an account the account service does not have
+        assertThat(found.get("1000000004").getAccountBalance()).isNull();
+        assertThat(found.get("1000000004").getExpectedBalance()).isEqualByComparingTo("20.00");
+        assertThat(found.get("1000000004").getDifference()).isEqualByComparingTo("-20.00");
+        assertThat(found.values()).allMatch(d -> d.getRunId() == RUN_ID);
+        
+        assertThat(counter("transactions.reconciliation.accounts")).isEqualTo(4);
+        assertThat(counter("transactions.reconciliation.discrepancies")).isEqualTo(3);
+    }
+    
+    @Test
+    void emptyPartitionComparesNothing() {
+        export("9", null);
+        ledger("9", null);
+        
+        reconcilePartition("9", null);
+        
+        verify(discrepancyRepository, never()).saveAll(anyList());
+        assertThat(counter("transactions.reconciliation.accounts")).isZero();
+    }
+    
+    @Test
+    void discrepanciesAreFlushedInBatches() {
+        ReflectionTestUtils.setField(reconciliationService, "flushSize", 2);
+        recordFlushes();
+        export("", null);
+        ledger("", null,
+               net("1000000001", "1.00"),
+               net("1000000002", "1.00"),
+               net("1000000003", "1.00"),
+               net("1000000004", "1.00"),
+               net("1000000005", "1.00"));
+        
+        reconcilePartition("", null);
+        
+        assertThat(flushes).extracting(List::size).containsExactly(2, 2, 1);
+        verify(entityManager, times(3)).clear();
+    }
+    
+    @Test
+    void outOfOrderInputFailsThePartition() {
+        export("", null,
+               account("1000000002", "100.00", "100.00", "0.00"),
+               account("1000000001", "100.00", "100.00", "0.00"));
+        ledger("", null);
+        
+        assertThatThrownBy(() -> reconcilePartition("", null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Reconciliation input out of order at 1000000001");
+    }
+    
+    @Test
+    void runReconcilesEveryRangeBetweenTheBoundaries() {
+        ReconciliationRun run = ReconciliationRun.builder().id(RUN_ID).status(ReconciliationStatus.RUNNING).build();
+        when(runRepository.findById(RUN_ID)).thenReturn(Optional.of(run));
+        when(accountServiceClient.getBalancePartitions(2)).thenReturn(List.of("1000000002"));
+        export("", "1000000002", account("1000000001", "100.00", "100.00", "0.00"));
+        ledger("", "1000000002");
+        export("1000000002", null,
+               account("1000000002", "100.00", "100.00", "0.00"),
+               account("1000000003", "100.00", "100.00", "0.00"));
+        ledger("1000000002", null, net("1000000003", "5.00"));
+        recordFlushes();
+        
+        ReflectionTestUtils.invokeMethod(reconciliationService, "run", RUN_ID);
+        
+        assertThat(run.getStatus()).isEqualTo(ReconciliationStatus.COMPLETED);
+        assertThat(run.getPartitions()).isEqualTo(2);
+        assertThat(run.getAccountsCompared()).isEqualTo(3);
+        assertThat(run.getDiscrepancies()).isEqualTo(1);
+        assertThat(run.getFinishedAt()).isNotNull();
+        verify(runRepository).save(run);
+    }
+    
+    @Test
+    void failedExportFailsTheRun() {
+        ReconciliationRun run = ReconciliationRun.builder().id(RUN_ID).status(ReconciliationStatus.RUNNING).build();
+        when(runRepository.findById(RUN_ID)).thenReturn(Optional.of(run));
+        when(accountServiceClient.getBalancePartitions(2)).thenReturn(List.of());
+        when(accountServiceClient.exportBalances("", null)).thenReturn(response(503, null));
+        
+        ReflectionTestUtils.invokeMethod(reconciliationService, "run", RUN_ID);
+        
+        assertThat(run.getStatus()).isEqualTo(ReconciliationStatus.FAILED);
+        assertThat(run.getLastError()).contains("failed with status 503");
+        verify(runRepository).save(run);
+    }
+    
+    private void reconcilePartition(String from, String to) {
+        ReflectionTestUtils.invokeMethod(reconciliationService, "reconcilePartition", RUN_ID, from, to);
+    }
+    
+    private void recordFlushes() {
+        when(discrepancyRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ReconciliationDiscrepancy> batch = invocation.getArgument(0);
+            flushes.add(List.copyOf(batch));
+            return batch;
+        });
+    }
+    
+    private void export(String from, String to, String... lines) {
+        String body = Arrays.stream(lines).map(line -> line + "\n").collect(Collectors.joining());
+        when(accountServiceClient.exportBalances(from, to)).thenAnswer(invocation -> response(200, body));
+    }
+    
+    private void ledger(String from, String to, LedgerNet... nets) {
+        when(transactionRepository.streamLedgerNets(from, to)).thenAnswer(invocation -> Stream.of(nets));
+    }
+    
+    private static String account(String accountNumber, String balance, String openingBalance,
+                                  String interestCredited) {
+        return "{\"accountNumber\":\"" + accountNumber + "\",\"balance\":" + balance
+                + ",\"openingBalance\":" + openingBalance + ",\"interestCredited\":" + interestCredited + "}";
+    }
+    
+    private static LedgerNet net(String accountNumber, String net) {
+        return new LedgerNet() {
+            @Override
+            public String getAccountNumber() {
+                return accountNumber;
+            }
+            
+            @Override
+            public BigDecimal getNet() {
+                return new BigDecimal(net);
+            }
+        };
+    }
+    
+    private static Response response(int status, String body) {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/accounts/balances/export", Map.of(), null,
+                                         StandardCharsets.UTF_8, null);
+        Response.Builder response = Response.builder()
+                .status(status)
+                .reason("HTTP " + status)
+                .request(request)
+                .headers(Map.of());
+        if (body != null) {
+            response.body(body, StandardCharsets.UTF_8);
+        }
+        return response.build();
+    }
+    
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+}
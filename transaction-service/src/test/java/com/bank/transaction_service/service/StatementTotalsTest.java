@@ -0,0 +1,54 @@
+package com.bank.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+
+class StatementTotalsTest {
+    
+    private static final String ACCOUNT = "1000000001";
+    private static final String OTHER = "1000000002";
+    
+    @Test
+    void receivedTransferIsADepositForTheRecipient() {
+        StatementTotals totals = new StatementTotals(ACCOUNT);
+        
+        totals.add(transaction(TransactionType.DEPOSIT, ACCOUNT, null, "100.00", TransactionStatus.COMPLETED));
+        totals.add(transaction(TransactionType.TRANSFER, OTHER, ACCOUNT, "25.00", TransactionStatus.COMPLETED));
+        totals.add(transaction(TransactionType.TRANSFER, ACCOUNT, OTHER, "40.00", TransactionStatus.COMPLETED));
+        
+        assertThat(totals.getTotalDeposits()).isEqualByComparingTo("125.00");
+        assertThat(totals.getTotalWithdrawals()).isEqualByComparingTo("40.00");
+        assertThat(totals.getTransactionCount()).isEqualTo(3);
+        assertThat(totals.getNetChange()).isEqualByComparingTo("85.00");
+    }
+    
+    @Test
+    void onlyCompletedRowsOfTheAccountCount() {
+        StatementTotals totals = new StatementTotals(ACCOUNT);
+        
+        totals.add(transaction(TransactionType.TRANSFER, OTHER, ACCOUNT, "25.00", TransactionStatus.PENDING));
+        totals.add(transaction(TransactionType.WITHDRAWAL, ACCOUNT, null, "10.00", TransactionStatus.FAILED));
+        totals.add(transaction(TransactionType.DEPOSIT, OTHER, null, "50.00", TransactionStatus.COMPLETED));
+        
+        assertThat(totals.getTransactionCount()).isZero();
+        assertThat(totals.getNetChange()).isZero();
+    }
+    
+    private static Transaction transaction(TransactionType type, String account, String toAccount,
+                                           String amount, TransactionStatus status) {
+        return Transaction.builder()
+                .type(type)
+                .accountNumber(account)
+                .toAccountNumber(toAccount)
+                .amount(new BigDecimal(amount))
+                .status(status)
+                .build();
+    }
+}
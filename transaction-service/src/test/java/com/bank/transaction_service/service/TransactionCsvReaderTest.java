@@ -0,0 +1,181 @@
+package com.bank.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.dto.TransactionRequest;
+
+class TransactionCsvReaderTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void readsRowsIntoRequests() throws IOException {
+        try (TransactionCsvReader reader = open("TRANSFER,1000000001,1000000002,125.50,REF-1,Rent, March\n")) {
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.validate()).isNull();
+            
+            TransactionRequest request = reader.toRequest("IMP1-");
+            assertThat(request.getType()).isEqualTo(TransactionType.TRANSFER);
+            assertThat(request.getAccountNumber()).isEqualTo("1000000001");
+            assertThat(request.getToAccountNumber()).isEqualTo("1000000002");
+            assertThat(request.getAmount()).isEqualByComparingTo("125.50");
+            assertThat(request.getReferenceNumber()).isEqualTo("REF-1");
+            // The description takes the rest of the line, commas included
+            assertThat(request.getDescription()).isEqualTo("Rent, March");
+            assertThat(reader.next()).isFalse();
+        }
+    }
+    
+    @Test
+    void optionalFieldsMayBeLeftOut() throws IOException {
+        try (TransactionCsvReader reader = open("DEPOSIT,1000000001,,10")) {
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.validate()).isNull();
+            
+            TransactionRequest request = reader.toRequest("IMP1-");
+            assertThat(request.getToAccountNumber()).isNull();
+            assertThat(request.getDescription()).isNull();
+            assertThat(request.getAmount()).isEqualByComparingTo("10");
+        }
+    }
+    
+    @Test
+    void rowsWithoutAReferenceGetOneFromTheirLine() throws IOException {
+        try (TransactionCsvReader reader = open("DEPOSIT,1000000001,,10.00,REF-1\nDEPOSIT,1000000001,,20.00,\n")) {
+            reader.next();
+            reader.next();
+            assertThat(reader.validate()).isNull();
+            assertThat(reader.toRequest("IMP7-").getReferenceNumber()).isEqualTo("IMP7-2");
+        }
+    }
+    
+    @Test
+    void skipsBlankLinesAndHandlesCrlf() throws IOException {
+        try (TransactionCsvReader reader = open("\r\nDEPOSIT,1000000001,,1.00,R1,first\r\n\n\nWITHDRAWAL,1000000001,,2.00,R2,second\r\n")) {
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.lineNumber()).isEqualTo(2);
+            assertThat(reader.validate()).isNull();
+            assertThat(reader.toRequest("IMP1-").getDescription()).isEqualTo("first");
+            
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.lineNumber()).isEqualTo(5);
+            assertThat(reader.validate()).isNull();
+            assertThat(reader.toRequest("IMP1-").getDescription()).isEqualTo("second");
+            
+            assertThat(reader.next()).isFalse();
+        }
+    }
+    
+    @Test
+    void recognisesTheHeaderInAnyCase() throws IOException {
+        try (TransactionCsvReader reader = open("Type,accountNumber,toAccountNumber,amount\n")) {
+            reader.next();
+            assertThat(reader.isHeader()).isTrue();
+        }
+    }
+    
+    @Test
+    void emptyFileHasNoRows() throws IOException {
+        try (TransactionCsvReader reader = open("")) {
+            assertThat(reader.next()).isFalse();
+        }
+    }
+    
+    @Test
+    void rejectsInvalidRows() throws IOException {
+        assertThat(validate("DEPOSIT,1000000001")).isEqualTo("Expected at least 4 fields, found 2");
+        assertThat(validate("deposit,1000000001,,10.00")).isEqualTo("Unsupported transaction type");
+        assertThat(validate("PAYMENT,1000000001,,10.00")).isEqualTo("Unsupported transaction type");
+        assertThat(validate("DEPOSIT,,,10.00")).isEqualTo("Account number is required");
+        assertThat(validate("TRANSFER,1000000001,,10.00")).isEqualTo("Destination account is required for transfers");
+        assertThat(validate("DEPOSIT,1000000001,,")).isEqualTo("Invalid amount");
+        assertThat(validate("DEPOSIT,1000000001,,-5.00")).isEqualTo("Invalid amount");
+        assertThat(validate("DEPOSIT,1000000001,,1e3")).isEqualTo("Invalid amount");
+        assertThat(validate("DEPOSIT,1000000001,,1.2.3")).isEqualTo("Invalid amount");
+        assertThat(validate("DEPOSIT,1000000001,,10.005")).isEqualTo("Invalid amount");
+        assertThat(validate("DEPOSIT,1000000001,,1234567890123456789")).isEqualTo("Invalid amount");
+        assertThat(validate("DEPOSIT,1000000001,,0.00")).isEqualTo("Amount must be greater than 0");
+        assertThat(validate("DEPOSIT,1000000001,,10.00,REF," + "x".repeat(1025)))
+                .isEqualTo("Field 6 is longer than 1024 bytes");
+    }
+    
+    @Test
+    void acceptsAmountsUpToTwoDecimals() throws IOException {
+        assertThat(amount("7")).isEqualByComparingTo("7");
+        assertThat(amount("7.")).isEqualByComparingTo("7");
+        assertThat(amount(".5")).isEqualByComparingTo("0.5");
+        assertThat(amount("0.01")).isEqualByComparingTo("0.01");
+        assertThat(amount("123456789012345.67")).isEqualByComparingTo("123456789012345.67");
+    }
+    
+    @Test
+    void resumesFromACheckpointWithTheSameLineNumbers() throws IOException {
+        String content = "type,accountNumber,toAccountNumber,amount,referenceNumber,description\n"
+                + "DEPOSIT,1000000001,,1.00,,first\n"
+                + "DEPOSIT,1000000001,,2.00,,second\n"
+                + "DEPOSIT,1000000001,,3.00,,third\n";
+        Path file = write(content);
+        
+        long checkpointOffset;
+        long checkpointLine;
+        String thirdReference;
+        try (TransactionCsvReader reader = new TransactionCsvReader(file, 0, 0)) {
+            reader.next();
+            reader.next();
+            checkpointOffset = reader.offsetAfterRow();
+            checkpointLine = reader.lineNumber();
+            reader.next();
+            reader.next();
+            reader.validate();
+            thirdReference = reader.toRequest("IMP1-").getReferenceNumber();
+        }
+        
+        try (TransactionCsvReader reader = new TransactionCsvReader(file, checkpointOffset, checkpointLine)) {
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.lineNumber()).isEqualTo(3);
+            assertThat(reader.validate()).isNull();
+            assertThat(reader.toRequest("IMP1-").getDescription()).isEqualTo("second");
+            
+            assertThat(reader.next()).isTrue();
+            reader.validate();
+            // Replayed rows keep the reference they had the first time
+            assertThat(reader.toRequest("IMP1-").getReferenceNumber()).isEqualTo(thirdReference);
+            assertThat(reader.next()).isFalse();
+            assertThat(reader.offsetAfterRow()).isEqualTo(content.length());
+        }
+    }
+    
+    private String validate(String line) throws IOException {
+        try (TransactionCsvReader reader = open(line + "\n")) {
+            assertThat(reader.next()).isTrue();
+            return reader.validate();
+        }
+    }
+    
+    private BigDecimal amount(String amount) throws IOException {
+        try (TransactionCsvReader reader = open("DEPOSIT,1000000001,," + amount + "\n")) {
+            reader.next();
+            assertThat(reader.validate()).isNull();
+            return reader.toRequest("IMP1-").getAmount();
+        }
+    }
+    
+    private TransactionCsvReader open(String content) throws IOException {
+        return new TransactionCsvReader(write(content), 0, 0);
+    }
+    
+    private Path write(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(directory, "import", ".csv"), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+package com.bank.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.dto.TransactionResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionLookupCacheTest {
+    
+    private static final String ID = "0000000000001";
+    
+    @Mock
+    private TransactionService transactionService;
+    
+    private TransactionLookupCache lookupCache;
+    
+    @BeforeEach
+    void setUp() {
+        lookupCache = new TransactionLookupCache(transactionService, new SimpleMeterRegistry(), 100,
+                                                 Duration.ofMinutes(10));
+    }
+    
+    @Test
+    void pendingResponseIsNotServedStale() {
+        // Written through by this instance, then completed by another instance's saga worker
+        lookupCache.onChanged(new TransactionChanged(ID, response(TransactionStatus.PENDING)));
+        when(transactionService.getTransaction(ID)).thenReturn(response(TransactionStatus.COMPLETED));
+        
+        assertThat(lookupCache.getTransaction(ID).getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+    }
+    
+    @Test
+    void pendingLookupIsReadAgainOnTheNextPoll() {
+        when(transactionService.getTransaction(ID))
+                .thenReturn(response(TransactionStatus.PENDING))
+                .thenReturn(response(TransactionStatus.COMPLETED));
+        
+        assertThat(lookupCache.getTransaction(ID).getStatus()).isEqualTo(TransactionStatus.PENDING);
+        assertThat(lookupCache.getTransaction(ID).getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+    }
+    
+    @Test
+    void settledTransactionIsServedFromTheCache() {
+        when(transactionService.getTransaction(ID)).thenReturn(response(TransactionStatus.COMPLETED));
+        
+        lookupCache.getTransaction(ID);
+        lookupCache.getTransaction(ID);
+        
+        verify(transactionService, times(1)).getTransaction(ID);
+    }
+    
+    private static TransactionResponse response(TransactionStatus status) {
+        return TransactionResponse.builder()
+                .transactionId(ID)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,491 @@
+package com.bank.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.common.id.IdGenerator;
+import com.bank.transaction_service.Client.AccountServiceClient;
+import com.bank.transaction_service.Entity.SagaState;
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.Entity.TransferSaga;
+import com.bank.transaction_service.Exception.InvalidTransactionException;
+import com.bank.transaction_service.Exception.VelocityLimitExceededException;
+import com.bank.transaction_service.Repository.TransactionRepository;
+import com.bank.transaction_service.Repository.TransferSagaRepository;
+import com.bank.transaction_service.dto.BalanceMovement;
+import com.bank.transaction_service.dto.BalanceMovementResult;
+import com.bank.transaction_service.dto.BatchBalanceUpdateRequest;
+import com.bank.transaction_service.dto.BatchTransactionResponse;
+import com.bank.transaction_service.dto.TransactionHistoryResponse;
+import com.bank.transaction_service.dto.TransactionRequest;
+import com.bank.transaction_service.dto.TransactionResponse;
+import com.bank.transaction_service.dto.TransferResponse;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountServiceClient accountServiceClient;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private AsyncTaskExecutor batchTransactionExecutor;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private DailySummaryService dailySummaryService;
+    @Mock
+    private TransferSagaRepository transferSagaRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private VelocityLimitService velocityLimitService;
+    
+    private TransactionService transactionService;
+    
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionService(transactionRepository, accountServiceClient, outboxService,
+                                                    batchTransactionExecutor, transactionTemplate, new IdGenerator(1),
+                                                    dailySummaryService, transferSagaRepository, eventPublisher,
+                                                    velocityLimitService);
+        ReflectionTestUtils.setField(transactionService, "historyMaxPageSize", 100);
+        ReflectionTestUtils.setField(transactionService, "sagaMaxAttempts", 5);
+        ReflectionTestUtils.setField(transactionService, "sagaInitialBackoffMs", 500L);
+        ReflectionTestUtils.setField(transactionService, "sagaMaxBackoffMs", 60000L);
+    }
+    
+    @Test
+    void sweeperLeavesSagaOwnedTransfersToTheSaga() {
+        Transaction deposit = transaction("TXN1", TransactionType.DEPOSIT, TransactionStatus.PENDING);
+        Transaction sagaTransfer = transaction("TXN2", TransactionType.TRANSFER, TransactionStatus.PENDING);
+        Transaction plainTransfer = transaction("TXN3", TransactionType.TRANSFER, TransactionStatus.PENDING);
+        Transaction done = transaction("TXN4", TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+        List<String> ids = List.of("TXN1", "TXN2", "TXN3", "TXN4");
+        when(transactionRepository.findAllByTransactionIdInForUpdate(ids))
+                .thenReturn(List.of(deposit, sagaTransfer, plainTransfer, done));
+        when(transferSagaRepository.findTransactionIdsIn(List.of("TXN2", "TXN3"))).thenReturn(List.of("TXN2"));
+        when(accountServiceClient.applyBalanceMovements(any())).thenReturn(List.of(
+                applied("TXN1"), applied("TXN3")));
+        
+        transactionService.completePendingTransactions(ids);
+        
+        ArgumentCaptor<BatchBalanceUpdateRequest> sent = ArgumentCaptor.forClass(BatchBalanceUpdateRequest.class);
+        verify(accountServiceClient).applyBalanceMovements(sent.capture());
+        assertThat(sent.getValue().getMovements()).extracting(BalanceMovement::getReference)
+                .containsExactly("TXN1", "TXN3");
+        assertThat(deposit.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(plainTransfer.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(sagaTransfer.getStatus()).isEqualTo(TransactionStatus.PENDING);
+        verify(transactionRepository).saveAll(List.of(deposit, plainTransfer));
+    }
+    
+    @Test
+    void sweeperDoesNotCallAccountServiceWhenEverythingBelongsToSagas() {
+        Transaction sagaTransfer = transaction("TXN1", TransactionType.TRANSFER, TransactionStatus.PENDING);
+        when(transactionRepository.findAllByTransactionIdInForUpdate(List.of("TXN1")))
+                .thenReturn(List.of(sagaTransfer));
+        when(transferSagaRepository.findTransactionIdsIn(List.of("TXN1"))).thenReturn(List.of("TXN1"));
+        
+        transactionService.completePendingTransactions(List.of("TXN1"));
+        
+        verifyNoInteractions(accountServiceClient);
+        verify(transactionRepository, never()).saveAll(anyList());
+        assertThat(sagaTransfer.getStatus()).isEqualTo(TransactionStatus.PENDING);
+    }
+    
+    @Test
+    void sweeperSkipsTheSagaLookupWithoutTransfers() {
+        Transaction deposit = transaction("TXN1", TransactionType.DEPOSIT, TransactionStatus.PENDING);
+        when(transactionRepository.findAllByTransactionIdInForUpdate(List.of("TXN1"))).thenReturn(List.of(deposit));
+        when(accountServiceClient.applyBalanceMovements(any())).thenReturn(List.of(applied("TXN1")));
+        
+        transactionService.completePendingTransactions(List.of("TXN1"));
+        
+        verify(transferSagaRepository, never()).findTransactionIdsIn(anyCollection());
+        assertThat(deposit.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+    }
+    
+    @Test
+    void sweeperLeavesTransactionsPendingWhenAccountServiceIsDown() {
+        Transaction deposit = transaction("TXN1", TransactionType.DEPOSIT, TransactionStatus.PENDING);
+        when(transactionRepository.findAllByTransactionIdInForUpdate(List.of("TXN1"))).thenReturn(List.of(deposit));
+        when(accountServiceClient.applyBalanceMovements(any())).thenThrow(feignError(503));
+        
+        transactionService.completePendingTransactions(List.of("TXN1"));
+        
+        assertThat(deposit.getStatus()).isEqualTo(TransactionStatus.PENDING);
+        verify(transactionRepository, never()).saveAll(anyList());
+        verify(velocityLimitService, never()).release(any());
+    }
+    
+    @Test
+    void sweeperFailsTransactionsAccountServiceRejects() {
+        Transaction withdrawal = transaction("TXN1", TransactionType.WITHDRAWAL, TransactionStatus.PENDING);
+        when(transactionRepository.findAllByTransactionIdInForUpdate(List.of("TXN1"))).thenReturn(List.of(withdrawal));
+        when(accountServiceClient.applyBalanceMovements(any())).thenThrow(feignError(400));
+        
+        transactionService.completePendingTransactions(List.of("TXN1"));
+        
+        assertThat(withdrawal.getStatus()).isEqualTo(TransactionStatus.FAILED);
+        verify(transactionRepository).saveAll(List.of(withdrawal));
+        verify(velocityLimitService).release(withdrawal);
+    }
+    
+    @Test
+    void sagaCompletesTheTransfer() {
+        Transaction transfer = transaction("TXN1", TransactionType.TRANSFER, TransactionStatus.PENDING);
+        TransferSaga saga = saga("TXN1", SagaState.TRANSFERRING, 0);
+        when(transferSagaRepository.lockByTransactionId("TXN1")).thenReturn(Optional.of(saga));
+        when(transactionRepository.findByTransactionId("TXN1")).thenReturn(Optional.of(transfer));
+        when(accountServiceClient.transfer(any())).thenReturn(TransferResponse.builder()
+                .fromBalance(new BigDecimal("75.00"))
+                .toBalance(new BigDecimal("125.00"))
+                .build());
+        
+        transactionService.advanceTransferSaga("TXN1");
+        
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPLETED);
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(transfer.getBalanceAfter()).isEqualByComparingTo("75.00");
+        assertThat(transfer.getToBalanceAfter()).isEqualByComparingTo("125.00");
+        verify(transactionRepository).save(transfer);
+        verify(velocityLimitService, never()).release(any());
+    }
+    
+    @Test
+    void sagaWaitsUntilItsNextAttemptIsDue() {
+        TransferSaga saga = saga("TXN1", SagaState.TRANSFERRING, 1);
+        saga.setNextAttemptAt(LocalDateTime.now().plusMinutes(1));
+        when(transferSagaRepository.lockByTransactionId("TXN1")).thenReturn(Optional.of(saga));
+        
+        transactionService.advanceTransferSaga("TXN1");
+        
+        verifyNoInteractions(accountServiceClient, transactionRepository);
+        assertThat(saga.getAttempts()).isEqualTo(1);
+    }
+    
+    @Test
+    void sagaIgnoresFinishedSagas() {
+        when(transferSagaRepository.lockByTransactionId("TXN1"))
+                .thenReturn(Optional.of(saga("TXN1", SagaState.COMPLETED, 1)));
+        
+        transactionService.advanceTransferSaga("TXN1");
+        
+        verifyNoInteractions(accountServiceClient, transactionRepository);
+        verify(transferSagaRepository, never()).save(any());
+    }
+    
+    @Test
+    void sagaBacksOffWhenTheOutcomeIsUnknown() {
+        Transaction transfer = transaction("TXN1", TransactionType.TRANSFER, TransactionStatus.PENDING);
+        TransferSaga saga = saga("TXN1", SagaState.TRANSFERRING, 0);
+        when(transferSagaRepository.lockByTransactionId("TXN1")).thenReturn(Optional.of(saga));
+        when(transactionRepository.findByTransactionId("TXN1")).thenReturn(Optional.of(transfer));
+        when(accountServiceClient.transfer(any())).thenThrow(feignError(503));
+        
+        transactionService.advanceTransferSaga("TXN1");
+        
+        assertThat(saga.getState()).isEqualTo(SagaState.TRANSFERRING);
+        assertThat(saga.getAttempts()).isEqualTo(1);
+        assertThat(saga.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.PENDING);
+        verify(transferSagaRepository).save(saga);
+        verify(transactionRepository, never()).save(any());
+    }
+    
+    @Test
+    void sagaCompensatesOnceAttemptsRunOut() {
+        Transaction transfer = transaction("TXN1", TransactionType.TRANSFER, TransactionStatus.PENDING);
+        TransferSaga saga = saga("TXN1", SagaState.TRANSFERRING, 4);
+        when(transferSagaRepository.lockByTransactionId("TXN1")).thenReturn(Optional.of(saga));
+        when(transactionRepository.findByTransactionId("TXN1")).thenReturn(Optional.of(transfer));
+        when(accountServiceClient.transfer(any())).thenThrow(feignError(504));
+        
+        transactionService.advanceTransferSaga("TXN1");
+        
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPENSATING);
+        assertThat(saga.getAttempts()).isZero();
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.PENDING);
+    }
+    
+    @Test
+    void compensationReversesTheTransfer() {
+        Transaction transfer = transaction("TXN1", TransactionType.TRANSFER, TransactionStatus.PENDING);
+        TransferSaga saga = saga("TXN1", SagaState.COMPENSATING, 0);
+        saga.setLastError("Read timed out");
+        when(transferSagaRepository.lockByTransactionId("TXN1")).thenReturn(Optional.of(saga));
+        when(transactionRepository.findByTransactionId("TXN1")).thenReturn(Optional.of(transfer));
+        
+        transactionService.advanceTransferSaga("TXN1");
+        
+        verify(accountServiceClient).cancelTransfer(any());
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPENSATED);
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.REVERSED);
+        assertThat(transfer.getFailureReason()).contains("Read timed out");
+        verify(velocityLimitService).release(transfer);
+    }
+    
+    @Test
+    void rejectedTransferFailsTheSaga() {
+        Transaction transfer = transaction("TXN1", TransactionType.TRANSFER, TransactionStatus.PENDING);
+        TransferSaga saga = saga("TXN1", SagaState.TRANSFERRING, 0);
+        when(transferSagaRepository.lockByTransactionId("TXN1")).thenReturn(Optional.of(saga));
+        when(transactionRepository.findByTransactionId("TXN1")).thenReturn(Optional.of(transfer));
+        when(accountServiceClient.transfer(any())).thenThrow(feignError(422));
+        
+        transactionService.advanceTransferSaga("TXN1");
+        
+        assertThat(saga.getState()).isEqualTo(SagaState.FAILED);
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.FAILED);
+        verify(velocityLimitService).release(transfer);
+    }
+    
+    @Test
+    void rejectedCompensationNeedsManualReview() {
+        Transaction transfer = transaction("TXN1", TransactionType.TRANSFER, TransactionStatus.PENDING);
+        TransferSaga saga = saga("TXN1", SagaState.COMPENSATING, 0);
+        when(transferSagaRepository.lockByTransactionId("TXN1")).thenReturn(Optional.of(saga));
+        when(transactionRepository.findByTransactionId("TXN1")).thenReturn(Optional.of(transfer));
+        when(accountServiceClient.cancelTransfer(any())).thenThrow(feignError(409));
+        
+        transactionService.advanceTransferSaga("TXN1");
+        
+        assertThat(saga.getState()).isEqualTo(SagaState.COMPENSATION_FAILED);
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.PENDING);
+        verify(transactionRepository, never()).save(any());
+    }
+    
+    @Test
+    void batchWithdrawalOverTheVelocityLimitFails() {
+        inBatch();
+        // The first item is over the limit, the second is not
+        doThrow(new VelocityLimitExceededException("Hourly limit of 1000 exceeded"))
+                .doNothing()
+                .when(velocityLimitService).reserve(any(), any(), any());
+        when(accountServiceClient.applyBalanceMovements(any())).thenAnswer(invocation -> invocation
+                .<BatchBalanceUpdateRequest>getArgument(0).getMovements().stream()
+                .map(movement -> BalanceMovementResult.builder()
+                        .reference(movement.getReference())
+                        .applied(true)
+                        .debitBalanceAfter(new BigDecimal("90.00"))
+                        .build())
+                .toList());
+        
+        BatchTransactionResponse response = transactionService.processBatch(List.of(
+                withdrawal("1000000001", "5000.00"),
+                withdrawal("1000000002", "10.00")));
+        
+        assertThat(response.getFailureCount()).isEqualTo(1);
+        assertThat(response.getSuccessCount()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getStatus()).isEqualTo(TransactionStatus.FAILED);
+        assertThat(response.getResults().get(0).getFailureReason()).isEqualTo("Hourly limit of 1000 exceeded");
+        ArgumentCaptor<BatchBalanceUpdateRequest> sent = ArgumentCaptor.forClass(BatchBalanceUpdateRequest.class);
+        verify(accountServiceClient).applyBalanceMovements(sent.capture());
+        assertThat(sent.getValue().getMovements()).extracting(BalanceMovement::getDebitAccountNumber)
+                .containsExactly("1000000002");
+        // Nothing was reserved for the rejected item, so there is nothing to give back
+        verify(velocityLimitService, never()).release(any());
+    }
+    
+    @Test
+    void batchItemRejectedByAccountServiceReleasesItsReservation() {
+        inBatch();
+        when(accountServiceClient.applyBalanceMovements(any())).thenAnswer(invocation -> invocation
+                .<BatchBalanceUpdateRequest>getArgument(0).getMovements().stream()
+                .map(movement -> BalanceMovementResult.builder()
+                        .reference(movement.getReference())
+                        .applied(false)
+                        .failureReason("Insufficient balance")
+                        .build())
+                .toList());
+        
+        BatchTransactionResponse response = transactionService.processBatch(List.of(withdrawal("1000000001", "10.00")));
+        
+        assertThat(response.getFailureCount()).isEqualTo(1);
+        verify(velocityLimitService).reserve(TransactionType.WITHDRAWAL, "1000000001", new BigDecimal("10.00"));
+        ArgumentCaptor<Transaction> released = ArgumentCaptor.forClass(Transaction.class);
+        verify(velocityLimitService).release(released.capture());
+        assertThat(released.getValue().getAccountNumber()).isEqualTo("1000000001");
+    }
+    
+    @Test
+    void historyPagesSeekPastTheLastRowOfThePreviousPage() {
+        LocalDateTime sameInstant = LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_793_000);
+        List<Transaction> firstPage = List.of(
+                historyRow(30L, sameInstant.plusSeconds(1)),
+                historyRow(21L, sameInstant),
+                historyRow(20L, sameInstant));
+        when(transactionRepository.findHistory("1000000001", PageRequest.of(0, 3))).thenReturn(firstPage);
+        
+        TransactionHistoryResponse first = transactionService.getAccountHistory("1000000001", null, 2);
+        
+        assertThat(first.getTransactions()).extracting(TransactionResponse::getTransactionId)
+                .containsExactly("TXN30", "TXN21");
+        assertThat(first.getNextCursor()).isNotNull();
+        
+        // Rows sharing the last row's timestamp are told apart by id
+        when(transactionRepository.findHistoryBefore("1000000001", sameInstant, 21L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(historyRow(20L, sameInstant)));
+        
+        TransactionHistoryResponse second = transactionService.getAccountHistory("1000000001", first.getNextCursor(), 2);
+        
+        assertThat(second.getTransactions()).extracting(TransactionResponse::getTransactionId)
+                .containsExactly("TXN20");
+        assertThat(second.getNextCursor()).isNull();
+    }
+    
+    @Test
+    void historyPageThatExactlyFillsHasNoNextCursor() {
+        when(transactionRepository.findHistory("1000000001", PageRequest.of(0, 3))).thenReturn(List.of(
+                historyRow(2L, LocalDateTime.now()),
+                historyRow(1L, LocalDateTime.now().minusMinutes(1))));
+        
+        TransactionHistoryResponse page = transactionService.getAccountHistory("1000000001", "", 2);
+        
+        assertThat(page.getTransactions()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+    
+    @Test
+    void historyOfAnAccountWithoutTransactionsIsEmpty() {
+        when(transactionRepository.findHistory("1000000001", PageRequest.of(0, 11))).thenReturn(List.of());
+        
+        TransactionHistoryResponse page = transactionService.getAccountHistory("1000000001", null, 10);
+        
+        assertThat(page.getTransactions()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+    
+    @Test
+    void historyPageSizeMustBeWithinBounds() {
+        assertThatThrownBy(() -> transactionService.getAccountHistory("1000000001", null, 0))
+                .isInstanceOf(InvalidTransactionException.class);
+        assertThatThrownBy(() -> transactionService.getAccountHistory("1000000001", null, 101))
+                .isInstanceOf(InvalidTransactionException.class);
+        
+        when(transactionRepository.findHistory("1000000001", PageRequest.of(0, 101))).thenReturn(List.of());
+        assertThat(transactionService.getAccountHistory("1000000001", null, 100).getTransactions()).isEmpty();
+    }
+    
+    @Test
+    void historyRejectsACorruptCursor() {
+        String notBase64 = "not a cursor!";
+        String noSeparator = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2026-03-14T09:26:53".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2026-03-14T09:26:53|abc".getBytes(StandardCharsets.UTF_8));
+        
+        for (String cursor : List.of(notBase64, noSeparator, badId)) {
+            assertThatThrownBy(() -> transactionService.getAccountHistory("1000000001", cursor, 10))
+                    .isInstanceOf(InvalidTransactionException.class)
+                    .hasMessage("Invalid cursor");
+        }
+        verifyNoInteractions(transactionRepository);
+    }
+    
+    // Runs the batch chunks on the calling thread, each inside the template's callback
+    private void inBatch() {
+        ReflectionTestUtils.setField(transactionService, "batchMaxSize", 100);
+        ReflectionTestUtils.setField(transactionService, "batchChunkSize", 50);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(batchTransactionExecutor).execute(any(Runnable.class));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+    
+    private static TransactionRequest withdrawal(String accountNumber, String amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber(accountNumber);
+        request.setType(TransactionType.WITHDRAWAL);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+    
+    private static Transaction transaction(String transactionId, TransactionType type, TransactionStatus status) {
+        return Transaction.builder()
+                .transactionId(transactionId)
+                .accountNumber("1000000001")
+                .toAccountNumber(type == TransactionType.TRANSFER ? "1000000002" : null)
+                .type(type)
+                .amount(new BigDecimal("25.00"))
+                .status(status)
+                .build();
+    }
+    
+    private static Transaction historyRow(long id, LocalDateTime transactionDate) {
+        Transaction transaction = transaction("TXN" + id, TransactionType.DEPOSIT, TransactionStatus.COMPLETED);
+        transaction.setId(id);
+        transaction.setTransactionDate(transactionDate);
+        return transaction;
+    }
+    
+    private static TransferSaga saga(String transactionId, SagaState state, int attempts) {
+        return TransferSaga.builder()
+                .transactionId(transactionId)
+                .state(state)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+    }
+    
+    private static BalanceMovementResult applied(String reference) {
+        return BalanceMovementResult.builder()
+                .reference(reference)
+                .applied(true)
+                .debitBalanceAfter(new BigDecimal("75.00"))
+                .creditBalanceAfter(new BigDecimal("125.00"))
+                .build();
+    }
+    
+    private static FeignException feignError(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, "/api/accounts", Map.of(), null,
+                                         StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("AccountServiceClient", Response.builder()
+                .status(status)
+                .reason("HTTP " + status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
@@ -0,0 +1,229 @@
+package com.bank.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.transaction_service.Client.VelocityPeerClient;
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.Exception.VelocityLimitExceededException;
+import com.bank.transaction_service.dto.VelocityDecision;
+import com.bank.transaction_service.dto.VelocityReservation;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class VelocityLimitServiceTest {
+    
+    private static final String ACCOUNT = "1000000001";
+    private static final URI OWNER_URI = URI.create("http://10.0.0.2:8082");
+    
+    @Mock
+    private VelocityLimiter velocityLimiter;
+    
+    @Mock
+    private AccountRouter accountRouter;
+    
+    @Mock
+    private VelocityPeerClient velocityPeerClient;
+    
+    @Mock
+    private ServiceInstance owner;
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void depositsAreNotLimited() {
+        service("").reserve(TransactionType.DEPOSIT, ACCOUNT, new BigDecimal("1000000.00"));
+        
+        verifyNoInteractions(velocityLimiter, accountRouter, velocityPeerClient);
+    }
+    
+    @Test
+    void withoutAPeerTokenEveryAccountIsCheckedLocally() {
+        when(velocityLimiter.tryReserve(eq(ACCOUNT), any(), anyLong())).thenReturn(null);
+        
+        service("").reserve(TransactionType.WITHDRAWAL, ACCOUNT, new BigDecimal("10.00"));
+        
+        verifyNoInteractions(accountRouter, velocityPeerClient);
+    }
+    
+    @Test
+    void localRejectionFailsTheDebit() {
+        when(velocityLimiter.tryReserve(eq(ACCOUNT), any(), anyLong())).thenReturn("Hourly limit of 20 transactions reached");
+        
+        assertThatThrownBy(() -> service("").reserve(TransactionType.TRANSFER, ACCOUNT, new BigDecimal("10.00")))
+                .isInstanceOf(VelocityLimitExceededException.class)
+                .hasMessage("Hourly limit of 20 transactions reached");
+    }
+    
+    @Test
+    void accountsOwnedElsewhereAreCheckedByTheirOwner() {
+        when(accountRouter.ownerOf(ACCOUNT)).thenReturn(owner);
+        when(owner.getUri()).thenReturn(OWNER_URI);
+        when(velocityPeerClient.reserve(eq(OWNER_URI), any()))
+                .thenReturn(VelocityDecision.builder().allowed(false).reason("Daily limit of 50000 exceeded").build());
+        
+        assertThatThrownBy(() -> service("secret").reserve(TransactionType.WITHDRAWAL, ACCOUNT, new BigDecimal("10.00")))
+                .isInstanceOf(VelocityLimitExceededException.class)
+                .hasMessage("Daily limit of 50000 exceeded");
+        verifyNoInteractions(velocityLimiter);
+    }
+    
+    @Test
+    void unreachableOwnerFallsBackToLocalWindows() {
+        when(accountRouter.ownerOf(ACCOUNT)).thenReturn(owner);
+        when(owner.getUri()).thenReturn(OWNER_URI);
+        when(velocityPeerClient.reserve(eq(OWNER_URI), any())).thenThrow(feignError(503));
+        when(velocityLimiter.tryReserve(eq(ACCOUNT), any(), anyLong())).thenReturn(null);
+        
+        service("secret").reserve(TransactionType.WITHDRAWAL, ACCOUNT, new BigDecimal("10.00"));
+        
+        verify(velocityLimiter).tryReserve(eq(ACCOUNT), any(), anyLong());
+    }
+    
+    @Test
+    void reservationIsReleasedWhenItsTransactionRollsBack() {
+        when(velocityLimiter.tryReserve(eq(ACCOUNT), any(), anyLong())).thenReturn(null);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        service("").reserve(TransactionType.WITHDRAWAL, ACCOUNT, new BigDecimal("10.00"));
+        verify(velocityLimiter, never()).release(anyString(), any(), anyLong());
+        
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        verify(velocityLimiter).release(eq(ACCOUNT), eq(new BigDecimal("10.00")), anyLong());
+    }
+    
+    @Test
+    void reservationIsKeptWhenItsTransactionCommits() {
+        when(velocityLimiter.tryReserve(eq(ACCOUNT), any(), anyLong())).thenReturn(null);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        service("").reserve(TransactionType.WITHDRAWAL, ACCOUNT, new BigDecimal("10.00"));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        
+        verify(velocityLimiter, never()).release(anyString(), any(), anyLong());
+    }
+    
+    @Test
+    void releaseInsideATransactionWaitsForTheCommit() {
+        LocalDateTime at = LocalDateTime.now().minusMinutes(5);
+        Transaction failed = Transaction.builder()
+                .transactionId("TXN1")
+                .accountNumber(ACCOUNT)
+                .type(TransactionType.WITHDRAWAL)
+                .status(TransactionStatus.FAILED)
+                .amount(new BigDecimal("10.00"))
+                .transactionDate(at)
+                .build();
+        TransactionSynchronizationManager.initSynchronization();
+        
+        service("").release(failed);
+        verify(velocityLimiter, never()).release(anyString(), any(), anyLong());
+        
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        
+        verify(velocityLimiter).release(ACCOUNT, new BigDecimal("10.00"),
+                                        at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+    
+    @Test
+    void releaseOutsideATransactionIsImmediate() {
+        Transaction failed = Transaction.builder()
+                .accountNumber(ACCOUNT)
+                .type(TransactionType.TRANSFER)
+                .amount(new BigDecimal("10.00"))
+                .build();
+        
+        service("").release(failed);
+        
+        verify(velocityLimiter).release(eq(ACCOUNT), eq(new BigDecimal("10.00")), anyLong());
+    }
+    
+    @Test
+    void peersMustPresentTheConfiguredToken() {
+        VelocityLimitService withToken = service("secret");
+        assertThat(withToken.isPeer("secret")).isTrue();
+        assertThat(withToken.isPeer("Secret")).isFalse();
+        assertThat(withToken.isPeer("")).isFalse();
+        assertThat(withToken.isPeer(null)).isFalse();
+        
+        // Without a configured token nobody is a peer
+        VelocityLimitService withoutToken = service("");
+        assertThat(withoutToken.isPeer("")).isFalse();
+        assertThat(withoutToken.isPeer(null)).isFalse();
+    }
+    
+    @Test
+    void localEndpointsUseTheReservationAsSent() {
+        VelocityReservation reservation = VelocityReservation.builder()
+                .accountNumber(ACCOUNT)
+                .amount(new BigDecimal("10.00"))
+                .at(1_700_000_000_000L)
+                .build();
+        VelocityLimitService service = service("secret");
+        
+        service.reserveLocally(reservation);
+        service.releaseLocally(reservation);
+        
+        verify(velocityLimiter).tryReserve(ACCOUNT, new BigDecimal("10.00"), 1_700_000_000_000L);
+        verify(velocityLimiter).release(ACCOUNT, new BigDecimal("10.00"), 1_700_000_000_000L);
+    }
+    
+    private VelocityLimitService service(String peerToken) {
+        return new VelocityLimitService(velocityLimiter, accountRouter, velocityPeerClient,
+                                        new SimpleMeterRegistry(), peerToken);
+    }
+    
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+    
+    private static FeignException feignError(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, "/internal/velocity/reserve", Map.of(), null,
+                                         StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("VelocityPeerClient", Response.builder()
+                .status(status)
+                .reason("HTTP " + status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
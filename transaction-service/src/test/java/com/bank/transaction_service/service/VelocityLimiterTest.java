@@ -0,0 +1,187 @@
+package com.bank.transaction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bank.transaction_service.Entity.Transaction;
+import com.bank.transaction_service.Entity.TransactionStatus;
+import com.bank.transaction_service.Entity.TransactionType;
+import com.bank.transaction_service.Repository.TransactionRepository;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class VelocityLimiterTest {
+    
+    private static final String ACCOUNT = "1000000001";
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private EntityManager entityManager;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private VelocityLimiter velocityLimiter;
+    
+    @BeforeEach
+    void setUp() {
+        velocityLimiter = new VelocityLimiter(transactionRepository, entityManager, transactionManager);
+        limits(0, 0, 0, 0);
+    }
+    
+    @Test
+    void rejectsTheDebitOverTheHourlyCount() {
+        limits(3, 0, 0, 0);
+        long now = System.currentTimeMillis();
+        
+        for (int i = 0; i < 3; i++) {
+            assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now)).isNull();
+        }
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now))
+                .isEqualTo("Hourly limit of 3 transactions reached");
+        // Other accounts have windows of their own
+        assertThat(velocityLimiter.tryReserve("1000000002", new BigDecimal("1.00"), now)).isNull();
+    }
+    
+    @Test
+    void amountLimitAllowsReachingItButNotExceedingIt() {
+        limits(0, 100, 0, 0);
+        long now = System.currentTimeMillis();
+        
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("60.00"), now)).isNull();
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("40.01"), now))
+                .isEqualTo("Hourly limit of 100 exceeded");
+        // The rejected debit was not counted
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("40.00"), now)).isNull();
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("0.01"), now)).isNotNull();
+    }
+    
+    @Test
+    void fractionsOfACentAreRoundedUp() {
+        limits(0, 1, 0, 0);
+        long now = System.currentTimeMillis();
+        
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("0.999"), now)).isNull();
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("0.001"), now)).isNotNull();
+    }
+    
+    @Test
+    void debitsOlderThanAnHourOnlyCountTowardsTheDay() {
+        limits(1, 0, 2, 0);
+        long now = System.currentTimeMillis();
+        
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now - 3 * HOUR)).isNull();
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now - 2 * HOUR)).isNull();
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now))
+                .isEqualTo("Daily limit of 2 transactions reached");
+    }
+    
+    @Test
+    void hourlyWindowSlidesByTheMinute() {
+        limits(1, 0, 0, 0);
+        long now = System.currentTimeMillis();
+        
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now - 61 * MINUTE)).isNull();
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now - 58 * MINUTE)).isNull();
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now)).isNotNull();
+    }
+    
+    @Test
+    void debitsOlderThanADayAreNotCounted() {
+        limits(0, 0, 1, 0);
+        long now = System.currentTimeMillis();
+        
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now - 25 * HOUR)).isNull();
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now)).isNull();
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now)).isNotNull();
+    }
+    
+    @Test
+    void releaseGivesTheReservationBack() {
+        limits(1, 50, 0, 0);
+        long now = System.currentTimeMillis();
+        
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("50.00"), now)).isNull();
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now)).isNotNull();
+        
+        velocityLimiter.release(ACCOUNT, new BigDecimal("50.00"), now);
+        
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("50.00"), now)).isNull();
+    }
+    
+    @Test
+    void releaseForAnUnknownAccountIsIgnored() {
+        velocityLimiter.release(ACCOUNT, new BigDecimal("50.00"), System.currentTimeMillis());
+        
+        assertThat(windows()).isEmpty();
+    }
+    
+    @Test
+    void evictsAccountsIdleForADay() {
+        long now = System.currentTimeMillis();
+        velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), now - 25 * HOUR);
+        velocityLimiter.tryReserve("1000000002", new BigDecimal("1.00"), now - 23 * HOUR);
+        
+        velocityLimiter.evictIdleAccounts();
+        
+        assertThat(windows()).containsOnlyKeys("1000000002");
+    }
+    
+    @Test
+    void rebuildsTheWindowsFromHistory() {
+        limits(2, 0, 0, 0);
+        LocalDateTime recently = LocalDateTime.now().minusMinutes(10);
+        when(transactionRepository.streamByTypeAndStatusSince(anyCollection(), anyCollection(), any()))
+                .thenReturn(Stream.of(debit(ACCOUNT, recently), debit(ACCOUNT, recently)));
+        velocityLimiter.tryReserve("1000000002", new BigDecimal("1.00"), System.currentTimeMillis());
+        
+        velocityLimiter.rebuild();
+        
+        assertThat(windows()).containsOnlyKeys(ACCOUNT);
+        assertThat(velocityLimiter.tryReserve(ACCOUNT, new BigDecimal("1.00"), System.currentTimeMillis()))
+                .isEqualTo("Hourly limit of 2 transactions reached");
+    }
+    
+    private void limits(long hourlyCount, long hourlyAmount, long dailyCount, long dailyAmount) {
+        ReflectionTestUtils.setField(velocityLimiter, "hourlyCount", hourlyCount);
+        ReflectionTestUtils.setField(velocityLimiter, "hourlyAmount", BigDecimal.valueOf(hourlyAmount));
+        ReflectionTestUtils.setField(velocityLimiter, "dailyCount", dailyCount);
+        ReflectionTestUtils.setField(velocityLimiter, "dailyAmount", BigDecimal.valueOf(dailyAmount));
+    }
+    
+    private Map<?, ?> windows() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(velocityLimiter, "windows");
+    }
+    
+    private static Transaction debit(String accountNumber, LocalDateTime transactionDate) {
+        return Transaction.builder()
+                .transactionId("TXN" + transactionDate)
+                .accountNumber(accountNumber)
+                .type(TransactionType.WITHDRAWAL)
+                .status(TransactionStatus.COMPLETED)
+                .amount(new BigDecimal("1.00"))
+                .transactionDate(transactionDate)
+                .build();
+    }
+}